@@ -0,0 +1,217 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import javax.imageio.ImageIO;
+
+/**
+ * AnimationSet.java - The decoded frames of one character type, shared by everyone
+ *
+ * Every Player/Enemy used to get its own AnimationManager that read and
+ * decoded all of its PNGs again: two Goblins = two copies of every Goblin
+ * frame, and every battle decoded the player's sprites from scratch.
+ *
+ * Now the frames live here, one set per class/enemy type, loaded the first
+ * time anyone asks for that type and then handed to every instance. A set
+ * never changes after loading, so sharing it is safe; the per-character
+ * part (which frame is showing, when it last changed) stays in
+ * AnimationManager, which is just a few fields pointing at a set.
+ */
+public final class AnimationSet {
+
+    // ==================== CACHE ====================
+    private static HashMap<String, AnimationSet> cache = new HashMap<>();   // "basePath|names|folders" -> set
+    private static AnimationSet[] classSets;                                // by class number (filled in as used)
+    private static AnimationSet[] enemySets;                                // by enemy type number
+    private static BufferedImage placeholder;                               // shown for missing animations
+
+    private final HashMap<String, List<BufferedImage>> animations = new HashMap<>();  // name -> frames (read only)
+
+    private AnimationSet() {}
+
+    /**
+     * The shared set for a player class (from its anim lines in GameData).
+     *
+     * @param classIndex - class number in GameData
+     */
+    public static synchronized AnimationSet forClass(int classIndex) {
+        GameData data = GameData.get();
+        if (classSets == null) classSets = new AnimationSet[data.classCount];
+        if (classSets[classIndex] == null) {
+            classSets[classIndex] = get(AssetManager.getPlayerAssetPath(data.className[classIndex]),
+                data.classAnimNames[classIndex], data.classAnimFolders[classIndex]);
+        }
+        return classSets[classIndex];
+    }
+
+    /**
+     * The shared set for an enemy type (from its anim lines in GameData).
+     *
+     * @param type - enemy type number in GameData
+     */
+    public static synchronized AnimationSet forEnemy(int type) {
+        GameData data = GameData.get();
+        if (enemySets == null) enemySets = new AnimationSet[data.enemyCount];
+        if (enemySets[type] == null) {
+            enemySets[type] = get(AssetManager.getEnemyAssetPath(data.enemyAsset[type]),
+                data.enemyAnimNames[type], data.enemyAnimFolders[type]);
+        }
+        return enemySets[type];
+    }
+
+    /**
+     * A class's set only if it's already been loaded (never loads it).
+     *
+     * @return the set, or null
+     */
+    public static synchronized AnimationSet loadedForClass(int classIndex) {
+        return classSets == null ? null : classSets[classIndex];
+    }
+
+    /**
+     * Get (loading it the first time) the set of animations in a folder.
+     *
+     * Example: names {"idle", "rush"}, folders {"idle", "run meat"} loads
+     * basePath/idle as "idle" and basePath/run meat as "rush".
+     *
+     * @param basePath - the character's asset folder
+     * @param names - animation names
+     * @param folders - folder for each name (same order)
+     * @return the shared set (the same object every time for the same arguments)
+     */
+    public static synchronized AnimationSet get(String basePath, String[] names, String[] folders) {
+        String key = basePath + "|" + String.join(",", names) + "|" + String.join(",", folders);
+        AnimationSet set = cache.get(key);
+        if (set == null) {
+            set = new AnimationSet();
+            for (int i = 0; i < names.length; i++) {
+                List<BufferedImage> frames = loadFrames(basePath + "/" + folders[i]);
+                if (frames != null) {
+                    set.animations.put(names[i], frames);
+                    System.out.println("Loaded animation '" + names[i] + "' with " + frames.size() + " frames");
+                }
+            }
+            cache.put(key, set);
+        }
+        return set;
+    }
+
+    /**
+     * @return the frames of an animation (unmodifiable), or null if it wasn't loaded
+     */
+    public List<BufferedImage> getFrames(String animationName) {
+        return animations.get(animationName);
+    }
+
+    /**
+     * Check if an animation has been loaded.
+     *
+     * @return true if animation exists and has at least one frame
+     */
+    public boolean hasAnimation(String animationName) {
+        return animations.containsKey(animationName);
+    }
+
+    /**
+     * @return number of frames, or 0 if animation doesn't exist
+     */
+    public int getFrameCount(String animationName) {
+        List<BufferedImage> frames = animations.get(animationName);
+        return frames != null ? frames.size() : 0;
+    }
+
+    /**
+     * The gray "[Placeholder]" image, made once and shared
+     * (missing sprites used to make a new one every frame).
+     */
+    public static synchronized BufferedImage getPlaceholder() {
+        if (placeholder == null) {
+            placeholder = AssetManager.createPlaceholder(128, 128);
+        }
+        return placeholder;
+    }
+
+    // ==================== LOADING ====================
+
+    /**
+     * Load an animation from a folder of image files.
+     *
+     * This reads all PNG/JPG files from a folder, sorts them by number,
+     * and decodes them as frames.
+     *
+     * @param folderPath - path to folder containing the image files
+     * @return the frames in order (unmodifiable), or null if there were none
+     */
+    private static List<BufferedImage> loadFrames(String folderPath) {
+        // Create a File object for the folder
+        File folder = new File(folderPath);
+
+        // Check if the folder actually exists and is a directory
+        if (!folder.exists() || !folder.isDirectory()) {
+            System.err.println("Animation folder not found: " + folderPath);
+            return null;  // if folder doesnt exist
+        }
+
+        // Get list of image files in the folder
+        // The lambda filter only accepts .png and .jpg files, ignores thumbnails and spritesheets
+        File[] files = folder.listFiles((dir, name) -> {
+            String lowerName = name.toLowerCase();
+            return (lowerName.matches("\\d+\\.png") ||          // matches files like "1.png", "2.png"
+                    lowerName.matches("\\d+\\.jpg") ||          // matches files like "1.jpg", "2.jpg"
+                    lowerName.contains(".png") ||               // any PNG file
+                    lowerName.contains(".jpg")) &&              // any JPG file
+                   !lowerName.equals("thumb.db") &&             // ignore Windows thumbnail cache
+                   !lowerName.contains("spritesheet");          // ignore spritesheet files (because there's 1 spritesheet file in goblin\idle)
+        });
+
+        if (files == null || files.length == 0) {
+            System.err.println("No animation frames found in: " + folderPath);
+            return null;
+        }
+
+        // Sort files by the number in their filename
+        // This ensures frames play in correct order (1.png, 2.png, 3.png, etc.)
+        java.util.Arrays.sort(files, (f1, f2) -> {
+            // Extract just the digits from filenames
+            String name1 = f1.getName().replaceAll("\\D", "");  // remove all non-digits
+            String name2 = f2.getName().replaceAll("\\D", "");
+
+            // If no numbers found in either file, sort alphabetically instead
+            if (name1.isEmpty() && name2.isEmpty()) {
+                return f1.getName().compareTo(f2.getName());
+            }
+            // Files without numbers go to the end
+            if (name1.isEmpty()) return 1;
+            if (name2.isEmpty()) return -1;
+
+            // Compare  numbers
+            int num1 = Integer.parseInt(name1);
+            int num2 = Integer.parseInt(name2);
+            return Integer.compare(num1, num2);
+        });
+
+        // Load each image file into memory
+        ArrayList<BufferedImage> frames = new ArrayList<>();
+        for (File file : files) {
+            try {
+                // ImageIO.read() loads the image file into a BufferedImage
+                BufferedImage frame = ImageIO.read(file);
+                if (frame != null) {
+                    frames.add(frame);  // add to  frames list
+                }
+            } catch (Exception e) {
+                // If one file fails to load, skip it
+                System.err.println("Failed to load frame: " + file.getName());
+            }
+        }
+
+        // Ensure at least 1 frame loaded
+        if (frames.isEmpty()) {
+            System.err.println("No frames successfully loaded from: " + folderPath);
+            return null;
+        }
+        return Collections.unmodifiableList(frames);
+    }
+}
@@ -147,7 +147,7 @@ public class AssetManager {
         
         // Draw white text saying "[Placeholder]"
         g.setColor(java.awt.Color.WHITE);
-        g.setFont(new java.awt.Font("Arial", java.awt.Font.BOLD, 14));
+        g.setFont(FontManager.arial(java.awt.Font.BOLD, 14));
         g.drawString("[Placeholder]", width / 2 - 50, height / 2);  
         
         g.dispose();
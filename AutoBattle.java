@@ -0,0 +1,188 @@
+/**
+ * AutoBattle.java - Plays a saved character through the campaign from the command line
+ *
+ * Loads a save with SaveFileManager.loadPlayer, plays the stage 1 -> last
+ * campaign with GameSession/CombatEngine (moves picked by a PlayerPolicy
+ * instead of buttons), as many times as asked, and writes the character
+ * back to the same save. No Swing, no sprites, no fonts - it runs on a
+ * headless box - so it can level test characters or run thousands of
+ * campaigns in a nightly job.
+ *
+ * Every campaign uses the same character object, so EXP and levels carry
+ * over from one campaign to the next, just like playing the game again from
+ * the same save. The character rests (full HP and mana) before each
+ * campaign, since a lost campaign leaves them at 0 HP.
+ *
+ * Besides the per-stage results it keeps telemetry (HP healed, mana spent,
+ * level-ups) by subscribing to each session's CombatEventBus and draining
+ * it after every battle, the same way the round statistics do.
+ *
+ * The save is only written once, after the last campaign, and the write is
+ * atomic (see SaveFileManager.savePlayer): a job killed halfway leaves the
+ * old save as it was.
+ *
+ * Usage:
+ *   java AutoBattle --user NAME [--slot N] [--policy greedy|random|scripted|solver]
+ *                   [--difficulty 1|2] [--campaigns N] [--seed N] [--dry-run]
+ *
+ * --dry-run plays everything but doesn't write the save.
+ * Exit code: 0 = done, 1 = bad arguments, 2 = save couldn't be loaded or written.
+ */
+public class AutoBattle {
+
+    private static final int MAX_TURNS = 500;   // safety limit per battle (same as BalanceSimulator)
+
+    public static void main(String[] args) {
+        String username = null;
+        int slot = 1;
+        String policyName = "greedy";
+        int difficulty = 1;
+        int campaigns = 1;
+        long seed = CombatRandom.newSeed();
+        boolean dryRun = false;
+
+        // Same "--name value" argument parsing as BalanceSimulator (plus one flag)
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--dry-run")) {
+                dryRun = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + args[i]);
+                System.exit(1);
+            }
+            switch (args[i]) {
+                case "--user":       username = args[++i]; break;
+                case "--slot":       slot = Integer.parseInt(args[++i]); break;
+                case "--policy":     policyName = args[++i]; break;
+                case "--difficulty": difficulty = Integer.parseInt(args[++i]); break;
+                case "--campaigns":  campaigns = Integer.parseInt(args[++i]); break;
+                case "--seed":       seed = Long.parseLong(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        if (username == null) {
+            System.err.println("Usage: java AutoBattle --user NAME [--slot N] [--policy greedy|random|scripted|solver]"
+                + " [--difficulty 1|2] [--campaigns N] [--seed N] [--dry-run]");
+            System.exit(1);
+        }
+        if (difficulty != 1 && difficulty != 2) {
+            System.err.println("Difficulty must be 1 (Normal) or 2 (Hard)");
+            System.exit(1);
+        }
+
+        Player player = SaveFileManager.loadPlayer(username, slot);
+        if (player == null) {
+            System.err.println("Could not load save slot " + slot + " for " + username);
+            System.exit(2);
+        }
+
+        CombatRandom rng = new CombatRandom(seed);
+        PlayerPolicy policy;
+        try {
+            policy = createPolicy(policyName, player.getClassName(), rng.split());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        int stages = GameData.get().stageCount;
+        long[] reached = new long[stages];
+        long[] wins = new long[stages];
+        long turns = 0;
+        long cleared = 0;
+        Telemetry telemetry = new Telemetry();
+        int startLevel = player.getLevel();
+        long startExp = player.getExperience();
+
+        long start = System.nanoTime();
+        for (int c = 0; c < campaigns; c++) {
+            // Rest before setting out again
+            player.heal(player.getMaxHP());
+            player.restoreMana(player.getMaxMana());
+
+            GameSession session = new GameSession(username, slot, player, difficulty, rng.split());
+            CombatEventBus.Subscription feed = session.getEvents().subscribe();
+            for (int stage = 1; stage <= stages; stage++) {
+                CombatEngine engine = new CombatEngine(session);
+                boolean won = engine.runBattle(policy, MAX_TURNS);
+                feed.drain(telemetry);
+                reached[stage - 1]++;
+                turns += engine.getTurn();
+                if (!won) break;
+
+                wins[stage - 1]++;
+                if (stage < stages) session.nextStage();
+                else cleared++;
+            }
+            telemetry.dropped += feed.getDropped();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // ========== SUMMARY ==========
+        System.out.println(player.getCharacterName() + " (" + player.getClassName() + "), "
+            + (difficulty == 1 ? "NORMAL" : "HARD") + ", policy " + policyName);
+        for (int s = 0; s < stages; s++) {
+            System.out.printf("  stage %d: %d/%d won (%.1f%%)%n",
+                s + 1, wins[s], reached[s], reached[s] == 0 ? 0 : 100.0 * wins[s] / reached[s]);
+        }
+        System.out.printf("  campaigns cleared: %d/%d%n", cleared, campaigns);
+        System.out.println("  level " + startLevel + " -> " + player.getLevel()
+            + ", EXP " + startExp + " -> " + player.getExperience());
+        System.out.println("  healed " + telemetry.healed + " HP, spent " + telemetry.manaSpent + " mana, "
+            + telemetry.levelUps + " level-ups"
+            + (telemetry.dropped > 0 ? " (" + telemetry.dropped + " events missed)" : ""));
+        if (policy instanceof SolverPolicy) {
+            SolverPolicy sp = (SolverPolicy) policy;
+            System.out.println("  solver moves: " + sp.getSolverMoves() + ", greedy fallback: " + sp.getFallbackMoves());
+        }
+        System.err.printf("Played %d campaigns (%d turns) in %.2f s (%.0f campaigns/s, seed %d)%n",
+            campaigns, turns, seconds, campaigns / seconds, seed);
+
+        if (dryRun) {
+            System.out.println("Dry run - save not written");
+        } else if (SaveFileManager.savePlayer(username, slot, player)) {
+            System.out.println("Saved to slot " + slot);
+        } else {
+            System.err.println("Could not write save slot " + slot + " for " + username);
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Same policies as BalanceSimulator, plus the solver.
+     */
+    private static PlayerPolicy createPolicy(String policyName, String className, CombatRandom rng) {
+        switch (policyName) {
+            case "random":   return new RandomPolicy(rng);
+            case "scripted": return ScriptedPolicy.defaultFor(className);
+            case "greedy":   return new GreedyPolicy();
+            case "solver":   return new SolverPolicy();
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + policyName);
+        }
+    }
+
+    /**
+     * Adds up the combat events AutoBattle reports that the session doesn't keep.
+     */
+    private static class Telemetry implements CombatEventBus.Handler {
+        long healed;
+        long manaSpent;
+        long levelUps;
+        long dropped;   // events a drain missed (a battle longer than the bus holds)
+
+        @Override
+        public void onEvent(CombatEventBus.Type type, boolean player, long amount, boolean endOfBatch) {
+            switch (type) {
+                case HEALED:     healed += amount; break;
+                case MANA_SPENT: manaSpent += amount; break;
+                case LEVEL_UP:   levelUps++; break;
+                default:         break;
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * BalanceSimulator.java - Plays huge numbers of campaigns to check game balance
+ *
+ * Instead of tuning Barbarian/Archer/Mage against Goblin/Skeleton/Plent by hand,
+ * this runs full campaigns (every stage in data/definitions.txt) for every
+ * class on both difficulties,
+ * with the player's moves picked by a PlayerPolicy, and reports per stage:
+ * - how many campaigns reached the stage and the win rate there
+ * - average turns to win
+ * - average damage dealt and taken
+ * - average EXP gained and the player's level afterwards (the EXP curve)
+ *
+ * By default campaigns run through CombatBatch, which plays a whole chunk of
+ * campaigns at once in plain int arrays. --engine objects runs them through
+ * CombatEngine with real Player/Enemy objects instead (the reference version;
+ * both give the same CSV for the same seed). No Swing and no sprites either way,
+ * and the work is split across all CPU cores. Results are printed as CSV.
+ *
+ * All randomness comes from one root seed that is split into a separate
+ * CombatRandom per work chunk (and again per campaign), so threads never
+ * share a generator and the same --seed gives the same CSV every time.
+ *
+ * Usage:
+ *   java BalanceSimulator [--campaigns N] [--policy scripted|random|greedy] [--engine batch|objects]
+ *                         [--threads N] [--seed N] [--out file.csv]
+ *
+ * --campaigns is per class/difficulty (default 10000).
+ */
+public class BalanceSimulator {
+
+    // ==================== WHAT WE SIMULATE ====================
+    private static final String[] CLASSES = { "Barbarian", "Archer", "Mage" };
+    private static final int[] DIFFICULTIES = { 1, 2 };
+    private static final int STAGES = GameData.get().stageCount;
+    private static final int MAX_TURNS = 500;        // safety limit per battle
+    private static final int CAMPAIGNS_PER_TASK = 1000;  // work chunk handed to one thread
+
+    // ==================== METRICS (one long per stage per metric) ====================
+    private static final int REACHED = 0;       // campaigns that got to this stage
+    private static final int WINS = 1;          // battles won at this stage
+    private static final int TURNS_WON = 2;     // total turns of won battles
+    private static final int DMG_DEALT = 3;     // total damage dealt
+    private static final int DMG_TAKEN = 4;     // total damage taken
+    private static final int EXP = 5;           // total EXP gained
+    private static final int LEVEL_AFTER = 6;   // total player level after the battle
+    private static final int METRICS = 7;
+
+    public static void main(String[] args) throws Exception {
+        int campaigns = 10000;
+        String policyName = "scripted";
+        String engineName = "batch";
+        int threads = Runtime.getRuntime().availableProcessors();
+        String outPath = null;
+        long seed = CombatRandom.newSeed();
+
+        // Very simple "--name value" argument parsing
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--campaigns": campaigns = Integer.parseInt(args[i + 1]); break;
+                case "--policy":    policyName = args[i + 1]; break;
+                case "--engine":    engineName = args[i + 1]; break;
+                case "--threads":   threads = Integer.parseInt(args[i + 1]); break;
+                case "--out":       outPath = args[i + 1]; break;
+                case "--seed":      seed = Long.parseLong(args[i + 1]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        long start = System.nanoTime();
+        if (!engineName.equals("batch") && !engineName.equals("objects")) {
+            System.err.println("Unknown engine: " + engineName);
+            return;
+        }
+        long[][] results = run(campaigns, policyName, engineName.equals("batch"), threads, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        if (outPath == null) {
+            writeCsv(new PrintWriter(new OutputStreamWriter(System.out)), results, policyName);
+        } else {
+            try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(outPath)))) {
+                writeCsv(out, results, policyName);
+            }
+        }
+
+        long total = (long) campaigns * CLASSES.length * DIFFICULTIES.length;
+        System.err.printf("Simulated %d campaigns in %.2f s (%.0f campaigns/s, %s engine, %d threads, seed %d)%n",
+            total, seconds, total / seconds, engineName, threads, seed);
+    }
+
+    /**
+     * Run every class/difficulty combination in parallel.
+     *
+     * @return one metrics array per configuration (index = class * DIFFICULTIES.length + difficulty index)
+     */
+    public static long[][] run(int campaigns, String policyName, boolean batch, int threads, long seed)
+            throws InterruptedException, ExecutionException {
+        int configs = CLASSES.length * DIFFICULTIES.length;
+        long[][] results = new long[configs][STAGES * METRICS];
+        CombatRandom root = new CombatRandom(seed);
+
+        // Split each configuration into chunks so all cores stay busy
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            List<Integer> futureConfig = new ArrayList<>();
+            for (int c = 0; c < configs; c++) {
+                String className = CLASSES[c / DIFFICULTIES.length];
+                int difficulty = DIFFICULTIES[c % DIFFICULTIES.length];
+                for (int done = 0; done < campaigns; done += CAMPAIGNS_PER_TASK) {
+                    int count = Math.min(CAMPAIGNS_PER_TASK, campaigns - done);
+                    // Split here (in order, on this thread) so results don't depend on thread timing
+                    CombatRandom chunkRng = root.split();
+                    futures.add(pool.submit(() -> batch
+                        ? runBatchChunk(className, difficulty, policyName, count, chunkRng)
+                        : runChunk(className, difficulty, policyName, count, chunkRng)));
+                    futureConfig.add(c);
+                }
+            }
+
+            // Add up every chunk's totals (each thread had its own array, so no locking)
+            for (int i = 0; i < futures.size(); i++) {
+                long[] chunk = futures.get(i).get();
+                long[] total = results[futureConfig.get(i)];
+                for (int m = 0; m < total.length; m++) total[m] += chunk[m];
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    /**
+     * Play some campaigns for one class/difficulty and total up the metrics.
+     */
+    private static long[] runChunk(String className, int difficulty, String policyName, int count, CombatRandom rng) {
+        long[] m = new long[STAGES * METRICS];
+        for (int i = 0; i < count; i++) {
+            Player player = createPlayer(className);
+            PlayerPolicy policy = createPolicy(policyName, className, rng.split());
+            GameSession session = new GameSession("sim", 0, player, difficulty, rng.split());
+
+            // Stage 1 -> last, stop at the first defeat (just like the real game)
+            for (int stage = 1; stage <= STAGES; stage++) {
+                int base = (stage - 1) * METRICS;
+                CombatEngine engine = new CombatEngine(session);
+                boolean won = engine.runBattle(policy, MAX_TURNS);
+
+                m[base + REACHED]++;
+                m[base + DMG_DEALT] += session.getRoundsDamageDealt();
+                m[base + DMG_TAKEN] += session.getRoundsDamageTaken();
+                m[base + EXP] += session.getRoundsExperienceGained();
+                m[base + LEVEL_AFTER] += player.getLevel();
+                if (!won) break;
+
+                m[base + WINS]++;
+                m[base + TURNS_WON] += engine.getTurn();
+                if (stage < STAGES) session.nextStage();
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Same as runChunk, but all campaigns at once in a CombatBatch.
+     */
+    private static long[] runBatchChunk(String className, int difficulty, String policyName, int count, CombatRandom rng) {
+        CombatBatch batch = new CombatBatch(className, difficulty, CombatBatch.policyFromName(policyName), MAX_TURNS);
+        batch.run(count, rng);
+
+        long[] m = new long[STAGES * METRICS];
+        for (int s = 0; s < STAGES; s++) {
+            int base = s * METRICS;
+            m[base + REACHED] = batch.reached[s];
+            m[base + WINS] = batch.wins[s];
+            m[base + TURNS_WON] = batch.turnsWon[s];
+            m[base + DMG_DEALT] = batch.damageDealt[s];
+            m[base + DMG_TAKEN] = batch.damageTaken[s];
+            m[base + EXP] = batch.expGained[s];
+            m[base + LEVEL_AFTER] = batch.levelAfter[s];
+        }
+        return m;
+    }
+
+    /**
+     * Print the results, one row per class/difficulty/stage.
+     */
+    private static void writeCsv(PrintWriter out, long[][] results, String policyName) {
+        out.println("class,difficulty,stage,enemy,policy,reached,wins,win_rate,avg_turns_to_win,"
+            + "avg_damage_dealt,avg_damage_taken,avg_exp,avg_level_after");
+
+        for (int c = 0; c < results.length; c++) {
+            String className = CLASSES[c / DIFFICULTIES.length];
+            int difficulty = DIFFICULTIES[c % DIFFICULTIES.length];
+            for (int stage = 1; stage <= STAGES; stage++) {
+                long[] r = results[c];
+                int base = (stage - 1) * METRICS;
+                long reached = r[base + REACHED];
+                long wins = r[base + WINS];
+                out.printf("%s,%s,%d,%s,%s,%d,%d,%.4f,%.2f,%.2f,%.2f,%.2f,%.2f%n",
+                    className, difficulty == 1 ? "NORMAL" : "HARD", stage, enemyForStage(stage), policyName,
+                    reached, wins,
+                    ratio(wins, reached),
+                    ratio(r[base + TURNS_WON], wins),
+                    ratio(r[base + DMG_DEALT], reached),
+                    ratio(r[base + DMG_TAKEN], reached),
+                    ratio(r[base + EXP], reached),
+                    ratio(r[base + LEVEL_AFTER], reached));
+            }
+        }
+        out.flush();
+    }
+
+    private static double ratio(long a, long b) {
+        return b == 0 ? 0 : (double) a / b;
+    }
+
+    /**
+     * Which enemy the campaign fights at a stage (matches GameSession.generateEnemy).
+     */
+    private static String enemyForStage(int stage) {
+        GameData data = GameData.get();
+        return data.enemyName[data.enemyForStage(stage)];
+    }
+
+    private static Player createPlayer(String className) {
+        return Player.create(className, "sim");
+    }
+
+    private static PlayerPolicy createPolicy(String policyName, String className, CombatRandom rng) {
+        switch (policyName) {
+            case "random":   return new RandomPolicy(rng);
+            case "scripted": return ScriptedPolicy.defaultFor(className);
+            case "greedy":   return new GreedyPolicy();
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + policyName);
+        }
+    }
+}
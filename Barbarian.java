@@ -1,7 +1,11 @@
-import java.util.ArrayList;
-
 public class Barbarian extends Player {
     
+    // The two moves with combo rules (looked up once from GameData)
+    public static final Move RUSH = GameData.get().findClassMove("Barbarian", "Rush");
+    public static final Move PUNCH = GameData.get().findClassMove("Barbarian", "Punch");
+    
+    public static final int COMBO_BONUS = 8;  // extra Punch damage right after a Rush
+    
     // Special state for combo mechanic - tracks if last move was Rush. if it was, punch is stronger
     private boolean lastActionWasRush = false;
     
@@ -12,117 +16,43 @@ public class Barbarian extends Player {
     public Barbarian(String characterName) {
         // Call parent constructor with class name "Barbarian"
         super(characterName, "Barbarian");
-        // Load sprite animations
-        initializeAnimations();
-    }
-    
-    /**
-     * Set up all the sprite animations for the Barbarian.
-     * 
-     * Loads from the barbarian asset folder with different action types.
-     * The "run meat" folder has the rushing animation (because the 'barbarian' is running while holding meat)
-     */
-    private void initializeAnimations() {
-        // Create a new animation manager for Barbarian sprites
-        animationManager = new AnimationManager("Barbarian");
-        
-        // Get the base path to Barbarian assets
-        String basePath = AssetManager.getPlayerAssetPath("Barbarian");
-        
-        // Load each animation from its folder
-        animationManager.loadAnimation("idle", basePath + "/idle");     
-        animationManager.loadAnimation("attack", basePath + "/attack"); 
-        animationManager.loadAnimation("rush", basePath + "/run meat"); 
-        
-        // Set frame delay - 100ms = 10 FPS animation speed
-        animationManager.setFrameDelay(100);
-    }
-    
-    @Override
-    protected void initializeStats() {
-        this.maxHP = 80;         
-        this.currentHP = 80;     
-        this.maxMana = 30;      
-        this.currentMana = 30;  
-        this.attack = 12;       
-        this.defense = 10;      
-    }
-    
-    /**
-     * Get the list of attack moves.
-     * 
-     * @return ArrayList containing "Rush" and "Punch"
-     */
-    @Override
-    public ArrayList<String> getAttackMoves() {
-        ArrayList<String> moves = new ArrayList<>();
-        moves.add("Rush");   // charging attack, enables combo
-        moves.add("Punch");  // this is the attack where the 'barbarian' punches with meat, just because c:
-        return moves;
+        // Sprites are loaded the first time getAnimationManager() is called,
+        // so creating a character (save screen, simulations) doesn't decode any images
     }
     
     /**
-     * Get the list of defense moves.
+     * Use a move, with the Rush -> Punch combo on top.
      * 
-     * @return ArrayList containing "Heal"
+     * The combo state changes even if there isn't enough mana
+     * (Rush still "sets up" the combo, Punch still uses it up).
+     * Heal doesn't touch the combo.
      */
     @Override
-    public ArrayList<String> getDefenseMoves() {
-        ArrayList<String> moves = new ArrayList<>();
-        moves.add("Heal");   // restore HP
-        return moves;
-    }
-    
-
-    @Override
-    public int executeAttack(String moveName) {
-        if (moveName.equals("Rush")) {
-   
-            lastActionWasRush = true;  
-            if (!useMana(10)) return 0; 
-            return attack + 5;  
-            
-        } else if (moveName.equals("Punch")) {
-            int damage = attack + 3;  
-
-            if (lastActionWasRush) {
-                damage += 8;  
-            }
-            
-
+    public int executeMove(Move move) {
+        boolean combo = lastActionWasRush;
+        if (move == RUSH) {
+            lastActionWasRush = true;
+        } else if (move == PUNCH) {
             lastActionWasRush = false;
-            
-            if (!useMana(5)) return 0; 
-            return damage;
         }
         
-
-        lastActionWasRush = false;
-        return 0;
-    }
-    
-
-    @Override
-    public int executeDefense(String moveName) {
-         if (moveName.equals("Heal")) {
-            if (!useMana(15)) return 0;  
-            heal(30);  
-            return 0;  
+        int damage = super.executeMove(move);
+        if (move == PUNCH && combo && damage > 0) {
+            damage += COMBO_BONUS;
         }
-        return 0;
+        return damage;
     }
-
-
+    
+    /**
+     * Punch shows the combo bonus if Rush was just used.
+     */
     @Override
-    public String getActionLabel(String moveName, boolean isAttack) {
-        if (moveName.equals("Rush")) {
-            return "Rush (ATK+5, -10 MP)";
-        } else if (moveName.equals("Punch")) {
-            return "Punch (ATK+3, +8 combo, -5 MP)";  // shows combo bonus!
-        } else if (moveName.equals("Heal")) {
-            return "Heal (+30 HP, -15 MP)";
+    public int previewDamage(Move move) {
+        int damage = super.previewDamage(move);
+        if (move == PUNCH && lastActionWasRush) {
+            damage += COMBO_BONUS;
         }
-        return moveName;
+        return damage;
     }
     
     /**
@@ -133,6 +63,13 @@ public class Barbarian extends Player {
     public void setLastActionWasRush(boolean value) {
         this.lastActionWasRush = value;
     }
+
+    /**
+     * @return true if the next Punch gets the combo bonus
+     */
+    public boolean getLastActionWasRush() {
+        return lastActionWasRush;
+    }
     
     /**
      * Get class-specific data for saving.
@@ -157,23 +94,6 @@ public class Barbarian extends Player {
         this.lastActionWasRush = "1".equals(data);
     }
     
-    /**
-     * Get the animation manager, initializing if needed.
-     * 
-     * This override ensures animations work even after loading a save file.
-     * If animationManager is null (wasn't saved), we recreate it.
-     * 
-     * @return the AnimationManager for this Barbarian
-     */
-    @Override
-    public AnimationManager getAnimationManager() {
-        // Lazy initialization - create if doesn't exist
-        if (animationManager == null) {
-            initializeAnimations();
-        }
-        return animationManager;
-    }
-    
     /**
      * Get the current idle animation frame.
      * @return BufferedImage of current idle frame
@@ -0,0 +1,70 @@
+/**
+ * BatchCheck.java - Checks that CombatBatch and CombatEngine agree
+ *
+ * CombatBatch promises the exact same results as the object version for the
+ * same seed (same rules, same random numbers in the same order). This runs
+ * BalanceSimulator both ways for every policy with one seed and compares
+ * every total (reached, wins, turns, damage, EXP, levels) for every class,
+ * difficulty and stage. Run it after touching the rules in either place.
+ *
+ * Usage:
+ *   java BatchCheck [--campaigns N] [--seed N] [--threads N]
+ *
+ * Exit code: 0 = identical, 1 = bad arguments, 2 = the engines disagree.
+ */
+public class BatchCheck {
+
+    private static final String[] POLICIES = { "scripted", "random", "greedy" };
+
+    public static void main(String[] args) throws Exception {
+        int campaigns = 2000;
+        long seed = 42;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        // Same "--name value" argument parsing as BalanceSimulator
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + args[i]);
+                System.exit(1);
+            }
+            switch (args[i]) {
+                case "--campaigns": campaigns = Integer.parseInt(args[++i]); break;
+                case "--seed":      seed = Long.parseLong(args[++i]); break;
+                case "--threads":   threads = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        boolean same = true;
+        for (String policy : POLICIES) {
+            long[][] objects = BalanceSimulator.run(campaigns, policy, false, threads, seed);
+            long[][] batch = BalanceSimulator.run(campaigns, policy, true, threads, seed);
+            String problem = compare(objects, batch);
+            System.out.println(policy + ": " + (problem == null ? "identical" : "DIFFERENT - " + problem));
+            if (problem != null) same = false;
+        }
+        System.out.println(campaigns + " campaigns per class and difficulty, seed " + seed);
+        System.exit(same ? 0 : 2);
+    }
+
+    /**
+     * Compare two BalanceSimulator.run results (same configuration order).
+     *
+     * @return where the first difference is, or null if there isn't one
+     */
+    private static String compare(long[][] objects, long[][] batch) {
+        int stages = GameData.get().stageCount;
+        for (int c = 0; c < objects.length; c++) {
+            int perStage = objects[c].length / stages;
+            for (int k = 0; k < objects[c].length; k++) {
+                if (objects[c][k] != batch[c][k]) {
+                    return "configuration " + c + ", stage " + (k / perStage + 1) + ", metric " + (k % perStage)
+                        + ": objects " + objects[c][k] + ", batch " + batch[c][k];
+                }
+            }
+        }
+        return null;
+    }
+}
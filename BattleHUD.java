@@ -0,0 +1,178 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import javax.swing.*;
+
+/**
+ * BattleHUD.java - Custom-painted HP/Mana display for one side of the battle
+ *
+ * This replaces the old stack of JLabels + JProgressBars. Every setText() on a
+ * JLabel made Swing revalidate the whole (null layout) GameManager panel, which
+ * was wasteful for something that is just a couple of bars and numbers.
+ *
+ * Instead this one component:
+ * - keeps the current values itself (retained mode)
+ * - draws the bars with fillRect
+ * - draws the numbers with a shared GlyphCache (no string building)
+ * - only repaints its own area when a value actually changes
+ *
+ * Layout (each row is 15px tall):
+ *   HP: 80/80
+ *   [=========== bar ===========]
+ *   Mana: 30/30          (player only)
+ *   [=========== bar ===========]
+ *   ATK: 12 | DEF: 10    (ATK: 12 (+3) while attack_up is on)
+ */
+public class BattleHUD extends JComponent implements StatChangeListener {
+
+    private static final long serialVersionUID = 1L;
+
+    // ==================== SIZES ====================
+    public static final int WIDTH = 150;
+    private static final int ROW_HEIGHT = 15;
+    private static final int BAR_HEIGHT = 12;
+
+    // ==================== COLORS ====================
+    private static final Color BAR_BACKGROUND = new Color(230, 230, 230);
+    private static final Color BAR_BORDER = Color.GRAY;
+    private static final Color MANA_COLOR = new Color(100, 150, 255);  // blue for mana
+
+    // ==================== SHARED GLYPHS ====================
+    // Rendered once and shared by every HUD (player and enemy use the same font)
+    private static GlyphCache valueGlyphs;
+
+    // ==================== STATE ====================
+    private boolean showMana;          // enemies don't have mana
+    private Color hpColor;             // green for the player, red for enemies
+    private int currentHP, maxHP;
+    private int currentMana, maxMana;
+    private BufferedImage statsLine;   // "ATK: x | DEF: y", rendered again only when one of them changes
+    private int attack = -1, attackBonus, defense;   // what statsLine shows
+
+    /**
+     * @param showMana - true to draw the mana row (player), false for enemies
+     * @param hpColor - color of the HP bar
+     */
+    public BattleHUD(boolean showMana, Color hpColor) {
+        this.showMana = showMana;
+        this.hpColor = hpColor;
+        setOpaque(false);  // background shows through between rows
+
+        if (valueGlyphs == null) {
+            valueGlyphs = new GlyphCache(FontManager.arial(Font.PLAIN, 11), Color.WHITE);
+        }
+    }
+
+    /**
+     * Height this HUD needs, depending on whether it shows mana.
+     */
+    public int getPreferredHeight() {
+        return ROW_HEIGHT * (showMana ? 5 : 3);
+    }
+
+    /**
+     * Update the values shown. Only repaints if something changed.
+     */
+    public void setStats(int currentHP, int maxHP, int currentMana, int maxMana) {
+        if (currentHP == this.currentHP && maxHP == this.maxHP
+                && currentMana == this.currentMana && maxMana == this.maxMana) {
+            return;  // nothing changed, nothing to draw
+        }
+        this.currentHP = currentHP;
+        this.maxHP = maxHP;
+        this.currentMana = currentMana;
+        this.maxMana = maxMana;
+        repaint();  // only our own bounds, no revalidate
+    }
+
+    /**
+     * StatChangeListener hook - Player/Enemy call this when HP or mana change.
+     */
+    @Override
+    public void statsChanged(int currentHP, int maxHP, int currentMana, int maxMana) {
+        setStats(currentHP, maxHP, currentMana, maxMana);
+    }
+
+    /**
+     * Set the attack/defense line. Rendered into an image, and only again
+     * when a number changes (so it's fine to call this every turn).
+     * 
+     * @param attack - base attack
+     * @param attackBonus - extra attack from effects (StatusEffects.getAttackBonus), shown as "(+n)"
+     * @param defense - defense
+     */
+    public void setCombatStats(int attack, int attackBonus, int defense) {
+        if (statsLine != null && attack == this.attack && attackBonus == this.attackBonus && defense == this.defense) {
+            return;
+        }
+        this.attack = attack;
+        this.attackBonus = attackBonus;
+        this.defense = defense;
+        String text = "ATK: " + attack + (attackBonus > 0 ? " (+" + attackBonus + ")" : "") + " | DEF: " + defense;
+        Font font = FontManager.arial(Font.PLAIN, 10);
+
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D sg = scratch.createGraphics();
+        FontMetrics fm = sg.getFontMetrics(font);
+        sg.dispose();
+
+        statsLine = new BufferedImage(Math.max(1, fm.stringWidth(text)), fm.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = statsLine.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(font);
+        g.setColor(Color.LIGHT_GRAY);
+        g.drawString(text, 0, fm.getAscent());
+        g.dispose();
+        repaint();
+    }
+
+    /**
+     * Draw everything in one pass.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        int y = 0;
+
+        // HP row + bar
+        int x = valueGlyphs.drawText(g, "HP: ", 0, y);
+        x = valueGlyphs.drawNumber(g, currentHP, x, y);
+        x = valueGlyphs.drawText(g, "/", x, y);
+        valueGlyphs.drawNumber(g, maxHP, x, y);
+        y += ROW_HEIGHT;
+        drawBar(g, y, currentHP, maxHP, hpColor);
+        y += ROW_HEIGHT;
+
+        // Mana row + bar (player only)
+        if (showMana) {
+            x = valueGlyphs.drawText(g, "Mana: ", 0, y);
+            x = valueGlyphs.drawNumber(g, currentMana, x, y);
+            x = valueGlyphs.drawText(g, "/", x, y);
+            valueGlyphs.drawNumber(g, maxMana, x, y);
+            y += ROW_HEIGHT;
+            drawBar(g, y, currentMana, maxMana, MANA_COLOR);
+            y += ROW_HEIGHT;
+        }
+
+        // ATK/DEF line
+        if (statsLine != null) {
+            g.drawImage(statsLine, 0, y, null);
+        }
+    }
+
+    /**
+     * Draw one progress bar (background, filled part, border).
+     */
+    private void drawBar(Graphics g, int y, int value, int max, Color fill) {
+        g.setColor(BAR_BACKGROUND);
+        g.fillRect(0, y, WIDTH, BAR_HEIGHT);
+
+        if (max > 0 && value > 0) {
+            // long math so huge HP values can't overflow
+            int filled = (int) ((long) Math.min(value, max) * (WIDTH - 2) / max);
+            g.setColor(fill);
+            g.fillRect(1, y + 1, filled, BAR_HEIGHT - 2);
+        }
+
+        g.setColor(BAR_BORDER);
+        g.drawRect(0, y, WIDTH - 1, BAR_HEIGHT - 1);
+    }
+}
@@ -0,0 +1,125 @@
+import java.util.ArrayList;
+
+/**
+ * BattleLog.java - Fixed-size history of what happened in a battle
+ *
+ * The old battle log was a JTextArea that we kept appending to, so a long
+ * fight kept growing the text document forever. This keeps only the most
+ * recent lines in a ring buffer (a fixed array where the write position
+ * wraps back around to 0 and overwrites the oldest line).
+ *
+ * Each line is a structured Entry (what kind of line + the text) so the view
+ * can color it without parsing strings.
+ *
+ * Old lines are gone for good once they fall off the buffer. The full
+ * history of a battle is its replay (ReplayRecorder), not this log.
+ */
+public class BattleLog {
+
+    /**
+     * What kind of line this is (the view picks a color from it).
+     */
+    public enum EntryType {
+        INFO,     // battle started, enemy appears, blank spacer lines
+        PLAYER,   // what the player did
+        ENEMY,    // what the enemy did
+        RESULT    // victory / defeat
+    }
+
+    /**
+     * One line of the battle log.
+     */
+    public static class Entry {
+        private final EntryType type;
+        private final String text;
+
+        public Entry(EntryType type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        public EntryType getType() { return type; }
+        public String getText() { return text; }
+    }
+
+    // ==================== RING BUFFER ====================
+    private Entry[] entries;      // fixed-size storage
+    private int next;             // index the next entry gets written to
+    private int size;             // how many entries are stored (max entries.length)
+    private long totalAdded;      // how many entries were ever added (including overwritten ones)
+
+    // ==================== LISTENERS ====================
+    private ArrayList<Runnable> changeListeners = new ArrayList<>(); // told when a line is added
+
+    /**
+     * @param capacity - how many lines to keep in memory
+     */
+    public BattleLog(int capacity) {
+        this.entries = new Entry[capacity];
+    }
+
+    /**
+     * Add a line to the log. Overwrites the oldest line once the buffer is full.
+     *
+     * @param type - what kind of line it is
+     * @param text - the text to show
+     */
+    public void add(EntryType type, String text) {
+        entries[next] = new Entry(type, text);
+        next = (next + 1) % entries.length;  // wrap around
+        if (size < entries.length) size++;
+        totalAdded++;
+
+        for (Runnable r : changeListeners) r.run();
+    }
+
+    /**
+     * Add an empty spacer line.
+     */
+    public void addBlank() {
+        add(EntryType.INFO, "");
+    }
+
+    /**
+     * Get a stored entry.
+     *
+     * @param index - 0 is the oldest line still in memory, size()-1 is the newest
+     * @return the entry
+     */
+    public Entry get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Log index " + index + " (size " + size + ")");
+        }
+        // The oldest entry sits right after the newest one once we've wrapped
+        int start = (next - size + entries.length) % entries.length;
+        return entries[(start + index) % entries.length];
+    }
+
+    /**
+     * How many lines are currently stored.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * How many lines can be stored before old ones get overwritten.
+     */
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /**
+     * How many lines were ever added, including ones that fell off the buffer.
+     */
+    public long getTotalAdded() {
+        return totalAdded;
+    }
+
+    /**
+     * Register something to be told whenever a line is added (the view uses this).
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+}
@@ -0,0 +1,263 @@
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import javax.swing.*;
+
+/**
+ * BattleLogView.java - Draws a BattleLog inside a JScrollPane
+ *
+ * Unlike a JTextArea, this doesn't build a text document. Each entry is
+ * word-wrapped to the viewport's width (like the old text area's line wrap)
+ * once, when it's added, and its rows are kept in a ring that matches the
+ * log's own: when the log overwrites its oldest entry we drop that entry's
+ * rows and wrap only the new one. Everything is wrapped again only when the
+ * width changes. Every row is the same height, so when Swing asks us to
+ * paint we work out which rows are actually inside the visible area (the
+ * clip) and only draw those.
+ *
+ * Implements Scrollable so the scroll pane scrolls one line at a time and
+ * the view always fills the viewport's width.
+ */
+public class BattleLogView extends JComponent implements Scrollable {
+
+    private static final long serialVersionUID = 1L;
+
+    // ==================== LOOK ====================
+    private static final Font LOG_FONT = FontManager.arial(Font.PLAIN, 12);
+    private static final Color BACKGROUND = new Color(50, 50, 50);  // dark gray
+    private static final Color INFO_COLOR = Color.LIGHT_GRAY;
+    private static final Color PLAYER_COLOR = Color.WHITE;
+    private static final Color ENEMY_COLOR = new Color(255, 150, 150);
+    private static final Color RESULT_COLOR = new Color(218, 165, 32);  // gold
+    private static final int PADDING = 4;
+
+    private BattleLog log;    // the data we show
+    private FontMetrics metrics;
+    private int lineHeight;   // height of one line in pixels
+    private int ascent;       // distance from top of a line to the text baseline
+
+    // ==================== WRAPPED ROWS ====================
+    // Entry number n (counting every entry ever added) keeps its rows in
+    // slot n % capacity - the same slot the entry that replaces it will use.
+    private String[][] wrapped;
+    private BattleLog.EntryType[] wrappedType;
+    private long wrappedUpTo;      // how many entries of the log we've wrapped (log.getTotalAdded())
+    private int rowCount;          // rows of all the entries still in the log
+    private int wrapWidth = Integer.MAX_VALUE;   // text width the rows fit (no width yet = no wrapping)
+
+    /**
+     * @param log - the battle log to display
+     */
+    public BattleLogView(BattleLog log) {
+        this.log = log;
+        setOpaque(true);
+        setFont(LOG_FONT);
+
+        metrics = getFontMetrics(LOG_FONT);
+        lineHeight = metrics.getHeight();
+        ascent = metrics.getAscent();
+
+        wrapped = new String[log.getCapacity()][];
+        wrappedType = new BattleLog.EntryType[log.getCapacity()];
+        wrapNew();
+
+        // Whenever a line is added, update and scroll to the bottom
+        log.addChangeListener(this::logChanged);
+    }
+
+    /**
+     * Called by the BattleLog when a line is added.
+     */
+    private void logChanged() {
+        // Our height only changes if the number of rows does (once the ring
+        // buffer is full, only when a new entry wraps differently from the
+        // one it replaced). Otherwise we just repaint.
+        int before = rowCount;
+        wrapNew();
+        if (rowCount != before) {
+            revalidate();  // only goes up to the JScrollPane (it's a validate root)
+        }
+        repaint();
+
+        // Keep the newest line in view
+        SwingUtilities.invokeLater(() ->
+            scrollRectToVisible(new Rectangle(0, getPreferredSize().height - lineHeight, 1, lineHeight)));
+    }
+
+    /**
+     * The viewport changed our width: wrap everything again, and tell the
+     * scroll pane if that changed how tall we are.
+     */
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+        int textWidth = width > 0 ? Math.max(1, width - PADDING * 2) : Integer.MAX_VALUE;
+        if (textWidth == wrapWidth) return;
+        wrapWidth = textWidth;
+        int before = rowCount;
+        wrapAll();
+        if (rowCount != before) revalidate();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(100, rowCount * lineHeight + PADDING * 2);
+    }
+
+    // ==================== WRAPPING ====================
+
+    /**
+     * Wrap the entries added since last time, dropping the rows of the
+     * entries they pushed out of the log.
+     */
+    private void wrapNew() {
+        long total = log.getTotalAdded();
+        if (total - wrappedUpTo > log.size()) {
+            wrapAll();   // some were added and dropped before we saw them
+            return;
+        }
+        long oldest = total - log.size();   // entry number of log.get(0)
+        for (long n = wrappedUpTo; n < total; n++) {
+            int slot = (int) (n % wrapped.length);
+            if (wrapped[slot] != null) rowCount -= wrapped[slot].length;   // entry n - capacity
+            store(slot, log.get((int) (n - oldest)));
+        }
+        wrappedUpTo = total;
+    }
+
+    /**
+     * Wrap every entry in the log again (the width changed).
+     */
+    private void wrapAll() {
+        long total = log.getTotalAdded();
+        long oldest = total - log.size();
+        Arrays.fill(wrapped, null);
+        rowCount = 0;
+        for (int i = 0; i < log.size(); i++) {
+            store((int) ((oldest + i) % wrapped.length), log.get(i));
+        }
+        wrappedUpTo = total;
+    }
+
+    private void store(int slot, BattleLog.Entry entry) {
+        wrapped[slot] = wrap(entry.getText(), wrapWidth);
+        wrappedType[slot] = entry.getType();
+        rowCount += wrapped[slot].length;
+    }
+
+    /**
+     * Split one entry into rows that fit a width, breaking at the last space
+     * that fits (or mid-word if a word alone is too long).
+     */
+    private String[] wrap(String text, int width) {
+        int end = fitting(text, width);
+        if (end == text.length()) return new String[] { text };   // almost every line
+
+        ArrayList<String> rows = new ArrayList<>();
+        while (true) {
+            rows.add(text.substring(0, end));
+            text = text.substring(end).trim();
+            if (text.isEmpty()) break;
+            end = fitting(text, width);
+        }
+        return rows.toArray(new String[0]);
+    }
+
+    /**
+     * Adds up character widths until one doesn't fit, so a row costs one
+     * pass over its characters.
+     *
+     * @return how many characters of text go on one row of this width
+     */
+    private int fitting(String text, int width) {
+        int used = 0;
+        for (int i = 0; i < text.length(); i++) {
+            used += metrics.charWidth(text.charAt(i));
+            if (used > width) {
+                int space = text.lastIndexOf(' ', i);
+                return space > 0 ? space : Math.max(1, i);  // at least one character, so a row always moves on
+            }
+        }
+        return text.length();
+    }
+
+    /**
+     * Paint only the lines inside the clip rectangle.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        g.setColor(BACKGROUND);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(LOG_FONT);
+
+        // First and last row that touch the clip area
+        int first = Math.max(0, (clip.y - PADDING) / lineHeight);
+        int last = Math.min(rowCount - 1, (clip.y + clip.height - PADDING) / lineHeight);
+
+        // Skip whole entries until we reach the one holding the first row
+        // (just adding up row counts - nothing is measured)
+        int entries = log.size();
+        long oldest = wrappedUpTo - entries;
+        int e = 0;
+        int row = 0;
+        while (e < entries && row + wrapped[(int) ((oldest + e) % wrapped.length)].length <= first) {
+            row += wrapped[(int) ((oldest + e) % wrapped.length)].length;
+            e++;
+        }
+
+        for (; e < entries && row <= last; e++) {
+            int slot = (int) ((oldest + e) % wrapped.length);
+            g.setColor(colorFor(wrappedType[slot]));
+            for (String text : wrapped[slot]) {
+                if (row >= first && row <= last && !text.isEmpty()) {   // empty = spacer line
+                    g.drawString(text, PADDING, PADDING + row * lineHeight + ascent);
+                }
+                row++;
+            }
+        }
+    }
+
+    /**
+     * Pick the text color for a kind of line.
+     */
+    private Color colorFor(BattleLog.EntryType type) {
+        switch (type) {
+            case PLAYER: return PLAYER_COLOR;
+            case ENEMY:  return ENEMY_COLOR;
+            case RESULT: return RESULT_COLOR;
+            default:     return INFO_COLOR;
+        }
+    }
+
+    // ==================== SCROLLABLE ====================
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return lineHeight;  // scroll one line per click
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return Math.max(lineHeight, visibleRect.height - lineHeight);  // page up/down
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;  // never scroll sideways
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
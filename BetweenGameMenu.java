@@ -1,6 +1,7 @@
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 
@@ -86,7 +87,7 @@ public class BetweenGameMenu extends JPanel {
         boolean victory = player.isAlive();
         
         JLabel resultLabel = new JLabel(victory ? "VICTORY!" : "DEFEAT!");
-        resultLabel.setFont(new Font("CASTELLAR", Font.BOLD, 42));
+        resultLabel.setFont(FontManager.castellar(Font.BOLD, 42));
         // Green for victory, red for defeat
         resultLabel.setForeground(victory ? new Color(100, 255, 100) : new Color(255, 100, 100));
         resultLabel.setHorizontalAlignment(JLabel.CENTER);
@@ -95,10 +96,10 @@ public class BetweenGameMenu extends JPanel {
         
         // ========== STAGE INFO ==========
         JLabel stageLabel = new JLabel(
-            "Stage " + session.getStage() + " | " + 
+            "Stage " + session.getStage() + (session.isEndless() ? " (Endless)" : "") + " | " + 
             (session.getDifficulty() == 1 ? "NORMAL" : "HARD") + " Mode"
         );
-        stageLabel.setFont(new Font("CASTELLAR", Font.BOLD, 18));
+        stageLabel.setFont(FontManager.castellar(Font.BOLD, 18));
         stageLabel.setForeground(new Color(218, 165, 32));  // gold
         stageLabel.setHorizontalAlignment(JLabel.CENTER);
         stageLabel.setBounds(200, 155, 600, 25);
@@ -106,13 +107,13 @@ public class BetweenGameMenu extends JPanel {
         
         // ========== PLAYER INFO (UNDER SPRITE) ==========
         JLabel playerName = new JLabel(player.getCharacterName() + " (" + player.getClassName() + ")");
-        playerName.setFont(new Font("Arial", Font.BOLD, 14));
+        playerName.setFont(FontManager.arial(Font.BOLD, 14));
         playerName.setForeground(Color.WHITE);
         playerName.setBounds(150, 350, 200, 20);
         add(playerName);
         
         JLabel playerLevel = new JLabel("Level: " + player.getLevel());
-        playerLevel.setFont(new Font("Arial", Font.PLAIN, 12));
+        playerLevel.setFont(FontManager.arial(Font.PLAIN, 12));
         playerLevel.setForeground(Color.LIGHT_GRAY);
         playerLevel.setBounds(150, 370, 200, 20);
         add(playerLevel);
@@ -125,49 +126,51 @@ public class BetweenGameMenu extends JPanel {
         summaryPanel.setBorder(BorderFactory.createTitledBorder(
             BorderFactory.createLineBorder(new Color(218, 165, 32)),
             "Battle Summary", 0, 0,
-            new Font("CASTELLAR", Font.BOLD, 14),
+            FontManager.castellar(Font.BOLD, 14),
             new Color(218, 165, 32)
         ));
         summaryPanel.setBounds(400, 200, 450, 180);
         
         // Damage dealt (green = good)
         JLabel dmgDealt = new JLabel("Damage Dealt: " + session.getRoundsDamageDealt());
-        dmgDealt.setFont(new Font("Arial", Font.PLAIN, 14));
+        dmgDealt.setFont(FontManager.arial(Font.PLAIN, 14));
         dmgDealt.setForeground(new Color(100, 255, 100));
         dmgDealt.setBounds(20, 30, 200, 20);
         summaryPanel.add(dmgDealt);
         
         // Damage taken (red = ouch)
         JLabel dmgTaken = new JLabel("Damage Taken: " + session.getRoundsDamageTaken());
-        dmgTaken.setFont(new Font("Arial", Font.PLAIN, 14));
+        dmgTaken.setFont(FontManager.arial(Font.PLAIN, 14));
         dmgTaken.setForeground(new Color(255, 100, 100));
         dmgTaken.setBounds(20, 55, 200, 20);
         summaryPanel.add(dmgTaken);
         
         // Experience gained (blue = progress)
         JLabel expGained = new JLabel("EXP Gained: " + session.getRoundsExperienceGained());
-        expGained.setFont(new Font("Arial", Font.PLAIN, 14));
+        expGained.setFont(FontManager.arial(Font.PLAIN, 14));
         expGained.setForeground(new Color(100, 150, 255));
         expGained.setBounds(20, 80, 200, 20);
         summaryPanel.add(expGained);
         
         // HP remaining
         JLabel hpRemain = new JLabel("HP Remaining: " + player.getCurrentHP() + "/" + player.getMaxHP());
-        hpRemain.setFont(new Font("Arial", Font.PLAIN, 14));
+        hpRemain.setFont(FontManager.arial(Font.PLAIN, 14));
         hpRemain.setForeground(Color.WHITE);
         hpRemain.setBounds(220, 30, 200, 20);
         summaryPanel.add(hpRemain);
         
         // Mana remaining
         JLabel manaRemain = new JLabel("Mana Remaining: " + player.getCurrentMana() + "/" + player.getMaxMana());
-        manaRemain.setFont(new Font("Arial", Font.PLAIN, 14));
+        manaRemain.setFont(FontManager.arial(Font.PLAIN, 14));
         manaRemain.setForeground(Color.WHITE);
         manaRemain.setBounds(220, 55, 200, 20);
         summaryPanel.add(manaRemain);
         
         // Enemy info - shows defeated status if won
-        JLabel enemyDefeated = new JLabel("Enemy: " + enemy.getEnemyName() + (victory ? " (Defeated)" : ""));
-        enemyDefeated.setFont(new Font("Arial", Font.PLAIN, 14));
+        int enemyCount = session.getEnemies().length;
+        JLabel enemyDefeated = new JLabel((enemyCount == 1 ? "Enemy: " + enemy.getEnemyName() : "Enemies: swarm of " + enemyCount)
+                + (victory ? " (Defeated)" : ""));
+        enemyDefeated.setFont(FontManager.arial(Font.PLAIN, 14));
         enemyDefeated.setForeground(Color.LIGHT_GRAY);
         enemyDefeated.setBounds(220, 80, 200, 20);
         summaryPanel.add(enemyDefeated);
@@ -175,7 +178,7 @@ public class BetweenGameMenu extends JPanel {
         // Advice text at bottom of summary
         String advice = victory ? "Ready for the next challenge?" : "Better luck next time!";
         JLabel adviceLabel = new JLabel(advice);
-        adviceLabel.setFont(new Font("Arial", Font.ITALIC, 12));
+        adviceLabel.setFont(FontManager.arial(Font.ITALIC, 12));
         adviceLabel.setForeground(Color.LIGHT_GRAY);
         adviceLabel.setBounds(20, 120, 400, 20);
         summaryPanel.add(adviceLabel);
@@ -185,7 +188,7 @@ public class BetweenGameMenu extends JPanel {
         // ========== SAVE & EXIT BUTTON ==========
         // Gold button - saves progress and goes to main menu
         JButton saveBtn = new JButton("SAVE & EXIT");
-        saveBtn.setFont(new Font("CASTELLAR", Font.BOLD, 14));
+        saveBtn.setFont(FontManager.castellar(Font.BOLD, 14));
         saveBtn.setBackground(new Color(218, 165, 32));
         saveBtn.setFocusPainted(false);
         saveBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
@@ -200,7 +203,7 @@ public class BetweenGameMenu extends JPanel {
         // ========== VIEW STATS BUTTON ==========
         // Blue button - shows detailed player stats in popup
         JButton statsBtn = new JButton("VIEW STATS");
-        statsBtn.setFont(new Font("CASTELLAR", Font.BOLD, 14));
+        statsBtn.setFont(FontManager.castellar(Font.BOLD, 14));
         statsBtn.setBackground(new Color(100, 150, 200));
         statsBtn.setFocusPainted(false);
         statsBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
@@ -221,10 +224,10 @@ public class BetweenGameMenu extends JPanel {
         add(statsBtn);
         
         // ========== NEXT STAGE BUTTON  ==========
-        // Only show if player won AND there are more stages
-        if (victory && session.getStage() < 3) {
+        // Only show if player won AND there are more stages (endless mode never runs out)
+        if (victory && (session.isEndless() || session.getStage() < GameData.get().stageCount)) {
             JButton nextBtn = new JButton("NEXT STAGE");
-            nextBtn.setFont(new Font("CASTELLAR", Font.BOLD, 14));
+            nextBtn.setFont(FontManager.castellar(Font.BOLD, 14));
             nextBtn.setBackground(new Color(100, 200, 100));  // green = go!
             nextBtn.setFocusPainted(false);
             nextBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
@@ -238,12 +241,50 @@ public class BetweenGameMenu extends JPanel {
             add(nextBtn);
         } else if (victory) {
             JLabel winLabel = new JLabel("All Stages Complete!");
-            winLabel.setFont(new Font("CASTELLAR", Font.BOLD, 16));
+            winLabel.setFont(FontManager.castellar(Font.BOLD, 16));
             winLabel.setForeground(new Color(255, 215, 0));  // gold
-            winLabel.setBounds(650, 560, 200, 30);
+            winLabel.setBounds(650, 515, 200, 30);
             add(winLabel);
+            
+            // Campaign cleared - offer to keep going with EndlessMode enemies
+            JButton endlessBtn = new JButton("ENDLESS MODE");
+            endlessBtn.setFont(FontManager.castellar(Font.BOLD, 14));
+            endlessBtn.setBackground(new Color(150, 100, 200));  // purple
+            endlessBtn.setFocusPainted(false);
+            endlessBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
+            endlessBtn.setBounds(650, 550, 200, 50);
+            endlessBtn.addActionListener(e -> {
+                SaveFileManager.savePlayer(session.getUsername(), session.getSaveSlot(), player);
+                session.setEndless(true);
+                session.nextStage();  // first endless enemy
+                parentFrame.switchPanel(new PreGameMenu(session));
+            });
+            add(endlessBtn);
         }
         // Note: If player lost, no next button - can only save & exit
+        
+        // ========== WATCH REPLAY BUTTON ==========
+        // Plays the fight again from its replay file, then comes back here
+        if (session.getLastReplay() != null) {
+            JButton replayBtn = new JButton("WATCH REPLAY");
+            replayBtn.setFont(FontManager.castellar(Font.BOLD, 14));
+            replayBtn.setBackground(new Color(150, 150, 150));
+            replayBtn.setFocusPainted(false);
+            replayBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
+            replayBtn.setBounds(400, 615, 200, 40);
+            replayBtn.addActionListener(e -> {
+                // The file is written in the background; open it once it's done
+                session.getLastReplay().thenAccept(file -> SwingUtilities.invokeLater(() -> {
+                    try {
+                        parentFrame.switchPanel(new GameManager(ReplayReader.open(file), this));
+                    } catch (IOException ex) {
+                        JOptionPane.showMessageDialog(this, "Could not load the replay: " + ex.getMessage(),
+                            "Replay", JOptionPane.ERROR_MESSAGE);
+                    }
+                }));
+            });
+            add(replayBtn);
+        }
     }
     
     /**
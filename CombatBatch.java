@@ -0,0 +1,591 @@
+/**
+ * CombatBatch.java - Plays many campaigns at once using plain int arrays
+ *
+ * BalanceSimulator used to create a Player, an Enemy, a GameSession, a
+ * CombatEngine and a policy object for every campaign and then call through
+ * all of them every turn. This class keeps the state of N campaigns side by
+ * side instead ("struct of arrays"):
+ *
+ *   playerHP[i], playerMana[i], enemyHP[i], combo[i], ... = campaign i
+ *
+ * and advances every unfinished campaign one turn at a time, in a few tight
+ * loops over those arrays:
+ *   1. pick the player's move for every lane (one loop per policy, so the
+ *      policy check happens once per turn, not once per lane)
+ *   2. apply the player's moves, then the player's effects count down
+ *   3. let every surviving enemy reply, then its effects count down
+ *   4. handle lanes whose battle just ended (next stage or retire the lane)
+ *
+ * Playing lanes are always packed at 0 .. activeCount-1 (a finished campaign
+ * is replaced by the last playing lane), so every loop walks the arrays
+ * straight through from the start.
+ *
+ * Steps 2 and 3 have no if statements that depend on the battle: with random
+ * moves those branches are a coin flip for the CPU and mispredicting them
+ * cost more than the actual math. Instead they use per-slot lookup tables,
+ * masks (0 or -1 ANDed with a value) and Math.min/max, e.g. "pay the mana
+ * cost if we can afford it" is  mana - (cost & canAffordMask).  Enemy AI
+ * uses a table from dice roll straight to damage bonus instead of a loop.
+ *
+ * Every hit goes through DamagePipeline like in CombatEngine: the crit roll
+ * is one more step of the lane's generator (masked to nothing when the
+ * move doesn't hit) and defense is a table lookup, so the loops stay free
+ * of floating point and divisions.
+ *
+ * Status effects are kept the way StatusEffects keeps them, flattened: an
+ * int of active bits per lane and side, plus turns/power in arrays with
+ * COUNT entries per lane. Power is 0 for an effect that's off, so block and
+ * attack up are plain additions; the few ifs left (stun, putting an effect
+ * on, counting effects down after an action) only do work in lanes that
+ * have effects.
+ *
+ * The rules are the exact same ones as Player.executeMove, Barbarian's combo,
+ * Enemy.decideAction, CombatEngine and Player level-ups, and each lane draws
+ * its random numbers in the same order as the object version (same SplitMix64
+ * steps as CombatRandom), so a seed gives identical results either way.
+ * The object version (CombatEngine) stays as the reference.
+ *
+ * Lanes model one-on-one battles where the turns alternate, so every stage
+ * must have a single enemy as fast as the class (speed in the data file);
+ * otherwise the constructor refuses and BalanceSimulator needs --engine objects.
+ *
+ * Not thread-safe: give each thread its own CombatBatch.
+ */
+public final class CombatBatch {
+
+    // ==================== POLICIES ====================
+    public static final int POLICY_SCRIPTED = 0;   // same as ScriptedPolicy.defaultFor(class)
+    public static final int POLICY_RANDOM = 1;     // same as RandomPolicy
+    public static final int POLICY_GREEDY = 2;     // same as GreedyPolicy
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;  // SplitMix64 step (as in CombatRandom)
+    private static final double HARD_SCALE = 1.3;                  // hard mode enemy stats (as in GameSession)
+
+    // ==================== RULE TABLES (same for every lane) ====================
+    private final int policy;
+    private final int maxTurns;
+    private final int stages;
+
+    // The class's moves, by slot (see CombatRules)
+    private final CombatRules rules;
+    private final int moveCount;
+    private final int[] cost;
+    private final int[] heal;
+    private final int[] attackMask;
+    private final int[] baseValue;
+    private final int[] script;          // scripted policy's moves (slots)
+    private final int[] effect;          // status effect per slot (-1 = none), see CombatRules
+    private final int[] effectTurns;
+    private final int[] effectPower;
+    private final boolean[] effectOnSelf;
+    private final int comboBonus;
+    private final int[] comboKeep;
+    private final int[] comboSet;
+    private final int[] comboUse;
+
+    // Enemy per stage (index = stage - 1), with difficulty already applied
+    private final int[] stageEnemyHP;
+    private final int[] stageEnemyAttack;
+    private final int[] stageEnemyDefense;
+    private final int[] stageMoveFirst;    // first ability in GameData's move arrays
+    private final int[] stageMoveCount;
+    private final int[] stageWeightTotal;
+    private final int[] stageRollStart;    // where the stage's roll table starts in rollBonus
+    private final int[] rollBonus;         // dice roll -> damage bonus of the ability it picks
+    private final int[] rollEffect;        // dice roll -> status effect of that ability (-1 = none)
+    private final int[] rollEffectTurns;
+    private final int[] rollEffectPower;
+    private final long[] stageExp;         // EXP for winning the stage
+
+    // Starting stats of the class
+    private final int startHP, startMana, startAttack, startDefense;
+
+    // ==================== LANE STATE (index = campaign) ====================
+    private int[] playerHP, playerMaxHP, playerMana, playerMaxMana, playerAttack, playerDefense, playerLevel;
+    private long[] playerExp;
+    private int[] combo;         // 1 if the last move was Rush
+    private int[] scriptPos;     // scripted policy position
+    private int[] enemyHP, enemyAttack, enemyDefense;
+    private int[] playerFx, enemyFx;                      // active effect bits (StatusEffects)
+    private int[] playerFxTurns, playerFxPower;           // [lane * StatusEffects.COUNT + effect]
+    private int[] enemyFxTurns, enemyFxPower;
+    private int[] stage, turn, dealt, taken;
+    private long[] policyRng, sessionRng;   // SplitMix64 states
+    private int[] move;          // move picked this turn (slot)
+    private int activeCount;     // lanes 0 .. activeCount-1 are still playing
+    private int[] finished;      // lanes whose battle ended this turn (filled by applyEnemyMoves)
+    private int finishedCount;
+
+    // ==================== RESULTS (index = stage - 1) ====================
+    public final long[] reached;        // campaigns that got to the stage
+    public final long[] wins;           // battles won there
+    public final long[] turnsWon;       // total turns of won battles
+    public final long[] damageDealt;
+    public final long[] damageTaken;
+    public final long[] expGained;
+    public final long[] levelAfter;     // total player level after the battle
+
+    /**
+     * @param className - class to play (must have a Player definition in GameData)
+     * @param difficulty - 1 = Normal, 2 = Hard
+     * @param policy - POLICY_SCRIPTED, POLICY_RANDOM or POLICY_GREEDY
+     * @param maxTurns - safety limit per battle (a battle that hits it counts as lost)
+     */
+    public CombatBatch(String className, int difficulty, int policy, int maxTurns) {
+        GameData data = GameData.get();
+        int c = data.classIndexOf(className);
+        if (c < 0) throw new IllegalArgumentException("Unknown class: " + className);
+        this.policy = policy;
+        this.maxTurns = maxTurns;
+        this.stages = data.stageCount;
+
+        //  CLASS MOVES (shared tables, copied to fields so the loops read them directly)
+        rules = CombatRules.forClass(c);
+        moveCount = rules.moveCount;
+        cost = rules.cost;
+        heal = rules.heal;
+        attackMask = rules.attackMask;
+        baseValue = rules.baseValue;
+        comboBonus = rules.comboBonus;
+        comboKeep = rules.comboKeep;
+        comboSet = rules.comboSet;
+        comboUse = rules.comboUse;
+        effect = rules.effect;
+        effectTurns = rules.effectTurns;
+        effectPower = rules.effectPower;
+        effectOnSelf = rules.effectOnSelf;
+
+        if (policy == POLICY_SCRIPTED) {
+            String[] names = ScriptedPolicy.defaultFor(className).getScript();
+            script = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                Move m = data.findClassMove(className, names[i]);
+                if (m == null) throw new IllegalArgumentException(className + " has no move called " + names[i]);
+                script[i] = m.getSlot();
+            }
+        } else {
+            script = null;
+        }
+
+        //  STAGES
+        stageEnemyHP = new int[stages];
+        stageEnemyAttack = new int[stages];
+        stageEnemyDefense = new int[stages];
+        stageMoveFirst = new int[stages];
+        stageMoveCount = new int[stages];
+        stageWeightTotal = new int[stages];
+        stageExp = new long[stages];
+        stageRollStart = new int[stages];
+        int rollTotal = 0;
+        for (int s = 0; s < stages; s++) {
+            stageRollStart[s] = rollTotal;
+            rollTotal += data.enemyWeightTotal[data.enemyForStage(s + 1)];
+        }
+        rollBonus = new int[rollTotal];
+        rollEffect = new int[rollTotal];
+        rollEffectTurns = new int[rollTotal];
+        rollEffectPower = new int[rollTotal];
+        for (int s = 0; s < stages; s++) {
+            int e = data.enemyForStage(s + 1);
+            if (data.enemySpeed[e] != data.classSpeed[c]) {
+                throw new IllegalStateException("CombatBatch only plays alternating turns, but " + data.enemyName[e]
+                        + " and " + className + " have different speeds (use the object engine)");
+            }
+            // Hard mode scales max HP, not current HP (GameSession.generateEnemy),
+            // so the enemy starts the fight at its normal HP
+            stageEnemyHP[s] = data.enemyHP[e];
+            stageEnemyAttack[s] = difficulty == 2 ? (int) (data.enemyAttack[e] * HARD_SCALE) : data.enemyAttack[e];
+            stageEnemyDefense[s] = difficulty == 2 ? (int) (data.enemyDefense[e] * HARD_SCALE) : data.enemyDefense[e];
+            stageMoveFirst[s] = data.enemyMoveStart[e];
+            stageMoveCount[s] = data.enemyMoveCount[e];
+            stageWeightTotal[s] = data.enemyWeightTotal[e];
+            stageExp[s] = CombatEngine.victoryExp(s + 1);
+
+            // Roll r picks the first ability whose running weight total passes r
+            int r = stageRollStart[s];
+            for (int a = 0; a < stageMoveCount[s]; a++) {
+                int m = stageMoveFirst[s] + a;
+                for (int w = 0; w < data.moveWeight[m]; w++, r++) {
+                    rollBonus[r] = data.moveBonus[m];
+                    rollEffect[r] = data.moveEffect[m];
+                    rollEffectTurns[r] = data.moveEffectTurns[m];
+                    rollEffectPower[r] = data.moveEffectPower[m];
+                }
+            }
+        }
+
+        startHP = data.classHP[c];
+        startMana = data.classMana[c];
+        startAttack = data.classAttack[c];
+        startDefense = data.classDefense[c];
+
+        reached = new long[stages];
+        wins = new long[stages];
+        turnsWon = new long[stages];
+        damageDealt = new long[stages];
+        damageTaken = new long[stages];
+        expGained = new long[stages];
+        levelAfter = new long[stages];
+    }
+
+    /**
+     * Policy number for a --policy name.
+     */
+    public static int policyFromName(String name) {
+        switch (name) {
+            case "scripted": return POLICY_SCRIPTED;
+            case "random":   return POLICY_RANDOM;
+            case "greedy":   return POLICY_GREEDY;
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + name);
+        }
+    }
+
+    // ==================== RUNNING ====================
+
+    /**
+     * Play campaigns from stage 1 until each one loses or clears the last stage,
+     * adding their numbers to the result arrays.
+     *
+     * Seeds are taken from rng exactly like BalanceSimulator does for the object
+     * version: for each campaign, one split() for the policy, then one for the session.
+     *
+     * @param count - how many campaigns
+     * @param rng - generator to split the campaigns' seeds from
+     */
+    public void run(int count, CombatRandom rng) {
+        allocate(count);
+        for (int i = 0; i < count; i++) {
+            policyRng[i] = rng.nextLong();    // rng.split() seeds the child with nextLong()
+            sessionRng[i] = rng.nextLong();
+            playerHP[i] = startHP;
+            playerMaxHP[i] = startHP;
+            playerMana[i] = startMana;
+            playerMaxMana[i] = startMana;
+            playerAttack[i] = startAttack;
+            playerDefense[i] = startDefense;
+            playerLevel[i] = 1;
+            playerExp[i] = 0;
+            combo[i] = 0;
+            scriptPos[i] = 0;
+            startStage(i, 1);
+        }
+        activeCount = count;
+
+        while (activeCount > 0) {
+            chooseMoves();
+            applyPlayerMoves();
+            applyEnemyMoves();
+            finishBattles();
+        }
+    }
+
+    private void allocate(int count) {
+        if (playerHP != null && playerHP.length >= count) return;
+        playerHP = new int[count];
+        playerMaxHP = new int[count];
+        playerMana = new int[count];
+        playerMaxMana = new int[count];
+        playerAttack = new int[count];
+        playerDefense = new int[count];
+        playerLevel = new int[count];
+        playerExp = new long[count];
+        combo = new int[count];
+        scriptPos = new int[count];
+        enemyHP = new int[count];
+        enemyAttack = new int[count];
+        enemyDefense = new int[count];
+        playerFx = new int[count];
+        enemyFx = new int[count];
+        playerFxTurns = new int[count * StatusEffects.COUNT];
+        playerFxPower = new int[count * StatusEffects.COUNT];
+        enemyFxTurns = new int[count * StatusEffects.COUNT];
+        enemyFxPower = new int[count * StatusEffects.COUNT];
+        stage = new int[count];
+        turn = new int[count];
+        dealt = new int[count];
+        taken = new int[count];
+        policyRng = new long[count];
+        sessionRng = new long[count];
+        move = new int[count];
+        finished = new int[count];
+    }
+
+    /**
+     * Copy every bit of a lane's state to another lane.
+     */
+    private void copyLane(int from, int to) {
+        playerHP[to] = playerHP[from];
+        playerMaxHP[to] = playerMaxHP[from];
+        playerMana[to] = playerMana[from];
+        playerMaxMana[to] = playerMaxMana[from];
+        playerAttack[to] = playerAttack[from];
+        playerDefense[to] = playerDefense[from];
+        playerLevel[to] = playerLevel[from];
+        playerExp[to] = playerExp[from];
+        combo[to] = combo[from];
+        scriptPos[to] = scriptPos[from];
+        enemyHP[to] = enemyHP[from];
+        enemyAttack[to] = enemyAttack[from];
+        enemyDefense[to] = enemyDefense[from];
+        playerFx[to] = playerFx[from];
+        enemyFx[to] = enemyFx[from];
+        int f = from * StatusEffects.COUNT;
+        int t = to * StatusEffects.COUNT;
+        System.arraycopy(playerFxTurns, f, playerFxTurns, t, StatusEffects.COUNT);
+        System.arraycopy(playerFxPower, f, playerFxPower, t, StatusEffects.COUNT);
+        System.arraycopy(enemyFxTurns, f, enemyFxTurns, t, StatusEffects.COUNT);
+        System.arraycopy(enemyFxPower, f, enemyFxPower, t, StatusEffects.COUNT);
+        stage[to] = stage[from];
+        turn[to] = turn[from];
+        dealt[to] = dealt[from];
+        taken[to] = taken[from];
+        policyRng[to] = policyRng[from];
+        sessionRng[to] = sessionRng[from];
+    }
+
+    private void startStage(int i, int s) {
+        stage[i] = s;
+        enemyHP[i] = stageEnemyHP[s - 1];
+        enemyAttack[i] = stageEnemyAttack[s - 1];
+        enemyDefense[i] = stageEnemyDefense[s - 1];
+        turn[i] = 0;
+        dealt[i] = 0;
+        taken[i] = 0;
+
+        // Every battle starts with no effects (CombatEngine clears the player's)
+        playerFx[i] = 0;
+        enemyFx[i] = 0;
+        int k = i * StatusEffects.COUNT;
+        for (int e = 0; e < StatusEffects.COUNT; e++) {
+            playerFxTurns[k + e] = 0;
+            playerFxPower[k + e] = 0;
+            enemyFxTurns[k + e] = 0;
+            enemyFxPower[k + e] = 0;
+        }
+    }
+
+    /**
+     * Step 1: every lane's move (the policy check is outside the loops).
+     */
+    private void chooseMoves() {
+        int n = activeCount;
+        switch (policy) {
+            case POLICY_SCRIPTED:
+                for (int i = 0; i < n; i++) {
+                    int p = scriptPos[i];
+                    move[i] = script[p];
+                    scriptPos[i] = p + 1 == script.length ? 0 : p + 1;
+                }
+                break;
+            case POLICY_RANDOM:
+                for (int i = 0; i < n; i++) {
+                    move[i] = nextInt(policyRng, i, moveCount);
+                }
+                break;
+            default:
+                for (int i = 0; i < n; i++) {
+                    int attack = playerAttack[i] + playerFxPower[i * StatusEffects.COUNT + StatusEffects.ATTACK_UP];
+                    move[i] = rules.greedyMove(playerHP[i], playerMaxHP[i], playerMana[i], attack, combo[i]);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Step 2: apply every lane's move (Player.executeMove + Barbarian combo + CombatEngine.playerTurn).
+     *
+     * Branch-free version of:
+     *   if (stunned) { lose the move; }
+     *   update combo flag;
+     *   if (mana >= cost) { pay; heal; value = attack ? atk + attackUp + bonus (+ combo) : 0; } else value = 0;
+     *   if (value > 0) { roll crit; enemy takes DamagePipeline(value, crit, its defense, its block) }
+     *   if (enemy still up) { poison; player's effects count down }
+     * (a failed move has value 0, and taking 0 damage changes nothing, so the
+     * last if isn't needed - the crit roll's generator step is masked out
+     * instead). A stunned player is treated like one who can't pay, with the
+     * combo flag left alone.
+     */
+    private void applyPlayerMoves() {
+        int n = activeCount;
+        for (int i = 0; i < n; i++) {
+            int s = move[i];
+            int k = i * StatusEffects.COUNT;
+            int fx = playerFx[i];
+            int stunned = -((fx >>> StatusEffects.STUN) & 1);   // -1 if this move is lost to a stun
+            if (stunned != 0) playerFx[i] = StatusEffects.consumeStun(fx, playerFxTurns, playerFxPower, k);
+
+            int hadCombo = combo[i];
+            combo[i] = (((hadCombo & comboKeep[s]) | comboSet[s]) & ~stunned) | (hadCombo & stunned);
+
+            int mana = playerMana[i];
+            int ok = -(((mana - cost[s]) >>> 31) ^ 1) & ~stunned;   // -1 if the move happens and we can pay
+            playerMana[i] = mana - (cost[s] & ok);
+            playerHP[i] = Math.min(playerMaxHP[i], playerHP[i] + (heal[s] & ok));
+
+            int attack = playerAttack[i] + playerFxPower[k + StatusEffects.ATTACK_UP];
+            int value = ((attack & attackMask[s]) + baseValue[s] + comboBonus * (comboUse[s] & hadCombo)) & ok;
+
+            int hits = -((value | -value) >>> 31);   // -1 if the move hits, 0 if not
+            long state = sessionRng[i] + (GOLDEN_GAMMA & hits);
+            sessionRng[i] = state;
+            boolean crit = hits != 0 && DamagePipeline.isCrit(CombatRandom.mix64(state));
+            value = DamagePipeline.mitigate(crit ? DamagePipeline.critical(value) : value, enemyDefense[i]);
+            value = Math.max(0, value - enemyFxPower[k + StatusEffects.BLOCK]);
+
+            turn[i]++;
+            enemyHP[i] = Math.max(0, enemyHP[i] - value);
+            dealt[i] += value;
+
+            int fresh = 0;   // effect the move put on the player (doesn't count down yet)
+            if (effect[s] >= 0 && ok != 0) {
+                if (effectOnSelf[s]) {
+                    playerFx[i] = StatusEffects.apply(playerFx[i], playerFxTurns, playerFxPower, k,
+                        effect[s], effectTurns[s], effectPower[s]);
+                    fresh = 1 << effect[s];
+                } else {
+                    enemyFx[i] = StatusEffects.apply(enemyFx[i], enemyFxTurns, enemyFxPower, k,
+                        effect[s], effectTurns[s], effectPower[s]);
+                }
+            }
+
+            // End of the player's action (unless it just won)
+            if (enemyHP[i] > 0 && playerFx[i] != 0) {
+                int poison = playerFxPower[k + StatusEffects.POISON];
+                playerFx[i] = StatusEffects.tick(playerFx[i], playerFxTurns, playerFxPower, k, fresh);
+                playerHP[i] = Math.max(0, playerHP[i] - poison);
+                taken[i] += poison;
+            }
+        }
+    }
+
+    /**
+     * Step 3: every enemy that's still alive replies (Enemy.decideAction + executeAttack),
+     * then its effects count down (CombatEngine.enemyTurn).
+     *
+     * Lanes where the enemy is dead (or the player is, from poison) run the
+     * same math with everything masked to 0, including the random generator
+     * step, so they don't use up a random number.
+     * A stunned enemy still rolls (the object version picks its move before
+     * finding out it's stunned) but its damage is masked to 0.
+     * Lanes whose battle is now over are appended to finished[] (also without
+     * an if: the lane is always written, but the count only grows when done).
+     */
+    private void applyEnemyMoves() {
+        int n = activeCount;
+        int done = 0;
+        for (int i = 0; i < n; i++) {
+            int st = stage[i] - 1;
+            int eHP = enemyHP[i];
+            int alive = -(-eHP >>> 31) & -(-playerHP[i] >>> 31);   // -1 if both sides have HP left, 0 if not
+
+            long state = sessionRng[i] + (GOLDEN_GAMMA & alive);
+            sessionRng[i] = state;
+            int roll = (int) (((CombatRandom.mix64(state) >>> 32) * stageWeightTotal[st]) >>> 32);
+
+            int r = stageRollStart[st] + roll;
+            int k = i * StatusEffects.COUNT;
+            int fx = enemyFx[i];
+            int stunned = -((fx >>> StatusEffects.STUN) & 1) & alive;
+            if (stunned != 0) enemyFx[i] = StatusEffects.consumeStun(fx, enemyFxTurns, enemyFxPower, k);
+            int acts = alive & ~stunned;
+
+            int damage = enemyAttack[i] + enemyFxPower[k + StatusEffects.ATTACK_UP] + rollBonus[r];
+            int hits = acts & -((damage | -damage) >>> 31);
+            state = sessionRng[i] + (GOLDEN_GAMMA & hits);
+            sessionRng[i] = state;
+            boolean crit = hits != 0 && DamagePipeline.isCrit(CombatRandom.mix64(state));
+            damage = DamagePipeline.mitigate(crit ? DamagePipeline.critical(damage) : damage, playerDefense[i]);
+            damage = Math.max(0, damage - playerFxPower[k + StatusEffects.BLOCK]) & hits;
+            int pHP = Math.max(0, playerHP[i] - damage);
+            taken[i] += damage;
+
+            int fresh = 0;   // effect the ability put on the enemy (doesn't count down yet)
+            if (rollEffect[r] >= 0 && acts != 0) {
+                if (StatusEffects.targetsSelf(rollEffect[r])) {
+                    enemyFx[i] = StatusEffects.apply(enemyFx[i], enemyFxTurns, enemyFxPower, k,
+                        rollEffect[r], rollEffectTurns[r], rollEffectPower[r]);
+                    fresh = 1 << rollEffect[r];
+                } else {
+                    playerFx[i] = StatusEffects.apply(playerFx[i], playerFxTurns, playerFxPower, k,
+                        rollEffect[r], rollEffectTurns[r], rollEffectPower[r]);
+                }
+            }
+
+            // End of the enemy's action (only if it got to act and the player is still up)
+            if (alive != 0 && pHP > 0 && enemyFx[i] != 0) {
+                int poison = enemyFxPower[k + StatusEffects.POISON];
+                enemyFx[i] = StatusEffects.tick(enemyFx[i], enemyFxTurns, enemyFxPower, k, fresh);
+                eHP = Math.max(0, eHP - poison);
+                enemyHP[i] = eHP;
+                dealt[i] += poison;
+            }
+            playerHP[i] = pHP;
+
+            // Over if the enemy died, the player died, or the turn limit was hit
+            finished[done] = i;
+            done += ((eHP - 1) | (pHP - 1) | (maxTurns - 1 - turn[i])) >>> 31;
+        }
+        finishedCount = done;
+    }
+
+    /**
+     * Step 4: record finished battles, move winners to the next stage
+     * and drop finished campaigns.
+     *
+     * Goes from the highest lane down, so the last playing lane that gets
+     * moved into a retired lane's spot has always been handled already.
+     */
+    private void finishBattles() {
+        for (int f = finishedCount - 1; f >= 0; f--) {
+            int i = finished[f];
+            boolean won = enemyHP[i] == 0 && playerHP[i] > 0;   // (a battle stops as soon as one side is down)
+
+            int st = stage[i] - 1;
+            long exp = 0;
+            if (won) {
+                exp = stageExp[st];
+                playerExp[i] += exp;
+                int level = Progression.levelFor(playerExp[i], playerLevel[i]);
+                if (level > playerLevel[i]) levelUp(i, level);
+            }
+            reached[st]++;
+            damageDealt[st] += dealt[i];
+            damageTaken[st] += taken[i];
+            expGained[st] += exp;
+            levelAfter[st] += playerLevel[i];
+
+            if (won) {
+                wins[st]++;
+                turnsWon[st] += turn[i];
+                if (st + 1 < stages) {
+                    startStage(i, st + 2);
+                    continue;
+                }
+            }
+            // Campaign over: move the last playing lane into this spot
+            int last = --activeCount;
+            if (i != last) copyLane(last, i);
+        }
+    }
+
+    private void levelUp(int i, int level) {
+        int from = playerLevel[i];
+        playerLevel[i] = level;
+        playerMaxHP[i] += Progression.hpGain(from, level);
+        playerHP[i] = playerMaxHP[i];
+        playerMaxMana[i] += Progression.manaGain(from, level);
+        playerMana[i] = playerMaxMana[i];
+        playerAttack[i] += Progression.attackGain(from, level);
+        playerDefense[i] += Progression.defenseGain(from, level);
+    }
+
+    /**
+     * CombatRandom.nextInt on a lane's SplitMix64 state.
+     */
+    private static int nextInt(long[] states, int i, int bound) {
+        long s = states[i] + GOLDEN_GAMMA;
+        states[i] = s;
+        return (int) (((CombatRandom.mix64(s) >>> 32) * bound) >>> 32);
+    }
+}
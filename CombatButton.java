@@ -0,0 +1,150 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import javax.swing.*;
+
+/**
+ * CombatButton.java - Action button for the battle screen
+ *
+ * The old buttons used "<html><center>...</center></html>" labels just to get
+ * line wrapping, which makes Swing parse HTML and run its whole HTML view
+ * system every time the action panel is laid out or painted.
+ *
+ * This button instead:
+ * - wraps the label text itself (word by word, using FontMetrics)
+ * - draws the whole button face (background, border, text) into an image
+ *   the first time each state is needed
+ * - after that, painting is just copying the cached image
+ *
+ * There is one cached image per state: normal, hover and disabled.
+ */
+public class CombatButton extends JButton {
+
+    private static final long serialVersionUID = 1L;
+
+    // Button states, used as index into the image cache
+    private static final int NORMAL = 0;
+    private static final int HOVER = 1;
+    private static final int DISABLED = 2;
+
+    private static final int PADDING = 6;                               // space between text and edge
+    private static final Color DISABLED_BG = new Color(110, 110, 110);
+    private static final Color DISABLED_TEXT = new Color(180, 180, 180);
+
+    private String label;                                // the (uppercase) label text
+    private Color background;                            // normal background color
+    private BufferedImage[] faces = new BufferedImage[3];  // cached face per state
+
+    /**
+     * @param text - the button label (gets uppercased)
+     * @param bg - background color (red for attack, blue for defense)
+     */
+    public CombatButton(String text, Color bg) {
+        super(text.toUpperCase());  // plain text, so no HTML parsing anywhere
+        this.label = text.toUpperCase();
+        this.background = bg;
+
+        setFont(FontManager.castellar(Font.BOLD, 11));
+        setForeground(Color.WHITE);
+        setFocusPainted(false);
+        setBorderPainted(false);      // the border is part of our cached image
+        setContentAreaFilled(false);  // we paint the background ourselves
+        setRolloverEnabled(true);
+        setCursor(new Cursor(Cursor.HAND_CURSOR));
+    }
+
+    /**
+     * Drop the cached images if the size changes (they're drawn at the exact size).
+     */
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        if (width != getWidth() || height != getHeight()) {
+            faces = new BufferedImage[3];
+        }
+        super.setBounds(x, y, width, height);
+    }
+
+    /**
+     * Copy the cached face for the current state onto the screen.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (getWidth() <= 0 || getHeight() <= 0) return;
+
+        int state = !isEnabled() ? DISABLED : getModel().isRollover() ? HOVER : NORMAL;
+        if (faces[state] == null) {
+            faces[state] = renderFace(state);  // only happens once per state
+        }
+        g.drawImage(faces[state], 0, 0, null);
+    }
+
+    /**
+     * Draw the button face for one state into a new image.
+     */
+    private BufferedImage renderFace(int state) {
+        int w = getWidth(), h = getHeight();
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // Background
+        Color bg = state == DISABLED ? DISABLED_BG : state == HOVER ? background.brighter() : background;
+        g.setColor(bg);
+        g.fillRect(0, 0, w, h);
+
+        // Simple raised border
+        g.setColor(bg.brighter());
+        g.drawLine(0, 0, w - 1, 0);
+        g.drawLine(0, 0, 0, h - 1);
+        g.setColor(bg.darker());
+        g.drawLine(0, h - 1, w - 1, h - 1);
+        g.drawLine(w - 1, 0, w - 1, h - 1);
+
+        // Text, wrapped and centered
+        Font font = getFont();
+        g.setFont(font);
+        g.setColor(state == DISABLED ? DISABLED_TEXT : getForeground());
+        FontMetrics fm = g.getFontMetrics(font);
+        ArrayList<String> lines = wrapText(label, fm, w - PADDING * 2);
+
+        int lineHeight = fm.getHeight();
+        int y = (h - lines.size() * lineHeight) / 2 + fm.getAscent();
+        for (String line : lines) {
+            int x = (w - fm.stringWidth(line)) / 2;
+            g.drawString(line, x, y);
+            y += lineHeight;
+        }
+
+        g.dispose();
+        return img;
+    }
+
+    /**
+     * Break text into lines that fit in the given width.
+     * Words are never split; a word longer than the width gets its own line.
+     *
+     * @param text - the text to wrap
+     * @param fm - metrics of the font being drawn with
+     * @param maxWidth - available width in pixels
+     * @return the lines, top to bottom
+     */
+    private static ArrayList<String> wrapText(String text, FontMetrics fm, int maxWidth) {
+        ArrayList<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+
+        for (String word : text.split(" ")) {
+            if (word.isEmpty()) continue;
+            if (line.length() == 0) {
+                line.append(word);
+            } else if (fm.stringWidth(line + " " + word) <= maxWidth) {
+                line.append(' ').append(word);
+            } else {
+                lines.add(line.toString());  // this line is full, start a new one
+                line.setLength(0);
+                line.append(word);
+            }
+        }
+        if (line.length() > 0) lines.add(line.toString());
+        return lines;
+    }
+}
@@ -0,0 +1,449 @@
+import java.util.ArrayList;
+
+/**
+ * CombatEngine.java - The combat rules, with no Swing in sight
+ *
+ * This used to all live inside GameManager.executeTurn, mixed in with the
+ * battle log, Swing Timers and panel switching, so a battle couldn't run
+ * without a window. Now the engine:
+ * - applies the player's move (Player.executeMove)
+ * - applies the enemy's move (Enemy.decideAction / executeAttack)
+ * - decides who acts next with an InitiativeQueue: the player opens, then
+ *   everyone comes back INITIATIVE / speed later, so with equal speeds
+ *   turns alternate and a faster side sometimes acts twice in a row.
+ *   An encounter can have several enemies (GameSession.getEnemies); the
+ *   player's moves hit the first one still standing, and the battle is won
+ *   when they're all down
+ * - sends every hit through DamagePipeline (crit roll, defense, block)
+ * - applies status effects (StatusEffects): a move's effect when it lands,
+ *   block on every hit, stun before an action, and at the end of every
+ *   action the actor's own effects (poison damage, durations run down), so
+ *   a side that acts more often also ticks more often
+ * - awards EXP on victory
+ * - publishes the results (damage, heals, mana, level-ups, victory/defeat)
+ *   on the session's CombatEventBus, which the round statistics and
+ *   anything else that keeps count subscribe to
+ * - tells its CombatListeners what happened, move by move
+ * - optionally keeps a CombatSnapshot from the start of each player turn
+ *   (keepHistory), so the battle can be rewound a turn at a time. A rewind
+ *   also puts the random generator and the round statistics back, so the
+ *   same move rolls the same dice and a turn taken back doesn't count
+ *
+ * GameManager just listens and draws (log lines, animations, delays).
+ * Simulations call runBattle() with a PlayerPolicy and no listeners at all.
+ */
+public class CombatEngine {
+
+    /**
+     * Gets told about everything that happens in a battle.
+     * All methods have empty defaults so listeners only override what they need.
+     */
+    public interface CombatListener {
+        /** The player used a move. damage is 0 if it didn't hurt the enemy. */
+        default void playerActed(Move move, int damage) {}
+
+        /** The enemy used a move and the player took that much damage (which enemy: getActingEnemy). */
+        default void enemyActed(Move move, int damage) {}
+
+        /** The hit about to be reported (playerActed / enemyActed) was a critical. */
+        default void criticalHit(boolean player) {}
+
+        /** A stunned side lost its action (move = what it would have used). */
+        default void stunned(boolean player, Move move) {}
+
+        /** An effect (StatusEffects.POISON) hurt a side at the end of its action (which enemy: getActingEnemy). */
+        default void effectDamage(boolean player, int effect, int damage) {}
+
+        /** The enemy was defeated and the player earned EXP. */
+        default void victory(long expGained) {}
+
+        /** The player was knocked out. */
+        default void defeat() {}
+
+        /** The battle went back to the start of an earlier player turn (turn = player turns taken now). */
+        default void rewound(int turn) {}
+    }
+
+    private GameSession session;
+    private CombatEventBus events;  // the session's bus (results go out here)
+    private ArrayList<CombatListener> listeners = new ArrayList<>();
+    private Enemy[] enemies;                 // the encounter (session.getEnemies())
+    private InitiativeQueue initiative;      // 0 = player, i + 1 = enemies[i]
+    private Enemy target;                    // enemy the player's last move went at
+    private Enemy acting;                    // enemy whose action / effect is being reported
+    private int turn;           // how many player turns have been taken this battle
+    private boolean over;       // true once someone has been defeated
+    private RewindHistory history;  // snapshot from the start of each player turn (null = not kept)
+
+    /**
+     * @param session - the session with the player and current enemy
+     */
+    public CombatEngine(GameSession session) {
+        this.session = session;
+        this.events = session.getEvents();
+        this.enemies = session.getEnemies();
+        session.getPlayer().getEffects().clear();  // nothing carries over from the last battle
+
+        // The player opens; every enemy's first go comes one of its delays later
+        initiative = new InitiativeQueue(enemies.length + 1);
+        initiative.add(0, 0);
+        for (int i = 0; i < enemies.length; i++) {
+            initiative.add(i + 1, InitiativeQueue.delay(enemies[i].getSpeed()));
+        }
+        target = acting = session.getCurrentEnemy();
+    }
+
+    public void addListener(CombatListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(CombatListener listener) {
+        listeners.remove(listener);
+    }
+
+    // ==================== INITIATIVE ====================
+
+    /**
+     * Who acts next, dropping defeated enemies as they come up.
+     *
+     * @return 0 for the player, i + 1 for enemies[i]
+     */
+    private int nextActor() {
+        int who = initiative.peek();
+        while (who > 0 && !enemies[who - 1].isAlive()) {
+            initiative.poll();  // never rescheduled
+            who = initiative.peek();
+        }
+        return who;
+    }
+
+    /**
+     * Take the next actor off the timeline and put it back one of its delays later.
+     */
+    private void reschedule(int who, int speed) {
+        long now = initiative.peekTime();
+        initiative.poll();
+        initiative.add(who, now + InitiativeQueue.delay(speed));
+    }
+
+    /**
+     * @return true if the battle is on and it's the player's move
+     */
+    public boolean isPlayerNext() {
+        return !over && nextActor() == 0;
+    }
+
+    /**
+     * @return the enemy that acts next, or null if it's the player's move (or the battle is over)
+     */
+    public Enemy getNextEnemy() {
+        if (over) return null;
+        int who = nextActor();
+        return who > 0 ? enemies[who - 1] : null;
+    }
+
+    // ==================== TURNS ====================
+
+    /**
+     * Apply the player's move to the enemy (the first one still standing).
+     *
+     * A stunned player loses the move instead. If the last enemy dies, EXP
+     * is awarded and victory is reported. Does nothing if it isn't the
+     * player's move yet (see isPlayerNext).
+     *
+     * @param move - one of the player's moves
+     */
+    public void playerTurn(Move move) {
+        if (over || nextActor() != 0) return;
+        if (history != null) history.push(snapshot());
+        Player player = session.getPlayer();
+        Enemy enemy = session.getCurrentEnemy();
+        reschedule(0, player.getSpeed());
+        target = enemy;
+        turn++;
+
+        if (player.getEffects().consumeStun()) {
+            for (CombatListener l : listeners) l.stunned(true, move);
+            endAction(player, 0);
+            return;
+        }
+
+        // Execute the move and get its damage (effects only land if the mana was paid)
+        boolean paid = player.getCurrentMana() >= move.getManaCost();
+        int hpBefore = player.getCurrentHP();
+        int manaBefore = player.getCurrentMana();
+        int dmg = hit(player.executeMove(move), enemy.getDefense(), enemy.getEffects(), true);
+        int fresh = paid ? applyEffect(move, player.getEffects(), enemy.getEffects()) : 0;
+        if (player.getCurrentMana() < manaBefore) {
+            events.publish(CombatEventBus.Type.MANA_SPENT, true, manaBefore - player.getCurrentMana());
+        }
+        if (player.getCurrentHP() > hpBefore) {
+            events.publish(CombatEventBus.Type.HEALED, true, player.getCurrentHP() - hpBefore);
+        }
+
+        // If damage was dealt, apply it to enemy
+        if (dmg > 0) {
+            enemy.takeDamage(dmg);
+            events.publish(CombatEventBus.Type.DAMAGE_DEALT, true, dmg);
+        }
+        for (CombatListener l : listeners) l.playerActed(move, dmg);
+
+        // Check for victory
+        if (allDefeated()) {
+            win();
+            return;
+        }
+        endAction(player, fresh);
+    }
+
+    /**
+     * Let the next enemy pick and use a move on the player.
+     *
+     * If the player dies, defeat is reported. Does nothing if it's the player's move.
+     */
+    public void enemyTurn() {
+        Enemy enemy = getNextEnemy();
+        if (enemy == null) return;
+        enemyTurn(enemy.decideAction(session.getPlayer(), session.getRandom()));
+    }
+
+    /**
+     * Use a move the next enemy's AI already picked (e.g. MctsEnemyAI on Hard).
+     *
+     * @param eAction - one of the next enemy's abilities (see getNextEnemy)
+     */
+    public void enemyTurn(Move eAction) {
+        if (over) return;
+        int who = nextActor();
+        if (who <= 0) return;
+        Player player = session.getPlayer();
+        Enemy enemy = enemies[who - 1];
+        reschedule(who, enemy.getSpeed());
+        acting = enemy;
+
+        int fresh = 0;
+        if (enemy.getEffects().consumeStun()) {
+            for (CombatListener l : listeners) l.stunned(false, eAction);
+        } else {
+            // Enemy deals damage with its chosen action
+            int eDmg = hit(enemy.executeAttack(eAction), player.getDefense(), player.getEffects(), false);
+            fresh = applyEffect(eAction, enemy.getEffects(), player.getEffects());
+            player.takeDamage(eDmg);
+            if (eDmg > 0) events.publish(CombatEventBus.Type.DAMAGE_DEALT, false, eDmg);
+            for (CombatListener l : listeners) l.enemyActed(eAction, eDmg);
+
+            // Check for defeat
+            if (!player.isAlive()) {
+                lose();
+                return;
+            }
+        }
+        endAction(enemy, fresh);
+    }
+
+    /**
+     * End of the player's action: its effects count down (poison damage first).
+     *
+     * @param fresh - effect bits the move just put on the player (StatusEffects.endAction)
+     */
+    private void endAction(Player player, int fresh) {
+        int pDmg = player.getEffects().endAction(fresh);
+        if (pDmg > 0) {
+            player.takeDamage(pDmg);
+            events.publish(CombatEventBus.Type.DAMAGE_DEALT, false, pDmg);
+            for (CombatListener l : listeners) l.effectDamage(true, StatusEffects.POISON, pDmg);
+        }
+        if (!player.isAlive()) {
+            lose();
+        } else {
+            session.updateStats();  // the action's done: let the statistics catch up
+        }
+    }
+
+    /**
+     * End of an enemy's action: its effects count down (poison damage first).
+     *
+     * @param fresh - effect bits its ability just put on itself (StatusEffects.endAction)
+     */
+    private void endAction(Enemy enemy, int fresh) {
+        int eDmg = enemy.getEffects().endAction(fresh);
+        if (eDmg > 0) {
+            enemy.takeDamage(eDmg);
+            events.publish(CombatEventBus.Type.DAMAGE_DEALT, true, eDmg);
+            for (CombatListener l : listeners) l.effectDamage(false, StatusEffects.POISON, eDmg);
+        }
+        if (allDefeated()) {
+            win();
+        } else {
+            session.updateStats();
+        }
+    }
+
+    /**
+     * Send a hit through DamagePipeline. Only real hits roll for a crit, so
+     * heals and failed moves don't use up a random number.
+     *
+     * @param base - damage from executeMove / executeAttack
+     * @param byPlayer - true if the player is the one hitting
+     * @return damage the target takes
+     */
+    private int hit(int base, int defense, StatusEffects target, boolean byPlayer) {
+        if (base <= 0) return 0;
+        boolean crit = DamagePipeline.rollCrit(session.getRandom());
+        if (crit) {
+            for (CombatListener l : listeners) l.criticalHit(byPlayer);
+        }
+        return DamagePipeline.hit(base, crit, defense, target);
+    }
+
+    /**
+     * Put a move's status effect on whoever it targets.
+     *
+     * @return the effect's bit if it landed on the user (it doesn't count down
+     *         at the end of this action), otherwise 0
+     */
+    private static int applyEffect(Move move, StatusEffects user, StatusEffects opponent) {
+        if (!move.hasEffect()) return 0;
+        boolean self = StatusEffects.targetsSelf(move.getEffect());
+        (self ? user : opponent).apply(move.getEffect(), move.getEffectTurns(), move.getEffectPower());
+        return self ? 1 << move.getEffect() : 0;
+    }
+
+    private boolean allDefeated() {
+        for (Enemy enemy : enemies) {
+            if (enemy.isAlive()) return false;
+        }
+        return true;
+    }
+
+    private void win() {
+        over = true;
+        Player player = session.getPlayer();
+        int level = player.getLevel();
+        long exp = victoryExp(session.getStage());
+        player.addExperience(exp);
+        events.publish(CombatEventBus.Type.VICTORY, true, exp);
+        while (level < player.getLevel()) {
+            events.publish(CombatEventBus.Type.LEVEL_UP, true, ++level);
+        }
+        session.updateStats();
+        for (CombatListener l : listeners) l.victory(exp);
+    }
+
+    private void lose() {
+        over = true;
+        events.publish(CombatEventBus.Type.DEFEAT, true, 0);
+        session.updateStats();
+        for (CombatListener l : listeners) l.defeat();
+    }
+
+    // ==================== REWIND ====================
+
+    /**
+     * Start keeping a snapshot at the start of every player turn, so rewind() can go back.
+     *
+     * @param turns - how many turns back it can go (older ones are dropped)
+     */
+    public void keepHistory(int turns) {
+        history = new RewindHistory(turns);
+    }
+
+    /**
+     * Freeze the battle as it is now. Shares unchanged characters with the
+     * newest snapshot in the history (if one is kept).
+     */
+    public CombatSnapshot snapshot() {
+        return new CombatSnapshot(session, turn, enemies, target, initiative, history == null ? null : history.peek());
+    }
+
+    /**
+     * Put the battle back to a snapshot of it (taken before it was over).
+     */
+    public void restore(CombatSnapshot snapshot) {
+        snapshot.restore(session, enemies, initiative);
+        turn = snapshot.getTurn();
+        target = acting = enemies[snapshot.getTarget()];
+        over = false;
+    }
+
+    /**
+     * @return true if it's the player's move and there's an earlier turn to go back to
+     */
+    public boolean canRewind() {
+        return history != null && !history.isEmpty() && isPlayerNext();
+    }
+
+    /**
+     * Undo the last player turn (and every enemy move after it): back to the
+     * moment before that move was picked.
+     *
+     * @return false if there's nothing to rewind to (see canRewind)
+     */
+    public boolean rewind() {
+        if (!canRewind()) return false;
+        restore(history.pop());
+        for (CombatListener l : listeners) l.rewound(turn);
+        return true;
+    }
+
+    /**
+     * Run one full turn: the player's move, then every enemy that acts
+     * before the player's next one (with equal speeds, just the one reply).
+     */
+    public void runTurn(Move move) {
+        playerTurn(move);
+        while (getNextEnemy() != null) enemyTurn();
+    }
+
+    /**
+     * Fight the whole battle with moves chosen by a policy (no UI, no delays).
+     *
+     * @param policy - picks the player's move every turn
+     * @param maxTurns - safety limit so a stalled battle can't loop forever
+     * @return true if the player won
+     */
+    public boolean runBattle(PlayerPolicy policy, int maxTurns) {
+        Player player = session.getPlayer();
+        while (!over && turn < maxTurns) {
+            // Ask every turn - in a swarm the first enemy dies and the next one takes over
+            runTurn(policy.chooseAction(player, session.getCurrentEnemy()));
+        }
+        return playerWon();
+    }
+
+    /**
+     * EXP for beating a stage's enemy (increases by 50% per stage).
+     *
+     * @param stage - the stage number
+     */
+    public static long victoryExp(int stage) {
+        return (long) (100 * Math.pow(1.5, stage - 1));
+    }
+
+    /**
+     * @return true once the battle has ended (either side defeated)
+     */
+    public boolean isOver() { return over; }
+
+    /**
+     * @return true if the battle is over and the player is the one standing
+     */
+    public boolean playerWon() { return over && session.getPlayer().isAlive(); }
+
+    /**
+     * @return how many player turns have been taken
+     */
+    public int getTurn() { return turn; }
+
+    public GameSession getSession() { return session; }
+
+    /**
+     * @return the enemy the player's last move went at (it may have just been defeated)
+     */
+    public Enemy getTarget() { return target; }
+
+    /**
+     * @return the enemy whose action or effect damage is being reported
+     */
+    public Enemy getActingEnemy() { return acting; }
+}
@@ -0,0 +1,184 @@
+import java.util.Arrays;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * CombatEventBus.java - What happened in battle, for whoever wants to know
+ *
+ * The engine used to push every result into each place that cared about it
+ * by hand (session.addRoundsDamageDealt, addRoundsDamageTaken, ...), so
+ * every new kind of stat meant another call in the turn loop. Now it
+ * publishes one small event per thing that happened:
+ *
+ *   DAMAGE_DEALT  player = true if the player dealt it   amount = damage
+ *   HEALED        player = who was healed                amount = HP restored
+ *   MANA_SPENT    player = who paid                      amount = mana
+ *   LEVEL_UP      player = true                          amount = the new level
+ *   VICTORY       player = true                          amount = EXP gained
+ *   DEFEAT        player = true                          amount = 0
+ *
+ * and anyone can subscribe: the round statistics (GameSession), the battle
+ * screen (GameManager) and AutoBattle's telemetry all do.
+ *
+ * How it works: a ring buffer that one thread (the one running the
+ * session's battles) writes to, and that any number of subscribers read
+ * from, each at its own position. Nothing is locked and the producer never
+ * waits or even knows who's subscribed - publish() is a few array writes
+ * and one "release" store, with or without subscribers. Each subscriber
+ * drains everything that's waiting in one go (drain), whenever suits it:
+ * the statistics once a turn, the screen on its animation timer.
+ *
+ * A subscriber that falls more than a ring's worth behind loses the oldest
+ * events rather than holding up the battle; it finds out through
+ * getDropped(). Events are stored as numbers (no object per event), so a
+ * battle doesn't make garbage.
+ */
+public final class CombatEventBus {
+
+    /**
+     * The kinds of event (see the table above).
+     */
+    public enum Type { DAMAGE_DEALT, HEALED, MANA_SPENT, LEVEL_UP, VICTORY, DEFEAT }
+
+    private static final Type[] TYPES = Type.values();
+
+    /**
+     * Gets the events a subscription drains.
+     */
+    public interface Handler {
+        /**
+         * @param type - what happened
+         * @param player - which side it was about (see the table above)
+         * @param amount - damage, HP, mana, level or EXP
+         * @param endOfBatch - true for the last event of this drain (e.g. repaint once here)
+         */
+        void onEvent(Type type, boolean player, long amount, boolean endOfBatch);
+    }
+
+    // Ordered reads/writes on the shared arrays and the published count
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle PUBLISHED;
+    static {
+        try {
+            PUBLISHED = MethodHandles.lookup().findVarHandle(CombatEventBus.class, "published", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // ==================== RING ====================
+    private final int mask;            // capacity - 1 (capacity is a power of two)
+    private final long[] sequence;     // which event number each slot holds (-1 while it's being written)
+    private final byte[] header;       // type ordinal, plus 0x80 if it's about the player
+    private final long[] amount;
+    private volatile long published;   // events published so far (only the producer writes it)
+
+    /**
+     * @param capacity - how many events a subscriber can fall behind before
+     *                   losing any (rounded up to a power of two)
+     */
+    public CombatEventBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        sequence = new long[size];
+        header = new byte[size];
+        amount = new long[size];
+        Arrays.fill(sequence, -1);
+    }
+
+    // ==================== PRODUCER ====================
+
+    /**
+     * Publish one event. Only the thread running this session's battles calls this.
+     */
+    public void publish(Type type, boolean player, long value) {
+        long n = published;
+        int i = (int) n & mask;
+        // Mark the slot as being rewritten, so a subscriber reading the old event in it can tell
+        SEQUENCE.setOpaque(sequence, i, -1L);
+        VarHandle.storeStoreFence();
+        header[i] = (byte) (type.ordinal() | (player ? 0x80 : 0));
+        amount[i] = value;
+        SEQUENCE.setRelease(sequence, i, n);
+        PUBLISHED.setRelease(this, n + 1);
+    }
+
+    /**
+     * @return how many events have been published so far
+     */
+    public long getPublished() { return published; }
+
+    /**
+     * Start reading from the next event published (nothing from before).
+     */
+    public Subscription subscribe() {
+        return new Subscription();
+    }
+
+    // ==================== CONSUMER ====================
+
+    /**
+     * One subscriber's position in the ring. Drain it from one thread at a
+     * time (different subscriptions can be on different threads).
+     */
+    public final class Subscription {
+        private long next;     // number of the next event to read
+        private long dropped;  // events overwritten before this subscriber got to them
+
+        private Subscription() {
+            next = published;
+        }
+
+        /**
+         * Hand every event waiting for this subscriber to the handler, oldest first.
+         *
+         * @return how many events were handled
+         */
+        public int drain(Handler handler) {
+            long end = (long) PUBLISHED.getAcquire(CombatEventBus.this);
+            int handled = 0;
+            while (next < end) {
+                if (end - next > mask + 1) {
+                    // Lapped by the producer: skip to the oldest event still in the ring
+                    dropped += end - next - (mask + 1);
+                    next = end - (mask + 1);
+                }
+                int i = (int) next & mask;
+                long seq = (long) SEQUENCE.getAcquire(sequence, i);
+                byte h = header[i];
+                long value = amount[i];
+                VarHandle.loadLoadFence();
+                if (seq != next || (long) SEQUENCE.getOpaque(sequence, i) != seq) {
+                    // Overwritten while we read it: jump past everything the producer
+                    // may be writing over (the slot after the newest event is next in line)
+                    end = (long) PUBLISHED.getAcquire(CombatEventBus.this);
+                    long oldest = end - mask;
+                    if (next < oldest) {
+                        dropped += oldest - next;
+                        next = oldest;
+                    } else {
+                        dropped++;
+                        next++;
+                    }
+                    continue;
+                }
+                next++;
+                handled++;
+                handler.onEvent(TYPES[h & 0x7F], (h & 0x80) != 0, value, next == end);
+            }
+            return handled;
+        }
+
+        /**
+         * @return how many events are waiting to be drained
+         */
+        public long pending() {
+            return Math.min(published - next, mask + 1);
+        }
+
+        /**
+         * @return events this subscriber missed because it fell too far behind
+         */
+        public long getDropped() { return dropped; }
+    }
+}
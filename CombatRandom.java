@@ -0,0 +1,124 @@
+/**
+ * CombatRandom.java - Seeded random numbers for everything that happens in combat
+ *
+ * Enemies used to call Math.random(), which:
+ * - shares ONE generator between every thread (slow when simulations run in parallel)
+ * - can't be replayed, so a weird battle could never be reproduced
+ *
+ * Each GameSession now carries its own CombatRandom. Give it the same seed
+ * and the same player moves and you get exactly the same battle again.
+ *
+ * The generator is SplitMix64 (the same algorithm java.util.SplittableRandom
+ * uses). We implement it here instead of wrapping SplittableRandom so the
+ * numbers are pinned down by this file: a saved seed gives the same battle
+ * on any Java version, and other code (like batch simulations) can reproduce
+ * the exact same sequence.
+ *
+ * split() makes a new, independent generator - e.g. one per simulation
+ * thread or one per campaign - so nothing is shared between threads.
+ *
+ * Not thread-safe: each thread should have its own (split) instance.
+ */
+public class CombatRandom {
+
+    // Odd constant added to the state every step (from SplitMix64)
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    // Used to hand out different seeds to sessions created at the same moment
+    private static long seedUniquifier = 0x2545F4914F6CDD1DL;
+
+    private long seed;    // the seed this generator started from (for reproducing it)
+    private long state;   // current position in the sequence
+
+    /**
+     * @param seed - starting seed; the same seed always gives the same numbers
+     */
+    public CombatRandom(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    /**
+     * Make a generator with a fresh seed (different every call).
+     */
+    public static CombatRandom withRandomSeed() {
+        return new CombatRandom(newSeed());
+    }
+
+    /**
+     * Pick a new seed from the clock, mixed so sessions made back to back differ.
+     */
+    public static synchronized long newSeed() {
+        seedUniquifier += GOLDEN_GAMMA;
+        return mix64(System.nanoTime() ^ seedUniquifier);
+    }
+
+    /**
+     * Next random 64-bit value.
+     */
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    /**
+     * Random int from 0 (inclusive) to bound (exclusive).
+     *
+     * Uses the top 32 bits of nextLong() scaled into the range
+     * (multiply then shift), which is fast and has no loop.
+     *
+     * @param bound - must be positive
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * Random double from 0.0 (inclusive) to 1.0 (exclusive).
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Make an independent generator seeded from this one.
+     * Splitting in the same order always gives the same children.
+     */
+    public CombatRandom split() {
+        return new CombatRandom(nextLong());
+    }
+
+    /**
+     * @return the seed this generator started from
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the current position in the sequence; new CombatRandom(getState())
+     *         carries on with exactly the numbers this one would give next
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Jump back (or forward) to a position from getState(), e.g. to rewind a battle.
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    /**
+     * SplitMix64 output function - scrambles the state into a random-looking value.
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
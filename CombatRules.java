@@ -0,0 +1,163 @@
+import java.util.List;
+
+/**
+ * CombatRules.java - A class's moves as flat lookup tables (index = move slot)
+ *
+ * Player.executeMove works on Move objects; code that plays thousands of
+ * turns on plain ints (CombatBatch, CombatState for the MCTS enemy AI) reads
+ * these tables instead. They're built from GameData once per class and
+ * shared, so never modify the arrays.
+ *
+ * The masks let callers apply a move without any ifs:
+ *   ok    = -1 if the mana cost can be paid, 0 if not
+ *   mana  = mana - (cost[s] & ok)
+ *   hp    = min(maxHP, hp + (heal[s] & ok))
+ *   value = ((attack & attackMask[s]) + baseValue[s] + comboBonus * (comboUse[s] & combo)) & ok
+ *   combo = (combo & comboKeep[s]) | comboSet[s]
+ * (canPay, value and nextCombo below wrap these up). Status effects are
+ * in effect[s] / effectTurns[s] / effectPower[s] and only land when ok.
+ */
+public final class CombatRules {
+
+    private static final CombatRules[] CACHE = new CombatRules[GameData.get().classCount];
+
+    public final int classIndex;
+    public final int moveCount;
+    public final int[] cost;
+    public final int[] bonus;
+    public final int[] heal;
+    public final int[] block;
+    public final int[] effect;          // StatusEffects effect the move causes, -1 for none
+    public final int[] effectTurns;
+    public final int[] effectPower;
+    public final boolean[] effectOnSelf; // true if the effect lands on the player (block, attack up)
+    public final boolean[] isAttack;
+    public final int[] attackMask;      // -1 for attacks (value uses the attack stat), 0 otherwise
+    public final int[] baseValue;       // damage bonus for attacks, 0 otherwise (blocks are an effect)
+    public final int[] attackSlots;     // attack moves in slot order
+    public final int[] defenseSlots;    // heal/block moves in slot order
+
+    // Barbarian's Rush -> Punch combo (-1 / 0 when the class has no combo)
+    public final int comboSetSlot;
+    public final int comboUseSlot;
+    public final int comboBonus;
+    public final int[] comboKeep;       // -1 if the move leaves the combo flag alone, 0 if it changes it
+    public final int[] comboSet;        // new combo flag for moves that change it
+    public final int[] comboUse;        // 1 for the move that gets the combo bonus
+
+    /**
+     * @param c - class number in GameData
+     * @return the (shared) tables for that class
+     */
+    public static synchronized CombatRules forClass(int c) {
+        if (CACHE[c] == null) CACHE[c] = new CombatRules(c);
+        return CACHE[c];
+    }
+
+    private CombatRules(int c) {
+        GameData data = GameData.get();
+        classIndex = c;
+        moveCount = data.classMoveCount[c];
+        int first = data.classMoveStart[c];
+        cost = new int[moveCount];
+        bonus = new int[moveCount];
+        heal = new int[moveCount];
+        block = new int[moveCount];
+        effect = new int[moveCount];
+        effectTurns = new int[moveCount];
+        effectPower = new int[moveCount];
+        effectOnSelf = new boolean[moveCount];
+        isAttack = new boolean[moveCount];
+        attackMask = new int[moveCount];
+        baseValue = new int[moveCount];
+        for (int s = 0; s < moveCount; s++) {
+            cost[s] = data.moveCost[first + s];
+            bonus[s] = data.moveBonus[first + s];
+            heal[s] = data.moveHeal[first + s];
+            block[s] = data.moveBlock[first + s];
+            effect[s] = data.moveEffect[first + s];
+            effectTurns[s] = data.moveEffectTurns[first + s];
+            effectPower[s] = data.moveEffectPower[first + s];
+            effectOnSelf[s] = effect[s] >= 0 && StatusEffects.targetsSelf(effect[s]);
+            isAttack[s] = data.moves[first + s].isAttack();
+            attackMask[s] = isAttack[s] ? -1 : 0;
+            baseValue[s] = isAttack[s] ? bonus[s] : 0;
+        }
+        attackSlots = slots(data.getClassAttackMoves(c));
+        defenseSlots = slots(data.getClassDefenseMoves(c));
+
+        if (data.className[c].equals("Barbarian") && Barbarian.RUSH != null && Barbarian.PUNCH != null) {
+            comboSetSlot = Barbarian.RUSH.getSlot();
+            comboUseSlot = Barbarian.PUNCH.getSlot();
+            comboBonus = Barbarian.COMBO_BONUS;
+        } else {
+            comboSetSlot = -1;
+            comboUseSlot = -1;
+            comboBonus = 0;
+        }
+        comboKeep = new int[moveCount];
+        comboSet = new int[moveCount];
+        comboUse = new int[moveCount];
+        for (int s = 0; s < moveCount; s++) {
+            comboKeep[s] = s == comboSetSlot || s == comboUseSlot ? 0 : -1;
+            comboSet[s] = s == comboSetSlot ? 1 : 0;
+            comboUse[s] = s == comboUseSlot ? 1 : 0;
+        }
+    }
+
+    private static int[] slots(List<Move> moves) {
+        int[] result = new int[moves.size()];
+        for (int i = 0; i < result.length; i++) result[i] = moves.get(i).getSlot();
+        return result;
+    }
+
+    /**
+     * -1 if a move's mana cost can be paid, 0 if not.
+     */
+    public int canPay(int slot, int mana) {
+        return -(((mana - cost[slot]) >>> 31) ^ 1);
+    }
+
+    /**
+     * The damage of a move (Player.executeMove + Barbarian combo), before the
+     * enemy's block.
+     *
+     * @param attack - attack stat including any attack_up effect
+     * @param ok - canPay(slot, mana)
+     * @param combo - 1 if the last move was Rush
+     */
+    public int value(int slot, int attack, int combo, int ok) {
+        return ((attack & attackMask[slot]) + baseValue[slot] + comboBonus * (comboUse[slot] & combo)) & ok;
+    }
+
+    /**
+     * The combo flag after using a move.
+     */
+    public int nextCombo(int slot, int combo) {
+        return (combo & comboKeep[slot]) | comboSet[slot];
+    }
+
+    /**
+     * Same choice as GreedyPolicy.chooseAction: heal when low, otherwise the
+     * biggest affordable hit, otherwise the first attack.
+     */
+    public int greedyMove(int hp, int maxHP, int mana, int attack, int combo) {
+        if (hp * 100 < maxHP * GreedyPolicy.HEAL_BELOW_PERCENT) {
+            for (int s : defenseSlots) {
+                if (heal[s] > 0 && cost[s] <= mana) return s;
+            }
+        }
+        int best = -1;
+        int bestDamage = -1;
+        for (int s : attackSlots) {
+            if (cost[s] > mana) continue;
+            int damage = attack + bonus[s];
+            if (s == comboUseSlot && combo == 1) damage += comboBonus;
+            if (damage > bestDamage) {
+                best = s;
+                bestDamage = damage;
+            }
+        }
+        return best >= 0 ? best : attackSlots[0];
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * CombatSnapshot.java - A battle frozen at the start of a player turn
+ *
+ * Everything CombatEngine needs to put a battle back exactly how it was:
+ * every character's HP, mana, attack, defense and status effects, the
+ * player's class data (Player.getClassData - Barbarian's Rush combo,
+ * Archer's dodge count, ...), the initiative timeline, the turn count, the
+ * session's round statistics (so a turn that was taken back doesn't count)
+ * and the random generator's position - so a rewound turn rolls the same
+ * dice again, and a replay of it plays out the same.
+ *
+ * A snapshot never changes once it's made. That's what lets a snapshot
+ * share parts with the one before it: each character is a small immutable
+ * Fighter, and when a character's numbers are the same as in the previous
+ * snapshot (most of a swarm, most turns) the old Fighter is reused instead
+ * of copied, and so is the whole enemy array if no enemy changed. Keeping
+ * one snapshot per turn for a whole battle (RewindHistory) costs a few small
+ * objects a turn, not a copy of the battle.
+ *
+ * Only the real objects are covered here - search code like MctsEnemyAI
+ * forks CombatState instead, which is plain ints and cheaper still.
+ */
+public final class CombatSnapshot {
+
+    private static final int[] NO_EFFECTS = new int[StatusEffects.COUNT];   // turns/power when nothing is active
+
+    /**
+     * One character's numbers. Immutable (the arrays are never written after
+     * the constructor), so any number of snapshots can point at the same one.
+     */
+    static final class Fighter {
+        final int hp, maxHP, mana, maxMana, attack, defense;
+        final String classData;                // Player.getClassData ("" for enemies)
+        final int effects;                     // StatusEffects active bits
+        private final int[] effectTurns;
+        private final int[] effectPower;
+
+        private Fighter(int hp, int maxHP, int mana, int maxMana, int attack, int defense,
+                        String classData, StatusEffects fx) {
+            this.hp = hp;
+            this.maxHP = maxHP;
+            this.mana = mana;
+            this.maxMana = maxMana;
+            this.attack = attack;
+            this.defense = defense;
+            this.classData = classData;
+            this.effects = fx.getActive();
+            if (effects == 0) {
+                effectTurns = NO_EFFECTS;
+                effectPower = NO_EFFECTS;
+            } else {
+                effectTurns = new int[StatusEffects.COUNT];
+                effectPower = new int[StatusEffects.COUNT];
+                for (int e = 0; e < StatusEffects.COUNT; e++) {
+                    effectTurns[e] = fx.getTurns(e);
+                    effectPower[e] = fx.getPower(e);
+                }
+            }
+        }
+
+        /**
+         * The player's numbers, reusing previous if none of them changed.
+         */
+        static Fighter of(Player p, Fighter previous) {
+            String classData = p.getClassData();
+            if (previous != null && previous.matches(p.getCurrentHP(), p.getMaxHP(), p.getCurrentMana(), p.getMaxMana(),
+                    p.getAttack(), p.getDefense(), classData, p.getEffects())) {
+                return previous;
+            }
+            return new Fighter(p.getCurrentHP(), p.getMaxHP(), p.getCurrentMana(), p.getMaxMana(),
+                    p.getAttack(), p.getDefense(), classData, p.getEffects());
+        }
+
+        /**
+         * An enemy's numbers (no mana), reusing previous if none of them changed.
+         */
+        static Fighter of(Enemy e, Fighter previous) {
+            if (previous != null && previous.matches(e.getCurrentHP(), e.getMaxHP(), 0, 0,
+                    e.getAttack(), e.getDefense(), "", e.getEffects())) {
+                return previous;
+            }
+            return new Fighter(e.getCurrentHP(), e.getMaxHP(), 0, 0, e.getAttack(), e.getDefense(), "", e.getEffects());
+        }
+
+        private boolean matches(int hp, int maxHP, int mana, int maxMana, int attack, int defense,
+                                String classData, StatusEffects fx) {
+            if (this.hp != hp || this.maxHP != maxHP || this.mana != mana || this.maxMana != maxMana
+                    || this.attack != attack || this.defense != defense || !this.classData.equals(classData)
+                    || effects != fx.getActive()) {
+                return false;
+            }
+            for (int e = 0; e < StatusEffects.COUNT; e++) {
+                if (effectTurns[e] != fx.getTurns(e) || effectPower[e] != fx.getPower(e)) return false;
+            }
+            return true;
+        }
+
+        void restore(Player p) {
+            p.currentHP = hp;
+            p.maxHP = maxHP;
+            p.currentMana = mana;
+            p.maxMana = maxMana;
+            p.attack = attack;
+            p.defense = defense;
+            p.loadClassData(classData);
+            p.getEffects().restore(effects, effectTurns, effectPower);
+            p.fireStatsChanged();
+        }
+
+        void restore(Enemy e) {
+            e.currentHP = hp;
+            e.maxHP = maxHP;
+            e.attack = attack;
+            e.defense = defense;
+            e.getEffects().restore(effects, effectTurns, effectPower);
+            e.fireStatsChanged();
+        }
+    }
+
+    private final int turn;                    // player turns taken
+    private final long rngState;               // the session's CombatRandom position
+    private final int damageDealt, damageTaken;   // the session's round statistics
+    private final long experienceGained;
+    private final int target;                  // index of the enemy the last move went at
+    final Fighter player;
+    final Fighter[] enemies;                   // may be the previous snapshot's array (never written)
+    private final InitiativeQueue initiative;  // a private copy (never written)
+
+    /**
+     * Freeze a battle (CombatEngine.snapshot).
+     *
+     * @param previous - the last snapshot of this battle to share unchanged parts with, or null
+     */
+    CombatSnapshot(GameSession session, int turn, Enemy[] enemies, Enemy target,
+                   InitiativeQueue initiative, CombatSnapshot previous) {
+        this.turn = turn;
+        this.rngState = session.getRandom().getState();
+        this.damageDealt = session.getRoundsDamageDealt();   // (catches up on the event bus first)
+        this.damageTaken = session.getRoundsDamageTaken();
+        this.experienceGained = session.getRoundsExperienceGained();
+        this.initiative = initiative.copy();
+        this.player = Fighter.of(session.getPlayer(), previous == null ? null : previous.player);
+
+        int t = 0;
+        Fighter[] shared = previous != null && previous.enemies.length == enemies.length ? previous.enemies : null;
+        Fighter[] own = null;    // only made once an enemy turns out to have changed
+        for (int i = 0; i < enemies.length; i++) {
+            if (enemies[i] == target) t = i;
+            Fighter f = Fighter.of(enemies[i], shared == null ? null : shared[i]);
+            if (own == null && shared != null && f == shared[i]) continue;
+            if (own == null) {
+                own = new Fighter[enemies.length];
+                if (shared != null) System.arraycopy(shared, 0, own, 0, i);
+            }
+            own[i] = f;
+        }
+        this.enemies = own != null ? own : shared;
+        this.target = t;
+    }
+
+    /**
+     * Put the battle's objects back the way they were (CombatEngine.restore).
+     * Stat listeners (the HUD) hear about it like any other change.
+     */
+    void restore(GameSession session, Enemy[] es, InitiativeQueue queue) {
+        player.restore(session.getPlayer());
+        for (int i = 0; i < es.length; i++) enemies[i].restore(es[i]);
+        queue.copyFrom(initiative);
+        session.getRandom().setState(rngState);
+        session.restoreStats(damageDealt, damageTaken, experienceGained);
+    }
+
+    /**
+     * @return how many player turns had been taken
+     */
+    public int getTurn() { return turn; }
+
+    /**
+     * @return index (in the encounter) of the enemy the player's last move went at
+     */
+    public int getTarget() { return target; }
+
+    public int getPlayerHP() { return player.hp; }
+    public int getPlayerMana() { return player.mana; }
+    public int getEnemyHP(int i) { return enemies[i].hp; }
+}
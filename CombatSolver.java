@@ -0,0 +1,384 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * CombatSolver.java - Works out the best move for every possible battle state
+ *
+ * A battle is a small finite game. Everything that matters for who wins is:
+ *   player HP, player mana, enemy HP, Barbarian's combo flag, and the
+ *   turns left on any status effect that outlasts a turn
+ * (Archer's dodgeCounter is only a statistic - it never changes damage - so
+ * it isn't part of the state). For one matchup (class + level against an
+ * enemy on a difficulty) that's at most a few million states, small enough
+ * to solve exactly.
+ *
+ * Effects add one "digit" per side and effect that can still be on at the
+ * start of a turn, e.g. 0..3 turns of Goblin poison left on the player.
+ * The digits' sizes (fxRadix) come from the moves' effect lines.
+ * Effect power isn't stored - it's fixed per matchup by the data file.
+ *
+ * Every move costs mana and nothing gives mana back, enemy HP only goes down,
+ * and every enemy turn does damage, so each turn lowers (enemy HP, mana,
+ * player HP) in that order of importance. That means the states never loop,
+ * and walking them from "lowest" to "highest" always finds the states a move
+ * leads to already solved (the effect digits are the least important part
+ * of the index, and solve() checks every move really does go "down", so a
+ * data file with e.g. a stun that never runs out fails loudly instead of
+ * reading unsolved states). For each state:
+ *
+ *   win(state) = best over the player's moves of
+ *                  sum over the move's crit / no crit of
+ *                    chance * 1                          if the move kills the enemy
+ *                    chance * sum over enemy abilities and their crit / no crit of
+ *                      chance * (0 if the player dies, else win(next state))
+ *
+ * with the moves applied by CombatState, so the rules are the exact same ones
+ * the game uses. Each matchup is solved on its own thread. Only matchups
+ * where the turns alternate (class and enemy equally fast) are solved;
+ * SolverPolicy plays greedy for the rest.
+ *
+ * The results are written to one binary file that SolverTable memory-maps,
+ * so the game can look up "recommended move" hints without loading anything.
+ *
+ * File layout (big endian, what DataOutputStream writes and ByteBuffer reads):
+ *   int MAGIC, int VERSION, int matchupCount
+ *   per matchup: int classIndex, enemyType, level, difficulty,
+ *                    playerMaxHP, playerMaxMana, playerAttack, enemyHP, enemyAttack, comboStates,
+ *                    playerDefense, enemyDefense,
+ *                    fxRadix[0 .. 2 * StatusEffects.COUNT - 1] (player's effects, then the enemy's),
+ *                long offset of its table
+ *   the tables: one short per state, index
+ *     (((enemyHP * (playerMaxMana + 1) + mana) * (playerMaxHP + 1) + playerHP) * comboStates + combo)
+ *         * fxStates + fx          (fx = fxIndex(), fxStates = product of fxRadix)
+ *     value: best move slot << 12 | win chance scaled to 0..4095
+ *
+ * Usage:
+ *   java CombatSolver [--out data/solver.bin] [--threads N]
+ *
+ * Solves every class at every level it can have on each stage, on both difficulties.
+ */
+public class CombatSolver {
+
+    public static final int MAGIC = 0x45425356;      // "EBSV"
+    public static final int VERSION = 4;   // 4: effects count down per action
+    public static final int HEADER_BYTES = 12;
+    public static final int FX_DIGITS = 2 * StatusEffects.COUNT;  // player's effects, then the enemy's
+    public static final int ENTRY_BYTES = (12 + FX_DIGITS) * 4 + 8;
+    public static final int CHANCE_BITS = 12;
+    public static final int CHANCE_MAX = (1 << CHANCE_BITS) - 1;
+
+    private static final int[] DIFFICULTIES = { 1, 2 };
+    private static final double HARD_SCALE = 1.3;    // hard mode enemy attack and defense (as in GameSession)
+    private static final double CRIT_CHANCE = DamagePipeline.CRIT_PERCENT / 100.0;
+
+    /**
+     * One class/level vs enemy/difficulty, with the stats that decide its table size.
+     */
+    static final class Matchup {
+        int classIndex, enemyType, level, difficulty;
+        int playerMaxHP, playerMaxMana, playerAttack, enemyHP, enemyAttack, comboStates;
+        int playerDefense, enemyDefense;
+        int[] fxRadix = new int[FX_DIGITS];    // turns-left values each effect can have at turn start
+        int[] fxPower = new int[FX_DIGITS];    // its power (the same every time in one matchup)
+        long offset;
+        short[] table;
+
+        long fxStates() {
+            long n = 1;
+            for (int r : fxRadix) n *= r;
+            return n;
+        }
+
+        long states() {
+            return (long) (enemyHP + 1) * (playerMaxMana + 1) * (playerMaxHP + 1) * comboStates * fxStates();
+        }
+    }
+
+    /**
+     * The effects part of a state's index: turns left on each effect as a
+     * mixed-radix number (0 = effect off).
+     *
+     * @param fxRadix - the matchup's digit sizes
+     * @return the index part, or -1 if an effect has more turns left than the table allows
+     */
+    public static int fxIndex(int[] fxRadix, StatusEffects player, StatusEffects enemy) {
+        int index = 0;
+        for (int k = FX_DIGITS - 1; k >= 0; k--) {
+            StatusEffects side = k < StatusEffects.COUNT ? player : enemy;
+            int turns = side.has(k % StatusEffects.COUNT) ? side.getTurns(k % StatusEffects.COUNT) : 0;
+            if (turns >= fxRadix[k]) return -1;
+            index = index * fxRadix[k] + turns;
+        }
+        return index;
+    }
+
+    /**
+     * Work out a matchup's effect digits from the class's moves and the enemy's abilities.
+     *
+     * Effects count down at the end of their holder's own actions
+     * (StatusEffects), and a turn starts with the player to move. So t turns
+     * of anything on the player, or of anything the enemy put on itself,
+     * haven't counted down yet at the start of the next turn (0..t); what the
+     * player puts on the enemy has had one enemy action since (0..t-1).
+     *
+     * @throws IllegalArgumentException if the same effect comes with two different powers
+     */
+    private static void setEffectDigits(Matchup m, CombatRules rules, GameData data) {
+        java.util.Arrays.fill(m.fxRadix, 1);
+        for (int s = 0; s < rules.moveCount; s++) {
+            if (rules.effect[s] < 0) continue;
+            boolean self = rules.effectOnSelf[s];
+            int k = (self ? 0 : StatusEffects.COUNT) + rules.effect[s];
+            addEffectDigit(m, k, self ? rules.effectTurns[s] + 1 : rules.effectTurns[s], rules.effectPower[s]);
+        }
+        int first = data.enemyMoveStart[m.enemyType];
+        for (int a = 0; a < data.enemyMoveCount[m.enemyType]; a++) {
+            int effect = data.moveEffect[first + a];
+            if (effect < 0) continue;
+            int k = (StatusEffects.targetsSelf(effect) ? StatusEffects.COUNT : 0) + effect;
+            addEffectDigit(m, k, data.moveEffectTurns[first + a] + 1, data.moveEffectPower[first + a]);
+        }
+    }
+
+    private static void addEffectDigit(Matchup m, int k, int radix, int power) {
+        if (m.fxRadix[k] > 1 && m.fxPower[k] != power) {
+            throw new IllegalArgumentException("The solver needs one power per effect in a matchup ("
+                + StatusEffects.NAMES[k % StatusEffects.COUNT] + " has " + m.fxPower[k] + " and " + power + ")");
+        }
+        m.fxRadix[k] = Math.max(m.fxRadix[k], radix);
+        m.fxPower[k] = power;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String outPath = SolverTable.DEFAULT_PATH;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--out":     outPath = args[i + 1]; break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        long start = System.nanoTime();
+        List<Matchup> matchups = campaignMatchups();
+        solveAll(matchups, threads);
+        write(matchups, outPath);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long states = 0;
+        for (Matchup m : matchups) states += m.states();
+        System.err.printf("Solved %d matchups (%d states) in %.2f s with %d threads -> %s%n",
+            matchups.size(), states, seconds, threads, outPath);
+    }
+
+    /**
+     * Every matchup a campaign can run into: on stage s the player is level 1 up
+     * to whatever winning every stage before it is worth (Progression.levelFor),
+     * for every class and difficulty.
+     */
+    static List<Matchup> campaignMatchups() {
+        GameData data = GameData.get();
+        List<Matchup> list = new ArrayList<>();
+        for (int c = 0; c < data.classCount; c++) {
+            CombatRules rules = CombatRules.forClass(c);
+            for (int difficulty : DIFFICULTIES) {
+                long expBefore = 0;   // EXP from winning every earlier stage
+                for (int stage = 1; stage <= data.stageCount; stage++) {
+                    int e = data.enemyForStage(stage);
+                    int topLevel = Progression.levelFor(expBefore, 1);
+                    expBefore += CombatEngine.victoryExp(stage);
+                    if (data.enemySpeed[e] != data.classSpeed[c]) continue;  // turns wouldn't alternate
+                    for (int level = 1; level <= topLevel; level++) {
+                        Matchup m = new Matchup();
+                        m.classIndex = c;
+                        m.enemyType = e;
+                        m.level = level;
+                        m.difficulty = difficulty;
+                        m.playerMaxHP = data.classHP[c] + Progression.hpGain(1, level);
+                        m.playerMaxMana = data.classMana[c] + Progression.manaGain(1, level);
+                        m.playerAttack = data.classAttack[c] + Progression.attackGain(1, level);
+                        // Hard mode raises max HP but the enemy still starts at its normal HP
+                        m.enemyHP = data.enemyHP[e];
+                        m.enemyAttack = difficulty == 2 ? (int) (data.enemyAttack[e] * HARD_SCALE) : data.enemyAttack[e];
+                        m.playerDefense = data.classDefense[c] + Progression.defenseGain(1, level);
+                        m.enemyDefense = difficulty == 2 ? (int) (data.enemyDefense[e] * HARD_SCALE) : data.enemyDefense[e];
+                        m.comboStates = rules.comboSetSlot >= 0 ? 2 : 1;
+                        setEffectDigits(m, rules, data);
+                        list.add(m);
+                    }
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Solve every matchup, one task per matchup.
+     */
+    static void solveAll(List<Matchup> matchups, int threads) throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<short[]>> futures = new ArrayList<>();
+            for (Matchup m : matchups) futures.add(pool.submit(() -> solve(m)));
+            for (int i = 0; i < matchups.size(); i++) matchups.get(i).table = futures.get(i).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Solve one matchup (see the class comment for the recurrence).
+     *
+     * @return the packed table (move << 12 | chance); states where someone is
+     *         already dead are left at 0
+     */
+    static short[] solve(Matchup m) {
+        GameData data = GameData.get();
+        CombatRules rules = CombatRules.forClass(m.classIndex);
+        int manaSize = m.playerMaxMana + 1;
+        int hpSize = m.playerMaxHP + 1;
+        int combos = m.comboStates;
+        int fxStates = (int) m.fxStates();
+        long count = m.states();
+        if (count > Integer.MAX_VALUE) throw new IllegalArgumentException("Matchup too big to solve: " + count + " states");
+
+        double[] win = new double[(int) count];
+        short[] table = new short[(int) count];
+
+        // Enemy abilities and their chances
+        int first = data.enemyMoveStart[m.enemyType];
+        int abilities = data.enemyMoveCount[m.enemyType];
+        double[] chance = new double[abilities];
+        for (int a = 0; a < abilities; a++) {
+            chance[a] = (double) data.moveWeight[first + a] / data.enemyWeightTotal[m.enemyType];
+        }
+
+        CombatState base = CombatState.forMatchup(rules, m.enemyType);
+        base.playerMaxHP = m.playerMaxHP;
+        base.playerAttack = m.playerAttack;
+        base.playerDefense = m.playerDefense;
+        base.enemyDefense = m.enemyDefense;
+        base.enemyMaxHP = m.enemyHP;
+        base.enemyAttack = m.enemyAttack;
+        CombatState afterPlayer = base.copy();
+        CombatState afterEnemy = base.copy();
+
+        // The effects for every value of the fx digits, built once
+        CombatState[] fxStart = new CombatState[fxStates];
+        for (int fx = 0; fx < fxStates; fx++) {
+            fxStart[fx] = base.copy();
+            int rest = fx;
+            for (int k = 0; k < FX_DIGITS; k++) {
+                int turns = rest % m.fxRadix[k];
+                rest /= m.fxRadix[k];
+                if (turns == 0) continue;
+                StatusEffects side = k < StatusEffects.COUNT ? fxStart[fx].playerEffects : fxStart[fx].enemyEffects;
+                side.apply(k % StatusEffects.COUNT, turns, m.fxPower[k]);
+            }
+        }
+
+        // Index order is exactly "lowest state first", so one pass does it
+        for (int eHP = 1; eHP <= m.enemyHP; eHP++) {
+            for (int mana = 0; mana <= m.playerMaxMana; mana++) {
+                for (int hp = 1; hp <= m.playerMaxHP; hp++) {
+                    for (int combo = 0; combo < combos; combo++) {
+                        for (int fx = 0; fx < fxStates; fx++) {
+                            int index = (((eHP * manaSize + mana) * hpSize + hp) * combos + combo) * fxStates + fx;
+                            int best = 0;
+                            double bestWin = -1;
+                            for (int slot = 0; slot < rules.moveCount; slot++) {
+                                double w = 0;
+                                int playerCrits = rules.isAttack[slot] ? 2 : 1;   // only hits can crit
+                                for (int pc = 0; pc < playerCrits; pc++) {
+                                    double pChance = playerCrits == 1 ? 1 : pc == 1 ? CRIT_CHANCE : 1 - CRIT_CHANCE;
+                                    afterPlayer.copyFrom(fxStart[fx]);
+                                    afterPlayer.playerHP = hp;
+                                    afterPlayer.playerMana = mana;
+                                    afterPlayer.combo = combo;
+                                    afterPlayer.enemyHP = eHP;
+                                    afterPlayer.playerMove(slot, pc == 1);
+                                    if (afterPlayer.enemyDead()) {
+                                        w += pChance;
+                                        continue;
+                                    }
+                                    if (afterPlayer.playerDead()) continue;   // poison
+                                    for (int a = 0; a < abilities; a++) {
+                                        for (int ec = 0; ec < 2; ec++) {
+                                            double eChance = pChance * chance[a] * (ec == 1 ? CRIT_CHANCE : 1 - CRIT_CHANCE);
+                                            afterEnemy.copyFrom(afterPlayer);
+                                            afterEnemy.enemyMove(a, ec == 1);
+                                            if (afterEnemy.playerDead()) continue;
+                                            if (afterEnemy.enemyDead()) {   // poison finished it off
+                                                w += eChance;
+                                                continue;
+                                            }
+                                            int nextFx = fxIndex(m.fxRadix, afterEnemy.playerEffects, afterEnemy.enemyEffects);
+                                            int next = (((afterEnemy.enemyHP * manaSize + afterEnemy.playerMana) * hpSize
+                                                    + afterEnemy.playerHP) * combos + afterEnemy.combo) * fxStates + nextFx;
+                                            if (nextFx < 0 || next >= index) {
+                                                throw new IllegalStateException("Can't solve " + data.className[m.classIndex]
+                                                    + " vs " + data.enemyName[m.enemyType] + ": a turn doesn't always lower the state");
+                                            }
+                                            w += eChance * win[next];
+                                        }
+                                    }
+                                }
+                                if (w > bestWin) {
+                                    best = slot;
+                                    bestWin = w;
+                                }
+                            }
+                            win[index] = bestWin;
+                            table[index] = (short) (best << CHANCE_BITS | (int) Math.round(bestWin * CHANCE_MAX));
+                        }
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Write the header, directory and tables (see the class comment).
+     */
+    static void write(List<Matchup> matchups, String path) throws IOException {
+        long offset = HEADER_BYTES + (long) ENTRY_BYTES * matchups.size();
+        for (Matchup m : matchups) {
+            m.offset = offset;
+            offset += 2L * m.table.length;
+        }
+
+        File file = new File(path);
+        if (file.getParentFile() != null) file.getParentFile().mkdirs();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(matchups.size());
+            for (Matchup m : matchups) {
+                out.writeInt(m.classIndex);
+                out.writeInt(m.enemyType);
+                out.writeInt(m.level);
+                out.writeInt(m.difficulty);
+                out.writeInt(m.playerMaxHP);
+                out.writeInt(m.playerMaxMana);
+                out.writeInt(m.playerAttack);
+                out.writeInt(m.enemyHP);
+                out.writeInt(m.enemyAttack);
+                out.writeInt(m.comboStates);
+                out.writeInt(m.playerDefense);
+                out.writeInt(m.enemyDefense);
+                for (int r : m.fxRadix) out.writeInt(r);
+                out.writeLong(m.offset);
+            }
+            for (Matchup m : matchups) {
+                for (short v : m.table) out.writeShort(v);
+            }
+        }
+    }
+}
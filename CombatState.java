@@ -0,0 +1,211 @@
+/**
+ * CombatState.java - A copy of one battle as plain ints
+ *
+ * Taken from the real Player and Enemy with of(), then played forward with
+ * playerMove()/enemyMove() using the same rules as CombatEngine (moves come
+ * from CombatRules, enemy damage is attack + the ability's bonus, every hit
+ * goes through DamagePipeline, status effects work the same way and each
+ * side's effects count down at the end of its own move). Whether a hit is critical is
+ * passed in, so callers can roll it (rollCrit) or try both outcomes. Changing
+ * a CombatState never touches the real objects, so search code like
+ * MctsEnemyAI can try out thousands of futures on another thread while the
+ * game keeps running.
+ *
+ * Moves are numbers: the player's move slot, and the enemy's ability index
+ * (position in Enemy.getAbilities()).
+ */
+public final class CombatState {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;   // SplitMix64 step (as in CombatRandom)
+
+    public final CombatRules rules;     // the player's class
+    public final int enemyType;         // enemy number in GameData
+    private final int abilityFirst;     // enemy's first ability in GameData's move arrays
+    public final int abilityCount;
+    private int[] abilityWeights;       // enemy's AI weights (shared, not copied)
+    private int weightTotal;
+
+    public int playerHP, playerMaxHP, playerMana, playerAttack, playerDefense;
+    public int combo;                   // 1 if the player's last move was Rush
+    public int enemyHP, enemyMaxHP, enemyAttack, enemyDefense;
+    public final StatusEffects playerEffects = new StatusEffects();
+    public final StatusEffects enemyEffects = new StatusEffects();
+
+    private CombatState(CombatRules rules, int enemyType) {
+        this.rules = rules;
+        this.enemyType = enemyType;
+        GameData data = GameData.get();
+        this.abilityFirst = data.enemyMoveStart[enemyType];
+        this.abilityCount = data.enemyMoveCount[enemyType];
+        this.abilityWeights = data.enemyWeights[enemyType];
+        this.weightTotal = data.enemyWeightTotal[enemyType];
+    }
+
+    /**
+     * Snapshot of a battle in progress.
+     * Call it on the thread that owns the objects (the EDT in the game).
+     */
+    public static CombatState of(Player player, Enemy enemy) {
+        CombatState s = new CombatState(CombatRules.forClass(player.getClassIndex()), enemy.getType());
+        s.playerHP = player.getCurrentHP();
+        s.playerMaxHP = player.getMaxHP();
+        s.playerMana = player.getCurrentMana();
+        s.playerAttack = player.getAttack();
+        s.playerDefense = player.getDefense();
+        s.combo = player instanceof Barbarian && ((Barbarian) player).getLastActionWasRush() ? 1 : 0;
+        s.enemyHP = enemy.getCurrentHP();
+        s.enemyMaxHP = enemy.getMaxHP();
+        s.enemyAttack = enemy.getAttack();
+        s.enemyDefense = enemy.getDefense();
+        s.abilityWeights = enemy.getAbilityWeights();  // endless mode enemies have their own mix
+        s.weightTotal = enemy.getWeightTotal();
+        s.playerEffects.copyFrom(player.getEffects());
+        s.enemyEffects.copyFrom(enemy.getEffects());
+        return s;
+    }
+
+    /**
+     * Empty state for a class against an enemy type (all numbers 0),
+     * for code that fills in states itself like CombatSolver.
+     */
+    public static CombatState forMatchup(CombatRules rules, int enemyType) {
+        return new CombatState(rules, enemyType);
+    }
+
+    /**
+     * @return a new state with the same numbers
+     */
+    public CombatState copy() {
+        CombatState s = new CombatState(rules, enemyType);
+        s.copyFrom(this);
+        return s;
+    }
+
+    /**
+     * Overwrite this state with another one of the same matchup
+     * (lets search loops reuse one scratch object).
+     */
+    public void copyFrom(CombatState o) {
+        playerHP = o.playerHP;
+        playerMaxHP = o.playerMaxHP;
+        playerMana = o.playerMana;
+        playerAttack = o.playerAttack;
+        playerDefense = o.playerDefense;
+        combo = o.combo;
+        enemyHP = o.enemyHP;
+        enemyMaxHP = o.enemyMaxHP;
+        enemyAttack = o.enemyAttack;
+        enemyDefense = o.enemyDefense;
+        abilityWeights = o.abilityWeights;
+        weightTotal = o.weightTotal;
+        playerEffects.copyFrom(o.playerEffects);
+        enemyEffects.copyFrom(o.enemyEffects);
+    }
+
+    // ==================== RULES ====================
+
+    /**
+     * Player uses a move (Player.executeMove + CombatEngine.playerTurn),
+     * then its effects count down unless the move won - so poison can kill
+     * the player here (check playerDead before enemyMove).
+     *
+     * @param slot - move slot
+     * @param crit - true if the move's hit (if it is one) is critical
+     * @return damage dealt to the enemy
+     */
+    public int playerMove(int slot, boolean crit) {
+        if (playerEffects.consumeStun()) {
+            playerHP = Math.max(0, playerHP - playerEffects.endAction(0));
+            return 0;
+        }
+        int ok = rules.canPay(slot, playerMana);
+        int base = rules.value(slot, playerAttack + playerEffects.getAttackBonus(), combo, ok);
+        int value = DamagePipeline.hit(base, crit, enemyDefense, enemyEffects);
+        combo = rules.nextCombo(slot, combo);
+        playerMana -= rules.cost[slot] & ok;
+        playerHP = Math.min(playerMaxHP, playerHP + (rules.heal[slot] & ok));
+        enemyHP = Math.max(0, enemyHP - value);
+        int fresh = 0;
+        if (ok != 0 && rules.effect[slot] >= 0) {
+            if (rules.effectOnSelf[slot]) {
+                playerEffects.apply(rules.effect[slot], rules.effectTurns[slot], rules.effectPower[slot]);
+                fresh = 1 << rules.effect[slot];
+            } else {
+                enemyEffects.apply(rules.effect[slot], rules.effectTurns[slot], rules.effectPower[slot]);
+            }
+        }
+        if (enemyHP > 0) playerHP = Math.max(0, playerHP - playerEffects.endAction(fresh));
+        return value;
+    }
+
+    /**
+     * Enemy uses an ability, then its effects count down unless the player
+     * died (Enemy.executeAttack + CombatEngine.enemyTurn).
+     *
+     * @param ability - index into Enemy.getAbilities()
+     * @param crit - true if the hit is critical
+     * @return damage the ability dealt to the player
+     */
+    public int enemyMove(int ability, boolean crit) {
+        int damage = 0;
+        int fresh = 0;
+        if (!enemyEffects.consumeStun()) {
+            GameData data = GameData.get();
+            int m = abilityFirst + ability;
+            damage = DamagePipeline.hit(enemyAttack + enemyEffects.getAttackBonus() + data.moveBonus[m], crit,
+                playerDefense, playerEffects);
+            int effect = data.moveEffect[m];
+            if (effect >= 0) {
+                if (StatusEffects.targetsSelf(effect)) {
+                    enemyEffects.apply(effect, data.moveEffectTurns[m], data.moveEffectPower[m]);
+                    fresh = 1 << effect;
+                } else {
+                    playerEffects.apply(effect, data.moveEffectTurns[m], data.moveEffectPower[m]);
+                }
+            }
+            playerHP = Math.max(0, playerHP - damage);
+            if (playerHP == 0) return damage;
+        }
+        enemyHP = Math.max(0, enemyHP - enemyEffects.endAction(fresh));
+        return damage;
+    }
+
+    /**
+     * Pick an ability the way Enemy.decideAction does (by AI weight),
+     * stepping a SplitMix64 state held by the caller.
+     *
+     * @param rng - one-element array holding the generator state
+     */
+    public int rollEnemyAbility(long[] rng) {
+        long s = rng[0] + GOLDEN_GAMMA;
+        rng[0] = s;
+        int roll = (int) (((CombatRandom.mix64(s) >>> 32) * weightTotal) >>> 32);
+        for (int a = 0; a < abilityCount; a++) {
+            roll -= abilityWeights[a];
+            if (roll < 0) return a;
+        }
+        return abilityCount - 1;
+    }
+
+    /**
+     * Roll whether a hit is critical (DamagePipeline.CRIT_PERCENT), stepping
+     * a SplitMix64 state held by the caller.
+     *
+     * @param rng - one-element array holding the generator state
+     */
+    public static boolean rollCrit(long[] rng) {
+        long s = rng[0] + GOLDEN_GAMMA;
+        rng[0] = s;
+        return DamagePipeline.isCrit(CombatRandom.mix64(s));
+    }
+
+    /**
+     * GreedyPolicy's choice in this state.
+     */
+    public int greedyMove() {
+        return rules.greedyMove(playerHP, playerMaxHP, playerMana, playerAttack + playerEffects.getAttackBonus(), combo);
+    }
+
+    public boolean playerDead() { return playerHP == 0; }
+    public boolean enemyDead() { return enemyHP == 0; }
+}
@@ -0,0 +1,107 @@
+/**
+ * DamagePipeline.java - How much of a hit actually gets through
+ *
+ * Every character has a defense stat (and Hard mode raises the enemy's),
+ * but damage used to go straight into takeDamage() and defense did nothing.
+ * Now every hit goes through the same steps, in this order:
+ *
+ *   1. base        attack + the move's bonus (+ combo, + attack_up) - the
+ *                  number Player.executeMove / Enemy.executeAttack return
+ *   2. crit        CRIT_PERCENT of hits are critical and do CRIT_PERCENT_DAMAGE%
+ *   3. mitigation  defense takes off a share that grows with it but never
+ *                  reaches 100%:  damage * 100 / (100 + DEFENSE_WEIGHT * defense),
+ *                  rounded, and a hit always does at least 1
+ *   4. effects     the target's block (StatusEffects.absorb) comes off last
+ *
+ * CombatEngine (so the game screen too), CombatState, CombatBatch and
+ * CombatSolver all call these methods, so the numbers can't drift apart.
+ *
+ * Step 3 is a division, so it's worked out once for every (damage, defense)
+ * pair the campaign can produce and kept in a table: a hit is then one
+ * array read. Anything outside the table (endless mode's huge stats) uses
+ * the same integer formula directly, so both give exactly the same answer.
+ * There's no floating point anywhere in here.
+ */
+public final class DamagePipeline {
+
+    // ==================== TUNING ====================
+    public static final int CRIT_PERCENT = 10;          // chance of a critical hit
+    public static final int CRIT_PERCENT_DAMAGE = 150;  // a critical hit does 150% damage
+    public static final int DEFENSE_WEIGHT = 2;         // each point of defense counts as 2% more "armour"
+
+    // ==================== MITIGATION TABLE ====================
+    public static final int TABLE_DAMAGE = 512;         // damage 0..511 is in the table
+    public static final int TABLE_DEFENSE = 128;        // defense 0..127
+
+    // MITIGATED[defense * TABLE_DAMAGE + damage] = damage after defense
+    private static final short[] MITIGATED = new short[TABLE_DAMAGE * TABLE_DEFENSE];
+    static {
+        for (int defense = 0; defense < TABLE_DEFENSE; defense++) {
+            for (int damage = 0; damage < TABLE_DAMAGE; damage++) {
+                MITIGATED[defense * TABLE_DAMAGE + damage] = (short) compute(damage, defense);
+            }
+        }
+    }
+
+    private DamagePipeline() {}
+
+    /**
+     * All steps for one hit.
+     *
+     * @param base - the attacker's damage (step 1)
+     * @param crit - true if the hit was rolled as a critical
+     * @param defense - the target's defense
+     * @param target - the target's effects (for block)
+     * @return the damage to take
+     */
+    public static int hit(int base, boolean crit, int defense, StatusEffects target) {
+        return target.absorb(mitigate(crit ? critical(base) : base, defense));
+    }
+
+    /**
+     * Step 2 for a hit that was rolled critical.
+     */
+    public static int critical(int damage) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) damage * CRIT_PERCENT_DAMAGE / 100);
+    }
+
+    /**
+     * Roll whether a hit is critical (one number from the generator).
+     */
+    public static boolean rollCrit(CombatRandom rng) {
+        return rng.nextInt(100) < CRIT_PERCENT;
+    }
+
+    /**
+     * The same roll on a SplitMix64 number that's already been drawn
+     * (CombatBatch and CombatState step their generators themselves).
+     *
+     * @param mixed - CombatRandom.mix64 of the generator state
+     */
+    public static boolean isCrit(long mixed) {
+        return (int) (((mixed >>> 32) * 100) >>> 32) < CRIT_PERCENT;
+    }
+
+    /**
+     * Step 3: damage left after the target's defense.
+     *
+     * @param damage - 0 or more
+     * @param defense - 0 or more
+     */
+    public static int mitigate(int damage, int defense) {
+        if (damage < TABLE_DAMAGE && defense < TABLE_DEFENSE) {
+            return MITIGATED[defense * TABLE_DAMAGE + damage];
+        }
+        return compute(damage, defense);
+    }
+
+    /**
+     * The mitigation formula (fills the table, and handles what's outside it).
+     */
+    private static int compute(int damage, int defense) {
+        if (damage <= 0) return 0;
+        long divisor = 100 + (long) DEFENSE_WEIGHT * defense;
+        long result = ((long) damage * 100 + divisor / 2) / divisor;   // rounded to the nearest point
+        return (int) Math.max(1, result);
+    }
+}
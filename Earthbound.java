@@ -1,8 +1,14 @@
 /**
  * Earthbound.java - entry file
+ *
+ * java Earthbound --instant   plays every turn with no animation delays
  */
 public class Earthbound {
     public static void main(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--instant")) GameManager.setTurnTiming(TurnStateMachine.Timing.instant());
+        }
+        
         // Create and display the main application frame
         // This single line sets up the entire game window and shows it
         // done this way because it looks cleaner and easier to navigate to
@@ -0,0 +1,191 @@
+/**
+ * EndlessMode.java - Makes up the enemies for stages past the end of the campaign
+ *
+ * The campaign's stages come from data/definitions.txt. Once a player has
+ * cleared them all they can keep going: every stage after that gets an
+ * enemy built here from three things:
+ *
+ *   kind     one of the data file's enemies with an ability mix:
+ *            normal (the data file's weights), Brutal (favours its
+ *            hardest-hitting abilities, but is slower) or Swift (favours
+ *            its lightest ones, and is faster - it acts more often)
+ *   scaling  HP, attack and defense grow by a fixed percent of the base
+ *            stat per endless stage, capped at MAX_STAT so they never overflow
+ *   hard     GameSession's usual +30% on Hard is applied on top, as for any enemy
+ *
+ * Every SWARM_EVERY-th endless stage is a swarm instead of one enemy: 2 of
+ * them at first, one more every SWARM_GROWTH stages (up to MAX_SWARM), each
+ * with SWARM_HP_PERCENT of a lone enemy's HP. CombatEngine's initiative
+ * queue decides who acts when.
+ *
+ * Every kind is built once (enemy types x mixes) and shared by all the
+ * enemies of that kind - the name, weights and move table are never copied.
+ * The kind and stats for stage N are worked out straight from N (a hash
+ * of the stage and swarm position picks the kind, the stats are one
+ * multiplication each), so stage 10,000
+ * costs the same to create as stage 1, and the same stage always gets the
+ * same enemy (replays depend on that).
+ */
+public final class EndlessMode {
+
+    // ==================== SCALING ====================
+    public static final int HP_PERCENT_PER_STAGE = 20;       // +20% of base HP per endless stage
+    public static final int ATTACK_PERCENT_PER_STAGE = 8;    // +8% of base attack
+    public static final int DEFENSE_PERCENT_PER_STAGE = 5;   // +5% of base defense
+    public static final int MAX_STAT = 1_000_000_000;        // stats stop growing here (x1.3 still fits in an int)
+
+    // ==================== SWARMS ====================
+    public static final int SWARM_EVERY = 5;          // every 5th endless stage is a swarm
+    public static final int SWARM_GROWTH = 10;        // one more enemy every 10 endless stages
+    public static final int MAX_SWARM = 6;            // most enemies in one swarm (what fits on screen)
+    public static final int SWARM_HP_PERCENT = 40;    // each swarm enemy has 40% of a lone enemy's HP
+
+    // ==================== ABILITY MIXES ====================
+    private static final int MIX_NORMAL = 0;
+    private static final int MIX_BRUTAL = 1;
+    private static final int MIX_SWIFT = 2;
+    private static final String[] MIX_PREFIX = { "", "Brutal ", "Swift " };
+    private static final int[] MIX_SPEED_PERCENT = { 100, 80, 150 };  // speed vs the data file's
+
+    private static final long STAGE_SALT = 0x454E444C455353L;   // "ENDLESS"
+    private static final long MEMBER_STEP = 0x9E3779B97F4A7C15L; // spreads swarm positions apart
+
+    /**
+     * An enemy type with an ability mix (the flyweight every enemy of the kind shares).
+     */
+    private static final class Kind {
+        final int type;
+        final String name;
+        final int[] weights;
+        final int weightTotal;
+        final int speed;
+
+        Kind(int type, String name, int[] weights, int speed) {
+            this.type = type;
+            this.name = name;
+            this.weights = weights;
+            this.speed = speed;
+            int total = 0;
+            for (int w : weights) total += w;
+            this.weightTotal = total;
+        }
+    }
+
+    private static Kind[] kinds;
+
+    private EndlessMode() {}
+
+    /**
+     * @return true if a stage is past the campaign (an endless stage)
+     */
+    public static boolean isEndlessStage(int stage) {
+        return stage > GameData.get().stageCount;
+    }
+
+    /**
+     * @return how many enemies an endless stage has (1, or a swarm's size)
+     */
+    public static int encounterSize(int stage) {
+        int depth = Math.max(1, stage - GameData.get().stageCount);
+        if (depth % SWARM_EVERY != 0) return 1;
+        return Math.min(MAX_SWARM, 2 + depth / SWARM_GROWTH);
+    }
+
+    /**
+     * Build every enemy of an endless stage (before the Hard mode bonus).
+     *
+     * @param stage - stage number, past GameData.stageCount
+     */
+    public static Enemy[] createEncounter(int stage) {
+        Enemy[] enemies = new Enemy[encounterSize(stage)];
+        for (int i = 0; i < enemies.length; i++) {
+            enemies[i] = createEnemy(stage, i);
+            if (enemies.length > 1) {
+                enemies[i].maxHP = Math.max(1, (int) ((long) enemies[i].maxHP * SWARM_HP_PERCENT / 100));
+                enemies[i].currentHP = enemies[i].maxHP;
+            }
+        }
+        return enemies;
+    }
+
+    /**
+     * Build the (first) enemy of an endless stage (before the Hard mode bonus).
+     *
+     * @param stage - stage number, past GameData.stageCount
+     */
+    public static Enemy createEnemy(int stage) {
+        return createEnemy(stage, 0);
+    }
+
+    /**
+     * @param member - position in the swarm (0 for the only enemy of a normal stage)
+     */
+    private static Enemy createEnemy(int stage, int member) {
+        Kind[] all = getKinds();
+        int depth = Math.max(1, stage - GameData.get().stageCount);
+        long hash = CombatRandom.mix64((stage ^ STAGE_SALT) + member * MEMBER_STEP);
+        Kind kind = all[(int) Long.remainderUnsigned(hash, all.length)];
+
+        Enemy enemy = new Enemy(kind.type);
+        enemy.enemyName = kind.name;
+        enemy.abilityWeights = kind.weights;
+        enemy.weightTotal = kind.weightTotal;
+        enemy.speed = kind.speed;
+        enemy.stage = stage;
+        enemy.level = (int) Math.min(MAX_STAT, (long) enemy.level + depth);
+        enemy.maxHP = scale(enemy.maxHP, HP_PERCENT_PER_STAGE, depth);
+        enemy.currentHP = enemy.maxHP;
+        enemy.attack = scale(enemy.attack, ATTACK_PERCENT_PER_STAGE, depth);
+        enemy.defense = scale(enemy.defense, DEFENSE_PERCENT_PER_STAGE, depth);
+        return enemy;
+    }
+
+    /**
+     * base + percentPerStage% of base for every stage, capped at MAX_STAT.
+     */
+    public static int scale(int base, int percentPerStage, int depth) {
+        long value = base * (100 + (long) percentPerStage * depth) / 100;
+        return (int) Math.min(MAX_STAT, value);
+    }
+
+    /**
+     * Every enemy type in every mix, built on first use.
+     */
+    private static synchronized Kind[] getKinds() {
+        if (kinds == null) {
+            GameData data = GameData.get();
+            Kind[] k = new Kind[data.enemyCount * MIX_PREFIX.length];
+            for (int e = 0; e < data.enemyCount; e++) {
+                for (int mix = 0; mix < MIX_PREFIX.length; mix++) {
+                    int speed = Math.max(1, data.enemySpeed[e] * MIX_SPEED_PERCENT[mix] / 100);
+                    k[e * MIX_PREFIX.length + mix] = new Kind(e, MIX_PREFIX[mix] + data.enemyName[e], mixWeights(data, e, mix), speed);
+                }
+            }
+            kinds = k;
+        }
+        return kinds;
+    }
+
+    /**
+     * An enemy's weights with a mix applied: each weight is multiplied by
+     * its ability's rank by damage bonus (1 = weakest), counted from the
+     * strong end for Brutal and the weak end for Swift. Abilities the data
+     * file gives weight 0 stay unused.
+     */
+    private static int[] mixWeights(GameData data, int type, int mix) {
+        int[] base = data.enemyWeights[type];
+        if (mix == MIX_NORMAL) return base;  // share the data file's array
+
+        int first = data.enemyMoveStart[type];
+        int n = base.length;
+        int[] weights = new int[n];
+        for (int a = 0; a < n; a++) {
+            int rank = 1;  // 1 + how many abilities hit softer than this one
+            for (int b = 0; b < n; b++) {
+                if (data.moveBonus[first + b] < data.moveBonus[first + a]) rank++;
+            }
+            weights[a] = base[a] * (mix == MIX_SWIFT ? n + 1 - rank : rank);
+        }
+        return weights;
+    }
+}
@@ -1,79 +1,125 @@
 import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Enemy.java - Abstract base class for all enemies
+ * Enemy.java - Every enemy in the game
  * 
  * This works just like Player.java but for enemies
  * - HP, attack, defense stats
  * - Animation management
  * - Damage/healing methods
- * - Abstract methods that each enemy type must implement
- * enemies share common code (like takeDamage, heal) so abstract classes make sense
+ * - Picking a move each turn
+ * 
+ * There used to be a subclass per enemy (Goblin, Skeleton, Plent) with
+ * hard-coded stats and move choices. Now an enemy is just a type number
+ * into GameData: stats, abilities, AI weights and animation folders all
+ * come from data/definitions.txt, so new enemies need no new code.
  */
-public abstract class Enemy {
+public class Enemy {
     
     // ==================== IDENTITY ====================
+    protected int type;           // enemy type number in GameData
     protected String enemyName;   // display name (e.g., "Skeleton")
     protected String enemyType;   // type identifier for asset loading
     
     // ==================== PROGRESSION ====================
-    protected int level;          // enemy level (matches stage number)
-    protected int stage;          // which stage this enemy appears on (1, 2, or 3)
+    protected int level;          // enemy level (from the data file)
+    protected int stage;          // which stage this enemy is meant for (same as level)
     
     // ==================== COMBAT STATS ====================
     protected int currentHP;      // how much HP the enemy has right now
     protected int maxHP;          // maximum HP the enemy can have
     protected int attack;         // base attack power for damage calculations
     protected int defense;       
+    protected int speed;          // initiative: how often it acts (InitiativeQueue)
+    protected StatusEffects effects = new StatusEffects();   // poison, stun, buffs
     
     // ==================== ABILITIES ====================
-    protected ArrayList<String> abilities;  // list of moves this enemy can use
+    protected List<Move> abilities;  // this enemy type's move table (shared, unmodifiable)
+    protected int[] abilityWeights;  // AI weight per ability (shared with every enemy of the same kind)
+    protected int weightTotal;       // sum of abilityWeights
     
     // ==================== ANIMATION ====================
     protected AnimationManager animationManager;  // handles sprite animation
     
+    // ==================== LISTENERS ====================
+    private ArrayList<StatChangeListener> statListeners = new ArrayList<>();  // told when HP changes
+    
     /**
-     * @param enemyName - display name for the enemy
-     * @param enemyType - type string for asset loading
-     * @param stage - which stage (1-3) this enemy is for
+     * @param type - enemy type number in GameData (see create() and forStage())
      */
-    public Enemy(String enemyName, String enemyType, int stage) {
-        this.enemyName = enemyName;
-        this.enemyType = enemyType;
-        this.stage = stage;
-        this.level = stage;  // level matches stage
-        this.abilities = new ArrayList<>();  // initialize empty ability list
-        initializeStats();       // set up HP, attack, defense
-        initializeAnimations();  // load sprite animations
+    public Enemy(int type) {
+        GameData data = GameData.get();
+        this.type = type;
+        this.enemyName = data.enemyName[type];
+        this.enemyType = data.enemyAsset[type];
+        this.level = data.enemyLevel[type];
+        this.stage = level;
+        this.maxHP = data.enemyHP[type];
+        this.currentHP = maxHP;
+        this.attack = data.enemyAttack[type];
+        this.defense = data.enemyDefense[type];
+        this.speed = data.enemySpeed[type];
+        this.abilities = data.getEnemyMoves(type);
+        this.abilityWeights = data.enemyWeights[type];
+        this.weightTotal = data.enemyWeightTotal[type];
+        // Animations are loaded lazily by getAnimationManager(), so a headless
+        // simulation can create enemies without decoding any sprites
     }
     
     /**
-     * Enemy-specific stats.
+     * Create an enemy by name.
      * 
-     * Each subclass sets their own HP, attack, defense, and abilities
+     * @param name - an enemy name from the data file, like "Goblin"
+     * @return the enemy, or null if there's no such enemy
      */
-    protected abstract void initializeStats();
+    public static Enemy create(String name) {
+        int type = GameData.get().enemyIndexOf(name);
+        return type < 0 ? null : new Enemy(type);
+    }
     
     /**
-     * Initialize enemy animations.
-     * Each subclass loads their own sprite sheets from assets folder.
+     * Create the enemy fought on a stage (from the data file's stage lines).
+     * 
+     * @param stage - stage number, starting at 1
      */
-    protected abstract void initializeAnimations();
+    public static Enemy forStage(int stage) {
+        return new Enemy(GameData.get().enemyForStage(stage));
+    }
     
     /**
      * enemy action logic
+     * 
+     * Picks a random ability weighted by its AI weight, checking abilities
+     * in the order they're listed (e.g. Goblin: Quick Strike 40, Stab 30,
+     * Poison Dart 30 out of 100). Endless mode enemies can have a different
+     * mix of the same abilities (see EndlessMode).
+     * 
      * @param opponent - the player, so enemy can make decisions based on player state
-     * @return the name of the move the enemy will use
+     * @param rng - the session's random generator (so battles can be reproduced from a seed)
+     * @return the move the enemy will use (one of getAbilities())
      */
-    public abstract String decideAction(Player opponent);
+    public Move decideAction(Player opponent, CombatRandom rng) {
+        int roll = rng.nextInt(weightTotal);
+        for (int i = 0; i < abilities.size(); i++) {
+            roll -= abilityWeights[i];
+            if (roll < 0) return abilities.get(i);
+        }
+        return abilities.get(abilities.size() - 1);  // can't happen (weights add up to the total)
+    }
     
     /**
      * attack and return damage dealt
      * 
-     * @param moveName - which attack move to execute
+     * Every enemy move is just attack + the move's damage bonus (+ any
+     * attack_up effect), so this reads it straight from the move table.
+     * 
+     * @param move - which attack move to execute
      * @return the amount of damage to deal to the player
      */
-    public abstract int executeAttack(String moveName);
+    public int executeAttack(Move move) {
+        return attack + effects.getAttackBonus() + move.getDamageBonus();
+    }
     
     /**
      * Take damage from a player attack
@@ -83,7 +129,9 @@ public abstract class Enemy {
      * @param damage - amount of damage to take
      */
     public void takeDamage(int damage) {
+        int oldHP = this.currentHP;
         this.currentHP = Math.max(0, this.currentHP - damage);
+        if (this.currentHP != oldHP) fireStatsChanged();
     }
     
     /**
@@ -95,13 +143,43 @@ public abstract class Enemy {
      */
     public void heal(int amount) {
         // Clamp HP to maximum (can't overheal!)
+        int oldHP = this.currentHP;
         this.currentHP = Math.min(this.maxHP, this.currentHP + amount);
+        if (this.currentHP != oldHP) fireStatsChanged();
+    }
+    
+    /**
+     * Register a listener that gets called whenever this enemy's HP changes.
+     * 
+     * @param listener - the listener to add
+     */
+    public void addStatListener(StatChangeListener listener) {
+        statListeners.add(listener);
+    }
+    
+    /**
+     * Unregister a stat listener.
+     * 
+     * @param listener - the listener to remove
+     */
+    public void removeStatListener(StatChangeListener listener) {
+        statListeners.remove(listener);
+    }
+    
+    /**
+     * Tell every listener about the current HP (enemies have no mana, so 0/0).
+     */
+    protected void fireStatsChanged() {
+        for (StatChangeListener l : statListeners) {
+            l.statsChanged(currentHP, maxHP, 0, 0);
+        }
     }
     
     //  GETTERS 
     
     public String getEnemyName() { return enemyName; }
     public String getEnemyType() { return enemyType; }
+    public int getType() { return type; }
     
     public int getLevel() { return level; }
     public int getStage() { return stage; }
@@ -111,20 +189,30 @@ public abstract class Enemy {
     
     public int getAttack() { return attack; }
     public int getDefense() { return defense; }
+    public int getSpeed() { return speed; }
+    public StatusEffects getEffects() { return effects; }
     
-    public ArrayList<String> getAbilities() { return abilities; }
+    public List<Move> getAbilities() { return abilities; }
+    
+    /**
+     * @return AI weight per ability (shared array - don't modify it)
+     */
+    public int[] getAbilityWeights() { return abilityWeights; }
+    public int getWeightTotal() { return weightTotal; }
     
 
     public boolean isAlive() { return currentHP > 0; }
     
     /**
      * Get the animation manager, initializing if needed.
+     * The frames are the enemy type's shared AnimationSet (decoded once for
+     * every enemy of the type, endless mode ones included).
      * 
      * @return the AnimationManager for this enemy
      */
     public AnimationManager getAnimationManager() {
         if (animationManager == null) {
-            initializeAnimations();
+            animationManager = new AnimationManager(enemyType, AnimationSet.forEnemy(type));
         }
         return animationManager;
     }
@@ -0,0 +1,165 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.HashMap;
+import javax.swing.ImageIcon;
+
+/**
+ * FontManager.java - One place that hands out every font the game uses
+ *
+ * Before this, every screen did new Font("CASTELLAR", ...) dozens of times.
+ * CASTELLAR isn't installed on most Linux machines, so every single one of
+ * those had to go through Java's font fallback lookup again.
+ *
+ * Now:
+ * - Any .ttf/.otf files in assets/fonts are registered ONCE with
+ *   GraphicsEnvironment.registerFont (drop CASTELLAR.TTF in there to bundle it)
+ * - We check once whether each family exists, and pick a fallback if not
+ * - Sized/styled versions are derived from one base font and cached, so the
+ *   same Font object is shared by every label that uses it
+ * - Static text that never changes (titles, field labels) can be rendered
+ *   once into an image with textIcon() and reused
+ */
+public class FontManager {
+
+    // Families the game asks for
+    public static final String CASTELLAR = "CASTELLAR";
+    public static final String ARIAL = "Arial";
+
+    // Logical fonts that always exist, used when a family isn't installed
+    private static final String TITLE_FALLBACK = Font.SERIF;
+    private static final String TEXT_FALLBACK = Font.SANS_SERIF;
+
+    // ==================== CACHES ====================
+    private static HashMap<String, Font> baseFonts = new HashMap<>();        // family -> base font
+    private static HashMap<String, Font> derivedFonts = new HashMap<>();     // "family|style|size" -> font
+    private static HashMap<String, ImageIcon> textIcons = new HashMap<>();   // pre-rendered static text
+    private static String[] installedFamilies;                               // looked up once (it's slow)
+
+    /**
+     * Static block - register the bundled fonts and resolve the base fonts once.
+     */
+    static {
+        registerBundledFonts();
+        installedFamilies = GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames();
+        baseFonts.put(CASTELLAR, resolveBase(CASTELLAR, TITLE_FALLBACK));
+        baseFonts.put(ARIAL, resolveBase(ARIAL, TEXT_FALLBACK));
+    }
+
+    /**
+     * Get the CASTELLAR title font (or its fallback) at a style and size.
+     */
+    public static Font castellar(int style, int size) {
+        return get(CASTELLAR, style, size);
+    }
+
+    /**
+     * Get the Arial text font (or its fallback) at a style and size.
+     */
+    public static Font arial(int style, int size) {
+        return get(ARIAL, style, size);
+    }
+
+    /**
+     * Get a shared font instance.
+     *
+     * @param family - font family name
+     * @param style - Font.PLAIN, Font.BOLD, Font.ITALIC
+     * @param size - point size
+     * @return the cached font (the same object every time for the same arguments)
+     */
+    public static synchronized Font get(String family, int style, int size) {
+        String key = family + "|" + style + "|" + size;
+        Font font = derivedFonts.get(key);
+        if (font == null) {
+            Font base = baseFonts.get(family);
+            if (base == null) {
+                // Unknown family - resolve it once and remember it
+                base = resolveBase(family, TEXT_FALLBACK);
+                baseFonts.put(family, base);
+            }
+            font = base.deriveFont(style, (float) size);
+            derivedFonts.put(key, font);
+        }
+        return font;
+    }
+
+    /**
+     * Get an icon with static text already drawn on it.
+     *
+     * Good for titles and labels that never change: the text is laid out and
+     * drawn once, then every JLabel showing it just paints the image.
+     *
+     * @param text - the text
+     * @param font - font to draw with
+     * @param color - text color
+     * @return a cached ImageIcon
+     */
+    public static synchronized ImageIcon textIcon(String text, Font font, Color color) {
+        String key = text + "|" + font.getFamily() + "|" + font.getStyle() + "|" + font.getSize() + "|" + color.getRGB();
+        ImageIcon icon = textIcons.get(key);
+        if (icon == null) {
+            icon = new ImageIcon(renderText(text, font, color));
+            textIcons.put(key, icon);
+        }
+        return icon;
+    }
+
+    /**
+     * Draw a line of text into a transparent image exactly big enough for it.
+     */
+    public static BufferedImage renderText(String text, Font font, Color color) {
+        // Need a Graphics object just to measure the text
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D sg = scratch.createGraphics();
+        FontMetrics fm = sg.getFontMetrics(font);
+        sg.dispose();
+
+        BufferedImage img = new BufferedImage(Math.max(1, fm.stringWidth(text)), fm.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(font);
+        g.setColor(color);
+        g.drawString(text, 0, fm.getAscent());
+        g.dispose();
+        return img;
+    }
+
+    /**
+     * Register every font file in assets/fonts with the graphics environment.
+     */
+    private static void registerBundledFonts() {
+        File folder = new File(AssetManager.getAssetPath("fonts"));
+        File[] files = folder.listFiles((dir, name) -> {
+            String lower = name.toLowerCase();
+            return lower.endsWith(".ttf") || lower.endsWith(".otf");
+        });
+        if (files == null) return;  // no bundled fonts, use whatever is installed
+
+        GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
+        for (File file : files) {
+            try {
+                Font font = Font.createFont(Font.TRUETYPE_FONT, file);
+                ge.registerFont(font);
+                System.out.println("Registered font: " + font.getFamily());
+            } catch (Exception e) {
+                System.err.println("Failed to register font: " + file.getName());
+            }
+        }
+    }
+
+    /**
+     * Find out (once) whether a family is installed, otherwise use the fallback.
+     *
+     * @return a size-1 plain base font to derive the real sizes from
+     */
+    private static Font resolveBase(String family, String fallback) {
+        for (String name : installedFamilies) {
+            if (name.equalsIgnoreCase(family)) {
+                return new Font(name, Font.PLAIN, 1);
+            }
+        }
+        System.err.println("Font " + family + " not installed, using " + fallback);
+        return new Font(fallback, Font.PLAIN, 1);
+    }
+}
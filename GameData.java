@@ -0,0 +1,488 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * GameData.java - All class, enemy, move and stage definitions, loaded from data/definitions.txt
+ *
+ * Stats used to be hard-coded in every Player/Enemy subclass's initializeStats(),
+ * and a new enemy meant a new Java class plus new switch cases. Now the data file
+ * is read ONCE and "compiled" into flat arrays, one entry per class/enemy/move:
+ *
+ *   classHP[c], classAttack[c], ...      indexed by class number
+ *   enemyHP[e], enemyWeightTotal[e], ... indexed by enemy type number
+ *   moveCost[m], moveEffect[m], ...      indexed by move number (same order as moves[])
+ *
+ * A class's (or enemy's) moves are next to each other in moves[], starting at
+ * classMoveStart[c] (enemyMoveStart[e]), so simulations can loop over plain
+ * int arrays without touching any objects.
+ *
+ * The arrays are shared by everyone - read them, never write to them.
+ */
+public final class GameData {
+
+    // Where the definitions live (relative, like the saves/ and users/ folders)
+    public static final String DEFAULT_PATH = "data/definitions.txt";
+
+    // Enemies with no anim lines get these
+    private static final String[] DEFAULT_ENEMY_ANIMS = { "idle", "attack1", "attack2" };
+
+    // ==================== PLAYER CLASSES ====================
+    public final int classCount;
+    public final String[] className;
+    public final int[] classHP;
+    public final int[] classMana;
+    public final int[] classAttack;
+    public final int[] classDefense;
+    public final int[] classSpeed;         // initiative (InitiativeQueue): higher acts more often
+    public final int[] classMoveStart;     // first move of the class in moves[]
+    public final int[] classMoveCount;     // how many moves it has
+    public final String[][] classAnimNames;    // animation names (idle, rush, ...)
+    public final String[][] classAnimFolders;  // matching folders in the class's asset folder
+
+    // ==================== ENEMIES ====================
+    public final int enemyCount;
+    public final String[] enemyName;
+    public final String[] enemyAsset;      // asset folder name
+    public final int[] enemyLevel;
+    public final int[] enemyHP;
+    public final int[] enemyAttack;
+    public final int[] enemyDefense;
+    public final int[] enemySpeed;
+    public final int[] enemyMoveStart;
+    public final int[] enemyMoveCount;
+    public final int[] enemyWeightTotal;   // sum of the enemy's ability weights
+    public final int[][] enemyWeights;     // enemyWeights[e][a] = weight of ability a (shared, don't modify)
+    public final String[][] enemyAnimNames;
+    public final String[][] enemyAnimFolders;
+
+    // ==================== MOVES ====================
+    public final int moveCount;
+    public final Move[] moves;
+    public final int[] moveCost;      // mana cost (0 for enemy abilities)
+    public final int[] moveBonus;     // damage bonus on top of attack
+    public final int[] moveHeal;      // HP restored
+    public final int[] moveBlock;     // block value
+    public final int[] moveWeight;    // enemy AI weight (0 for player moves)
+    public final int[] moveEffect;    // StatusEffects effect the move causes, -1 for none
+    public final int[] moveEffectTurns;
+    public final int[] moveEffectPower;
+
+    // ==================== STAGES ====================
+    public final int stageCount;
+    public final int[] stageEnemy;    // stageEnemy[stage - 1] = enemy type number
+
+    // Name -> number lookups (only used when loading saves, building menus, etc.)
+    private final HashMap<String, Integer> classIndex = new HashMap<>();
+    private final HashMap<String, Integer> enemyIndex = new HashMap<>();
+
+    // Unmodifiable move lists per class, built once (Player hands these out)
+    private final List<List<Move>> classMoves = new ArrayList<>();
+    private final List<List<Move>> classAttackMoves = new ArrayList<>();
+    private final List<List<Move>> classDefenseMoves = new ArrayList<>();
+    private final List<List<Move>> enemyMoves = new ArrayList<>();
+
+    /**
+     * Loaded the first time anything asks for it (the JVM makes this thread-safe).
+     */
+    private static class Holder {
+        static final GameData INSTANCE = load(DEFAULT_PATH);
+    }
+
+    /**
+     * @return the game's definitions (loads data/definitions.txt on first call)
+     */
+    public static GameData get() {
+        return Holder.INSTANCE;
+    }
+
+    // ==================== LOADING ====================
+
+    /**
+     * One parsed record before everything is compiled into arrays.
+     */
+    private static class Def {
+        String name;
+        int[] stats;                                  // hp, mana, attack, defense, speed / level, hp, attack, defense, speed
+        String asset;
+        ArrayList<String[]> moves = new ArrayList<>();
+        ArrayList<String> animNames = new ArrayList<>();
+        ArrayList<String> animFolders = new ArrayList<>();
+        HashMap<String, String[]> effects = new HashMap<>();   // move name -> its effect line
+    }
+
+    /**
+     * Read and compile a definitions file.
+     *
+     * @param path - the file to read
+     * @return the compiled definitions
+     * @throws UncheckedIOException if the file can't be read
+     * @throws IllegalArgumentException if a line is malformed (message has the line number)
+     */
+    public static GameData load(String path) {
+        ArrayList<Def> classes = new ArrayList<>();
+        ArrayList<Def> enemies = new ArrayList<>();
+        HashMap<String, Def> owners = new HashMap<>();
+        ArrayList<String> stages = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                String[] cols = line.split("\\|");
+                for (int i = 0; i < cols.length; i++) cols[i] = cols[i].trim();
+
+                try {
+                    switch (cols[0]) {
+                        case "class":
+                        case "enemy": {
+                            boolean isClass = cols[0].equals("class");
+                            expect(cols, isClass ? 7 : 8);
+                            Def d = new Def();
+                            d.name = cols[1];
+                            d.asset = isClass ? cols[1] : cols[2];
+                            int first = isClass ? 2 : 3;
+                            d.stats = new int[5];
+                            for (int i = 0; i < 5; i++) d.stats[i] = Integer.parseInt(cols[first + i]);
+                            if (d.stats[4] < 1) {
+                                throw new IllegalArgumentException(d.name + ": speed must be at least 1");
+                            }
+                            if (owners.put(d.name, d) != null) {
+                                throw new IllegalArgumentException("duplicate name " + d.name);
+                            }
+                            (isClass ? classes : enemies).add(d);
+                            break;
+                        }
+                        case "move":
+                            expect(cols, 8);
+                            owner(owners, cols[1]).moves.add(cols);
+                            break;
+                        case "ability":
+                            expect(cols, 6);
+                            owner(owners, cols[1]).moves.add(cols);
+                            break;
+                        case "anim":
+                            expect(cols, 4);
+                            Def d = owner(owners, cols[1]);
+                            d.animNames.add(cols[2]);
+                            d.animFolders.add(cols[3]);
+                            break;
+                        case "effect": {
+                            expect(cols, 6);
+                            if (StatusEffects.fromName(cols[3]) < 0) {
+                                throw new IllegalArgumentException("unknown effect " + cols[3]);
+                            }
+                            if (Integer.parseInt(cols[4]) < 1 || Integer.parseInt(cols[5]) < 0) {
+                                throw new IllegalArgumentException("effect needs turns >= 1 and power >= 0");
+                            }
+                            if (owner(owners, cols[1]).effects.put(cols[2], cols) != null) {
+                                throw new IllegalArgumentException(cols[1] + " move " + cols[2] + " already has an effect");
+                            }
+                            break;
+                        }
+                        case "stage":
+                            expect(cols, 3);
+                            if (Integer.parseInt(cols[1]) != stages.size() + 1) {
+                                throw new IllegalArgumentException("stages must be numbered 1, 2, 3, ... in order");
+                            }
+                            stages.add(cols[2]);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("unknown record type " + cols[0]);
+                    }
+                } catch (IllegalArgumentException e) {
+                    // NumberFormatException is an IllegalArgumentException too
+                    throw new IllegalArgumentException(path + " line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read game definitions from " + path, e);
+        }
+
+        return new GameData(classes, enemies, stages);
+    }
+
+    private static void expect(String[] cols, int count) {
+        if (cols.length != count) {
+            throw new IllegalArgumentException(cols[0] + " needs " + count + " columns, found " + cols.length);
+        }
+    }
+
+    private static Def owner(HashMap<String, Def> owners, String name) {
+        Def d = owners.get(name);
+        if (d == null) {
+            throw new IllegalArgumentException("no class or enemy called " + name + " (define it first)");
+        }
+        return d;
+    }
+
+    /**
+     * Turn the parsed records into the flat arrays.
+     */
+    private GameData(ArrayList<Def> classes, ArrayList<Def> enemies, ArrayList<String> stages) {
+        classCount = classes.size();
+        enemyCount = enemies.size();
+        int totalMoves = 0;
+        for (Def d : classes) totalMoves += d.moves.size();
+        for (Def d : enemies) totalMoves += d.moves.size();
+        moveCount = totalMoves;
+
+        moves = new Move[moveCount];
+        moveCost = new int[moveCount];
+        moveBonus = new int[moveCount];
+        moveHeal = new int[moveCount];
+        moveBlock = new int[moveCount];
+        moveWeight = new int[moveCount];
+        moveEffect = new int[moveCount];
+        moveEffectTurns = new int[moveCount];
+        moveEffectPower = new int[moveCount];
+        int m = 0;  // next free move number
+
+        //  PLAYER CLASSES
+        className = new String[classCount];
+        classHP = new int[classCount];
+        classMana = new int[classCount];
+        classAttack = new int[classCount];
+        classDefense = new int[classCount];
+        classSpeed = new int[classCount];
+        classMoveStart = new int[classCount];
+        classMoveCount = new int[classCount];
+        classAnimNames = new String[classCount][];
+        classAnimFolders = new String[classCount][];
+
+        for (int c = 0; c < classCount; c++) {
+            Def d = classes.get(c);
+            className[c] = d.name;
+            classHP[c] = d.stats[0];
+            classMana[c] = d.stats[1];
+            classAttack[c] = d.stats[2];
+            classDefense[c] = d.stats[3];
+            classSpeed[c] = d.stats[4];
+            classAnimNames[c] = d.animNames.toArray(new String[0]);
+            classAnimFolders[c] = d.animFolders.toArray(new String[0]);
+            classIndex.put(d.name, c);
+
+            classMoveStart[c] = m;
+            classMoveCount[c] = d.moves.size();
+            ArrayList<Move> all = new ArrayList<>();
+            ArrayList<Move> attacks = new ArrayList<>();
+            ArrayList<Move> defenses = new ArrayList<>();
+            for (int slot = 0; slot < d.moves.size(); slot++, m++) {
+                // move | class | name | kind | mana | amount | animation | label
+                String[] cols = d.moves.get(slot);
+                int cost = Integer.parseInt(cols[4]);
+                int amount = Integer.parseInt(cols[5]);
+                int[] fx = effectOf(d, cols[2]);
+                if (fx[0] >= 0 && !cols[3].equals("attack")) {
+                    throw new IllegalArgumentException(d.name + " move " + cols[2] + ": only attacks can have an effect line");
+                }
+                Move move;
+                switch (cols[3]) {
+                    case "attack":
+                        move = Move.attack(slot, cols[2], cost, amount, cols[6], cols[7], fx[0], fx[1], fx[2]);
+                        moveBonus[m] = amount;
+                        break;
+                    case "heal":
+                        move = Move.heal(slot, cols[2], cost, amount, cols[6], cols[7]);
+                        moveHeal[m] = amount;
+                        break;
+                    case "block":
+                        move = Move.block(slot, cols[2], cost, amount, cols[6], cols[7]);
+                        moveBlock[m] = amount;
+                        break;
+                    default:
+                        throw new IllegalArgumentException(d.name + " move " + cols[2] + ": unknown kind " + cols[3]);
+                }
+                moves[m] = move;
+                moveCost[m] = cost;
+                setEffect(m, move);
+                all.add(move);
+                (move.isAttack() ? attacks : defenses).add(move);
+            }
+            classMoves.add(Collections.unmodifiableList(all));
+            classAttackMoves.add(Collections.unmodifiableList(attacks));
+            classDefenseMoves.add(Collections.unmodifiableList(defenses));
+        }
+
+        //  ENEMIES
+        enemyName = new String[enemyCount];
+        enemyAsset = new String[enemyCount];
+        enemyLevel = new int[enemyCount];
+        enemyHP = new int[enemyCount];
+        enemyAttack = new int[enemyCount];
+        enemyDefense = new int[enemyCount];
+        enemySpeed = new int[enemyCount];
+        enemyMoveStart = new int[enemyCount];
+        enemyMoveCount = new int[enemyCount];
+        enemyWeightTotal = new int[enemyCount];
+        enemyWeights = new int[enemyCount][];
+        enemyAnimNames = new String[enemyCount][];
+        enemyAnimFolders = new String[enemyCount][];
+
+        for (int e = 0; e < enemyCount; e++) {
+            Def d = enemies.get(e);
+            enemyName[e] = d.name;
+            enemyAsset[e] = d.asset;
+            enemyLevel[e] = d.stats[0];
+            enemyHP[e] = d.stats[1];
+            enemyAttack[e] = d.stats[2];
+            enemyDefense[e] = d.stats[3];
+            enemySpeed[e] = d.stats[4];
+            if (d.animNames.isEmpty()) {
+                enemyAnimNames[e] = DEFAULT_ENEMY_ANIMS;
+                enemyAnimFolders[e] = DEFAULT_ENEMY_ANIMS;
+            } else {
+                enemyAnimNames[e] = d.animNames.toArray(new String[0]);
+                enemyAnimFolders[e] = d.animFolders.toArray(new String[0]);
+            }
+            enemyIndex.put(d.name, e);
+
+            if (d.moves.isEmpty()) {
+                throw new IllegalArgumentException("enemy " + d.name + " has no abilities");
+            }
+            enemyMoveStart[e] = m;
+            enemyMoveCount[e] = d.moves.size();
+            enemyWeights[e] = new int[d.moves.size()];
+            ArrayList<Move> all = new ArrayList<>();
+            for (int slot = 0; slot < d.moves.size(); slot++, m++) {
+                // ability | enemy | name | damage bonus | weight | animation
+                String[] cols = d.moves.get(slot);
+                int bonus = Integer.parseInt(cols[3]);
+                int weight = Integer.parseInt(cols[4]);
+                if (weight < 0) {
+                    throw new IllegalArgumentException(d.name + " ability " + cols[2] + ": weight can't be negative");
+                }
+                int[] fx = effectOf(d, cols[2]);
+                moves[m] = Move.enemy(slot, cols[2], bonus, cols[5], fx[0], fx[1], fx[2]);
+                setEffect(m, moves[m]);
+                moveBonus[m] = bonus;
+                moveWeight[m] = weight;
+                enemyWeights[e][slot] = weight;
+                enemyWeightTotal[e] += weight;
+                all.add(moves[m]);
+            }
+            if (enemyWeightTotal[e] <= 0) {
+                throw new IllegalArgumentException("enemy " + d.name + " needs at least one ability with weight > 0");
+            }
+            enemyMoves.add(Collections.unmodifiableList(all));
+        }
+
+        for (Def d : classes) checkEffects(d);
+        for (Def d : enemies) checkEffects(d);
+
+        //  STAGES
+        stageCount = stages.size();
+        stageEnemy = new int[stageCount];
+        for (int s = 0; s < stageCount; s++) {
+            stageEnemy[s] = enemyIndexOf(stages.get(s));
+            if (stageEnemy[s] < 0) {
+                throw new IllegalArgumentException("stage " + (s + 1) + " uses unknown enemy " + stages.get(s));
+            }
+        }
+        if (stageCount == 0) {
+            throw new IllegalArgumentException("no stages defined");
+        }
+    }
+
+    /**
+     * A move's effect line as { effect, turns, power }, or { -1, 0, 0 } if it has none.
+     */
+    private static int[] effectOf(Def d, String moveName) {
+        // effect | owner | move | effect name | turns | power
+        String[] cols = d.effects.get(moveName);
+        if (cols == null) return new int[] { -1, 0, 0 };
+        return new int[] { StatusEffects.fromName(cols[3]), Integer.parseInt(cols[4]), Integer.parseInt(cols[5]) };
+    }
+
+    private void setEffect(int m, Move move) {
+        moveEffect[m] = move.getEffect();
+        moveEffectTurns[m] = move.getEffectTurns();
+        moveEffectPower[m] = move.getEffectPower();
+    }
+
+    /**
+     * Every effect line has to name one of its owner's moves.
+     */
+    private static void checkEffects(Def d) {
+        for (String moveName : d.effects.keySet()) {
+            boolean found = false;
+            for (String[] cols : d.moves) {
+                if (cols[2].equals(moveName)) found = true;
+            }
+            if (!found) {
+                throw new IllegalArgumentException("effect line for unknown move " + d.name + " " + moveName);
+            }
+        }
+    }
+
+    // ==================== LOOKUPS ====================
+
+    /**
+     * @return the class number for a class name, or -1 if there's no such class
+     */
+    public int classIndexOf(String name) {
+        Integer c = classIndex.get(name);
+        return c == null ? -1 : c;
+    }
+
+    /**
+     * @return the enemy type number for an enemy name, or -1 if there's no such enemy
+     */
+    public int enemyIndexOf(String name) {
+        Integer e = enemyIndex.get(name);
+        return e == null ? -1 : e;
+    }
+
+    /**
+     * Which enemy type is fought on a stage. Stages past the end of the
+     * table fall back to the first stage's enemy.
+     *
+     * @param stage - stage number, starting at 1
+     */
+    public int enemyForStage(int stage) {
+        return stage >= 1 && stage <= stageCount ? stageEnemy[stage - 1] : stageEnemy[0];
+    }
+
+    /**
+     * @return all of a class's moves in slot order (unmodifiable)
+     */
+    public List<Move> getClassMoves(int c) { return classMoves.get(c); }
+
+    /**
+     * @return a class's attack moves (unmodifiable)
+     */
+    public List<Move> getClassAttackMoves(int c) { return classAttackMoves.get(c); }
+
+    /**
+     * @return a class's heal/block moves (unmodifiable)
+     */
+    public List<Move> getClassDefenseMoves(int c) { return classDefenseMoves.get(c); }
+
+    /**
+     * @return an enemy type's abilities in slot order (unmodifiable)
+     */
+    public List<Move> getEnemyMoves(int e) { return enemyMoves.get(e); }
+
+    /**
+     * Find a class move by name, e.g. findClassMove("Barbarian", "Rush").
+     *
+     * @return the move, or null if the class or move doesn't exist
+     */
+    public Move findClassMove(String cls, String moveName) {
+        int c = classIndexOf(cls);
+        if (c < 0) return null;
+        for (Move move : classMoves.get(c)) {
+            if (move.getName().equals(moveName)) return move;
+        }
+        return null;
+    }
+}
@@ -1,20 +1,23 @@
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 
 /**
  * - Drawing the battle scene with animated sprites
- * - Displaying HP/Mana bars for player and enemy
+ * - Displaying HP/Mana bars for player and enemy (see BattleHUD)
  * - Combat action buttons (attacks, defenses)
  * - Battle log showing what's happening
- * - Turn-based combat flow
+ * - Turn-based combat flow (the rules themselves are in CombatEngine)
  * extends JPanel and uses paintComponent for custom rendering.
- * The animation is driven by a Timer that fires every 100ms.
+ * The animation is driven by a Timer that fires every 100ms; the same tick
+ * moves the turn along (TurnStateMachine), so there are no other Timers.
  */
-public class GameManager extends JPanel {
+public class GameManager extends JPanel implements CombatEngine.CombatListener, TurnStateMachine.Actions {
     
     // ==================== VISUALS ====================
     private BufferedImage backgroundFrame;    // background image 
@@ -22,27 +25,77 @@ public class GameManager extends JPanel {
     
     // ==================== GAME STATE ====================
     private GameSession session;              // contains player, enemy, and all game data
+    private CombatEngine engine;              // applies the combat rules, tells us what happened
     private JPanel actionPanel;               // panel containing combat action buttons
-    private boolean combatActive = true;      // flag to prevent button spam during animations
+    private TurnStateMachine turns;           // runs each turn's phases (and stops button spam)
+    private BattleLog battleLog;              // last LOG_CAPACITY lines of what happened
+    private boolean criticalPending;          // the hit about to be logged was a critical
+    private CombatEventBus.Subscription eventFeed;  // session events (level-ups), drained on the timer
+    
+    private MctsEnemyAI enemyAI;              // picks the enemy's moves on Hard (null on Normal)
+    private SolverTable.Matchup hintTable;    // solved table for this battle (null = no hints)
+    private JLabel hintLabel;                 // "Recommended: ..." under the buttons
+    private JButton rewindButton;             // takes back the last turn (null when watching a replay)
+    private ReplayRecorder recorder;          // records this battle (null when watching a replay)
+    
+    // ==================== REPLAY PLAYBACK ====================
+    private ReplayReader replay;              // the replay being watched (null in a normal battle)
+    private JPanel returnTo;                  // screen to go back to after watching
+    private boolean replayStopped;            // replay ran out (or doesn't fit this version)
+    
+    private static final double[] PLAYBACK_SPEEDS = { 0.5, 1, 2, 4, 8 };
+    
+    // Phase lengths for every battle (Earthbound --instant sets them all to 0)
+    private static TurnStateMachine.Timing turnTiming = TurnStateMachine.Timing.standard();
+    
+    private static final int LOG_CAPACITY = 200;  // older lines are dropped (a fight is rarely this long)
     
     // ==================== UI COMPONENTS ====================
-    // Progress bars for visual HP/Mana display
-    private JProgressBar playerHPBar, playerManaBar, enemyHPBar;
-    // Labels showing exact HP/Mana values
-    private JLabel playerHPLabel, playerManaLabel, enemyHPLabel;
+    // Custom-painted HP/Mana bars + numbers. They also listen for stat changes
+    // on the player/enemy (unhooked when the battle ends)
+    private BattleHUD playerHUD, enemyHUD;
     
     // ==================== ANIMATION ====================
     private Timer animationTimer;                           // fires every 100ms to update animations
     private AnimationManager playerAnimManager;             // handles player sprite animation
-    private AnimationManager enemyAnimManager;              // handles enemy sprite animation
+    private AnimationManager[] enemyAnimManagers;           // one per enemy (same type = same shared frames)
     private String currentPlayerAnimation = "idle";         // which animation the player is showing
-    private String currentEnemyAnimation = "idle";          // which animation the enemy is showing
+    private String[] enemyAnimations;                       // which animation each enemy is showing
+    private JLabel enemyNameLabel;                          // name of the enemy the HUD is showing
+    private Enemy hudEnemy;                                 // the enemy the HUD is showing (the player's target)
     
     /**
      * sets up the combat screen.
      */
     public GameManager(GameSession session) {
+        this(session, null, null);
+    }
+    
+    /**
+     * Watch a recorded battle instead of playing one.
+     * 
+     * @param replay - the replay to show
+     * @param returnTo - screen to go back to afterwards
+     * @throws IOException if the replay doesn't fit the current game data
+     */
+    public GameManager(ReplayReader replay, JPanel returnTo) throws IOException {
+        this(replay.createSession(), replay, returnTo);
+    }
+    
+    private GameManager(GameSession session, ReplayReader replay, JPanel returnTo) {
         this.session = session;
+        this.engine = new CombatEngine(session);
+        this.turns = new TurnStateMachine(engine, this, turnTiming);
+        this.replay = replay;
+        this.returnTo = replay != null ? returnTo : null;
+        engine.keepHistory(RewindHistory.DEFAULT_TURNS);  // for the rewind button (and rewinds in replays)
+        if (replay == null) {
+            if (session.getDifficulty() == 2) enemyAI = new MctsEnemyAI(MctsEnemyAI.DEFAULT_BUDGET_MS);
+            
+            // Record every turn (written to replays/ in the background)
+            recorder = new ReplayRecorder(engine, enemyAI != null, ReplayRecorder.newReplayFile(session));
+            engine.addListener(recorder);
+        }
         setLayout(null);      
         setOpaque(false);     
         
@@ -73,51 +126,28 @@ public class GameManager extends JPanel {
     }
     
     /**
-     * Initialize animation managers for player and enemy. loads the appropriate sprite sheets based on player class and enemy type.
+     * Get the animation managers for the player and every enemy.
+     * 
+     * Which folders to load comes from the anim lines in data/definitions.txt;
+     * the Player keeps its manager, so sprites aren't decoded again every stage.
+     * A swarm's enemies each have their own manager (own frame position) but
+     * all enemies of a type share one set of decoded frames (AnimationSet).
      */
     private void initializeAnimationManagers() {
-        Player player = session.getPlayer();
-        Enemy enemy = session.getCurrentEnemy();
-        
-        //  PLAYER ANIMATIONS 
-        String playerClass = player.getClassName();
-        playerAnimManager = new AnimationManager(playerClass);
-        String playerPath = AssetManager.getPlayerAssetPath(playerClass);
-        
-        // Load different animations based on which class the player chose
-        if (playerClass.equals("Barbarian")) {
-            playerAnimManager.loadAnimation("idle", playerPath + "/idle");
-            playerAnimManager.loadAnimation("attack", playerPath + "/attack");
-            playerAnimManager.loadAnimation("rush", playerPath + "/run meat");
-            
-        } else if (playerClass.equals("Archer")) {
-            playerAnimManager.loadAnimation("idle", playerPath + "/idle");
-            playerAnimManager.loadAnimation("shoot", playerPath + "/shoot");
-            playerAnimManager.loadAnimation("dodge", playerPath + "/dodge");
-            
-        } else if (playerClass.equals("Mage")) {
-            playerAnimManager.loadAnimation("idle", playerPath + "/idle");
-            playerAnimManager.loadAnimation("fireball", playerPath + "/attack1");
-            playerAnimManager.loadAnimation("lightning", playerPath + "/attack2");
+        playerAnimManager = session.getPlayer().getAnimationManager();
+        Enemy[] enemies = session.getEnemies();
+        enemyAnimManagers = new AnimationManager[enemies.length];
+        enemyAnimations = new String[enemies.length];
+        for (int i = 0; i < enemies.length; i++) {
+            enemyAnimManagers[i] = enemies[i].getAnimationManager();
+            enemyAnimations[i] = "idle";
         }
-        playerAnimManager.setFrameDelay(100);  // 10 FPS
-        
-        //  ENEMY ANIMATIONS 
-        String enemyType = enemy.getEnemyType();
-        enemyAnimManager = new AnimationManager(enemyType);
-        String enemyPath = AssetManager.getEnemyAssetPath(enemyType);
-        
-        // All enemies have idle, attack1, and attack2
-        enemyAnimManager.loadAnimation("idle", enemyPath + "/idle");
-        enemyAnimManager.loadAnimation("attack1", enemyPath + "/attack1");
-        enemyAnimManager.loadAnimation("attack2", enemyPath + "/attack2");
-        enemyAnimManager.setFrameDelay(100);  // 10 FPS
     }
     
     /**
      * - Labels for names and stats
      * - HP/Mana progress bars
-     * - Battle log text area
+     * - Battle log (ring buffer + virtualized view)
      * - Action buttons for combat
      * - Animation timer
      */
@@ -128,89 +158,50 @@ public class GameManager extends JPanel {
         //  HEADER INFO 
         // Shows difficulty and current stage at top of screen
         JLabel diffLabel = new JLabel("Difficulty: " + (session.getDifficulty() == 1 ? "NORMAL" : "HARD") + " | Stage: " + session.getStage());
-        diffLabel.setFont(new Font("CASTELLAR", Font.BOLD, 16));
+        diffLabel.setFont(FontManager.castellar(Font.BOLD, 16));
         diffLabel.setForeground(new Color(218, 165, 32));  // gold color
         diffLabel.setBounds(120, 75, 350, 25);
         add(diffLabel);
         
         //  PLAYER NAME 
         JLabel playerName = new JLabel(player.getCharacterName() + " (" + player.getClassName() + ")");
-        playerName.setFont(new Font("Arial", Font.BOLD, 14));
+        playerName.setFont(FontManager.arial(Font.BOLD, 14));
         playerName.setForeground(Color.WHITE);
         playerName.setBounds(120, 100, 200, 20);
         add(playerName);
         
         //  ENEMY NAME 
-        JLabel enemyName = new JLabel(enemy.getEnemyName());
-        enemyName.setFont(new Font("Arial", Font.BOLD, 14));
-        enemyName.setForeground(new Color(255, 100, 100));  // red for enemy
-        enemyName.setBounds(650, 100, 200, 20);
-        add(enemyName);
-        
-        //  PLAYER HP BAR 
-        playerHPLabel = new JLabel("HP: " + player.getCurrentHP() + "/" + player.getMaxHP());
-        playerHPLabel.setFont(new Font("Arial", Font.PLAIN, 11));
-        playerHPLabel.setForeground(Color.WHITE);
-        playerHPLabel.setBounds(120, 280, 150, 15);
-        add(playerHPLabel);
-        
-        playerHPBar = new JProgressBar(0, player.getMaxHP());
-        playerHPBar.setValue(player.getCurrentHP());
-        playerHPBar.setBounds(120, 295, 150, 12);
-        playerHPBar.setForeground(Color.GREEN);  // green for health
-        add(playerHPBar);
-        
-        //  PLAYER MANA BAR 
-        playerManaLabel = new JLabel("Mana: " + player.getCurrentMana() + "/" + player.getMaxMana());
-        playerManaLabel.setFont(new Font("Arial", Font.PLAIN, 11));
-        playerManaLabel.setForeground(Color.WHITE);
-        playerManaLabel.setBounds(120, 310, 150, 15);
-        add(playerManaLabel);
-        
-        playerManaBar = new JProgressBar(0, player.getMaxMana());
-        playerManaBar.setValue(player.getCurrentMana());
-        playerManaBar.setBounds(120, 325, 150, 12);
-        playerManaBar.setForeground(new Color(100, 150, 255));  // blue for mana
-        add(playerManaBar);
-        
-        //  PLAYER STATS 
-        JLabel pStats = new JLabel("ATK: " + player.getAttack() + " | DEF: " + player.getDefense());
-        pStats.setFont(new Font("Arial", Font.PLAIN, 10));
-        pStats.setForeground(Color.LIGHT_GRAY);
-        pStats.setBounds(120, 340, 150, 15);
-        add(pStats);
-        
-        //  ENEMY HP BAR 
-        enemyHPLabel = new JLabel("HP: " + enemy.getCurrentHP() + "/" + enemy.getMaxHP());
-        enemyHPLabel.setFont(new Font("Arial", Font.PLAIN, 11));
-        enemyHPLabel.setForeground(Color.WHITE);
-        enemyHPLabel.setBounds(650, 280, 150, 15);
-        add(enemyHPLabel);
-        
-        enemyHPBar = new JProgressBar(0, enemy.getMaxHP());
-        enemyHPBar.setValue(enemy.getCurrentHP());
-        enemyHPBar.setBounds(650, 295, 150, 12);
-        enemyHPBar.setForeground(new Color(200, 50, 50));  // red for enemy
-        add(enemyHPBar);
-        
-        //  ENEMY STATS 
-        JLabel eStats = new JLabel("ATK: " + enemy.getAttack() + " | DEF: " + enemy.getDefense());
-        eStats.setFont(new Font("Arial", Font.PLAIN, 10));
-        eStats.setForeground(Color.LIGHT_GRAY);
-        eStats.setBounds(650, 310, 150, 15);
-        add(eStats);
+        enemyNameLabel = new JLabel(enemy.getEnemyName());
+        enemyNameLabel.setFont(FontManager.arial(Font.BOLD, 14));
+        enemyNameLabel.setForeground(new Color(255, 100, 100));  // red for enemy
+        enemyNameLabel.setBounds(650, 100, 250, 20);
+        add(enemyNameLabel);
+        
+        //  PLAYER HUD 
+        // HP bar, mana bar and ATK/DEF, all custom-painted by one component
+        playerHUD = new BattleHUD(true, Color.GREEN);  // green for health
+        playerHUD.setStats(player.getCurrentHP(), player.getMaxHP(), player.getCurrentMana(), player.getMaxMana());
+        playerHUD.setCombatStats(player.getAttack(), player.getEffects().getAttackBonus(), player.getDefense());
+        playerHUD.setBounds(120, 280, BattleHUD.WIDTH, playerHUD.getPreferredHeight());
+        add(playerHUD);
+        
+        //  ENEMY HUD 
+        enemyHUD = new BattleHUD(false, new Color(200, 50, 50));  // red for enemy
+        enemyHUD.setStats(enemy.getCurrentHP(), enemy.getMaxHP(), 0, 0);
+        enemyHUD.setCombatStats(enemy.getAttack(), enemy.getEffects().getAttackBonus(), enemy.getDefense());
+        enemyHUD.setBounds(650, 280, BattleHUD.WIDTH, enemyHUD.getPreferredHeight());
+        add(enemyHUD);
         
         //  BATTLE LOG 
-        JTextArea logArea = new JTextArea();
-        logArea.setFont(new Font("Arial", Font.PLAIN, 12));
-        logArea.setForeground(Color.WHITE);
-        logArea.setBackground(new Color(50, 50, 50));  // dark gray background
-        logArea.setEditable(false);  // player can't type in it
-        logArea.setLineWrap(true);   // wrap long lines
-        logArea.setText("Battle started!\n" + enemy.getEnemyName() + " appears!\n");
+        // Ring buffer of the last LOG_CAPACITY lines, drawn by a view that only paints visible lines
+        battleLog = new BattleLog(LOG_CAPACITY);
+        battleLog.add(BattleLog.EntryType.INFO, "Battle started!");
+        for (Enemy e : session.getEnemies()) {
+            battleLog.add(BattleLog.EntryType.INFO, e.getEnemyName() + " appears!");
+        }
         
         // Wrap in scroll pane so player can scroll back through log
-        JScrollPane logScroll = new JScrollPane(logArea);
+        JScrollPane logScroll = new JScrollPane(new BattleLogView(battleLog));
         logScroll.setBounds(120, 380, 760, 140);
         logScroll.setBorder(BorderFactory.createLineBorder(Color.GRAY));
         add(logScroll);
@@ -221,11 +212,11 @@ public class GameManager extends JPanel {
         actionPanel.setBounds(120, 530, 760, 150);
         actionPanel.setBorder(BorderFactory.createTitledBorder(
             BorderFactory.createLineBorder(Color.GRAY), "Combat Actions", 0, 0, 
-            new Font("Arial", Font.BOLD, 12), Color.WHITE));
+            FontManager.arial(Font.BOLD, 12), Color.WHITE));
         
         // Get the player's available moves
-        ArrayList<String> attacks = player.getAttackMoves();
-        ArrayList<String> defenses = player.getDefenseMoves();
+        List<Move> attacks = player.getAttackMoves();
+        List<Move> defenses = player.getDefenseMoves();
         
         // Button dimensions and positioning
         int btnW = 170, btnH = 80;  // button size
@@ -234,215 +225,446 @@ public class GameManager extends JPanel {
         int idx = 0;                // button index for positioning
         
         // Create attack buttons (red-ish color)
-        for (String m : attacks) {
-            JButton b = newButton(player.getActionLabel(m, true), new Color(200, 100, 100));
+        for (Move m : attacks) {
+            CombatButton b = new CombatButton(m.getLabel(), new Color(200, 100, 100));
             b.setBounds(x + idx * gap, y, btnW, btnH);
-            // Lambda captures the move name and passes to handler
-            b.addActionListener(e -> handleAction(m, true, logArea));
+            // Lambda captures the move and passes it to the handler
+            b.addActionListener(e -> handleAction(m));
             actionPanel.add(b);
             idx++;
         }
         
         // Create defense buttons (blue-ish color)
-        for (String m : defenses) {
-            JButton b = newButton(player.getActionLabel(m, false), new Color(100, 150, 200));
+        for (Move m : defenses) {
+            CombatButton b = new CombatButton(m.getLabel(), new Color(100, 150, 200));
             b.setBounds(x + idx * gap, y, btnW, btnH);
-            b.addActionListener(e -> handleAction(m, false, logArea));
+            b.addActionListener(e -> handleAction(m));
             actionPanel.add(b);
             idx++;
         }
+        
+        if (replay != null) {
+            // Watching: the move buttons are just for show, speed buttons go underneath
+            for (Component c : actionPanel.getComponents()) c.setEnabled(false);
+            addPlaybackControls();
+        }
+        
+        // Recommended move from CombatSolver's table (only if data/solver.bin exists)
+        hintLabel = new JLabel();
+        hintLabel.setFont(FontManager.arial(Font.ITALIC, 12));
+        hintLabel.setForeground(new Color(218, 165, 32));
+        hintLabel.setBounds(15, 115, replay == null ? 620 : 730, 25);
+        actionPanel.add(hintLabel);
+        
+        // Rewind: back to the start of the last turn (enabled once there is one)
+        if (replay == null) {
+            rewindButton = new JButton("REWIND");
+            rewindButton.setFont(FontManager.arial(Font.BOLD, 11));
+            rewindButton.setFocusPainted(false);
+            rewindButton.setBounds(645, 115, 100, 25);
+            rewindButton.setEnabled(false);
+            rewindButton.addActionListener(e -> rewindTurn());
+            actionPanel.add(rewindButton);
+        }
+        SolverTable solved = SolverTable.getDefault();
+        if (solved != null && replay == null && session.getEnemies().length == 1) hintTable = solved.find(player, enemy);
+        updateHint();
         add(actionPanel);
         
+        //  STAT LISTENERS 
+        // The HUDs only update when Player/Enemy report a real change
+        player.addStatListener(playerHUD);
+        followTarget();
+        
+        // Battle log + animations follow what the engine reports
+        engine.addListener(this);
+        eventFeed = session.getEvents().subscribe();
+        
         //  ANIMATION TIMER 
-        //  every 100ms to update HP bars and repaint sprites
-        animationTimer = new Timer(100, e -> { updateBars(); repaint(); });
+        //  every 100ms: move the turn along, catch up on events, then repaint sprites
+        animationTimer = new Timer(100, e -> {
+            turns.update(System.currentTimeMillis());
+            if (replay != null) feedReplay();
+            eventFeed.drain(this::onCombatEvent);
+            repaint();
+        });
         animationTimer.start();
     }
     
     /**
-     * @param text - the button label text
-     * @param bg - background color (red for attack, blue for defense)
-     * @return the styled JButton
+     * Change the phase lengths for battles started from now on.
+     * 
+     * @param timing - e.g. TurnStateMachine.Timing.instant() for no delays at all
      */
-    private JButton newButton(String text, Color bg) {
-        JButton b = new JButton("<html><center>" + text.toUpperCase() + "</center></html>");
-        b.setFont(new Font("CASTELLAR", Font.BOLD, 11));
-        b.setBackground(bg);
-        b.setForeground(Color.WHITE);
-        b.setFocusPainted(false);                        
-        b.setCursor(new Cursor(Cursor.HAND_CURSOR));    
-        return b;
+    public static void setTurnTiming(TurnStateMachine.Timing timing) {
+        turnTiming = timing;
     }
     
     /**
-     * Sets combatActive = false to prevent spam clicking during animations.
-     * Disables all buttons until the turn is complete.
+     * Start a turn with the chosen move.
+     * The state machine ignores clicks while a turn is running;
+     * the buttons are disabled until it's the player's turn again.
      * 
-     * @param action - which move was selected
-     * @param isAttack - true for attack moves, false for defense moves
-     * @param log - the battle log text area to update
+     * @param move - which move was selected
      */
-    private void handleAction(String action, boolean isAttack, JTextArea log) {
-        if (!combatActive) return;  
-        combatActive = false;       
+    private void handleAction(Move move) {
+        if (!turns.isIdle()) return;
         
         // Disable all buttons during turn execution
         for (Component c : actionPanel.getComponents()) c.setEnabled(false);
         
-        // Execute the turn
-        executeTurn(action, isAttack, log);
+        turns.playerInput(move, System.currentTimeMillis());
+    }
+    
+    // ==================== TURN PHASES ====================
+    // TurnStateMachine calls these as the turn moves along; the rules are in CombatEngine
+    
+    @Override
+    public void playerAnimation(Move move) {
+        triggerPlayerAnimation(move);
+    }
+    
+    @Override
+    public void playerMove(Move move) {
+        engine.playerTurn(move);
+        followTarget();
+    }
+    
+    @Override
+    public void playerIdle() {
+        currentPlayerAnimation = "idle";
     }
     
     /**
-     * Execute a full combat turn (player action, then enemy action).
-     *
-     * 1. Player uses their action
-     * 2. Check if enemy died → victory
-     * 3. Wait 1 second for animation
-     * 4. Enemy takes their turn
-     * 5. Check if player died → defeat
-     * 6. Re-enable buttons for next turn
-     * 
-     * Uses Timer objects for delays so animations can play.
-     * 
-     * @param action - the move the player chose
-     * @param isAttack - true for attack, false for defense
-     * @param log - battle log to update
+     * On Hard, the enemy's search runs on the worker pool during ENEMY_THINK
+     * instead of blocking the Swing thread. Replays just use the recorded move.
+     */
+    @Override
+    public CompletableFuture<Move> enemyThink() {
+        if (replay != null) return CompletableFuture.completedFuture(nextReplayMove(ReplayRecorder.EVENT_ENEMY));
+        if (enemyAI != null) return enemyAI.decideAsync(session.getPlayer(), engine.getNextEnemy());
+        return null;
+    }
+    
+    @Override
+    public void enemyMove(Move move) {
+        if (move == null) {
+            engine.enemyTurn();  // roll for it
+            return;
+        }
+        engine.enemyTurn(move);
+    }
+    
+    @Override
+    public void enemyIdle() {
+        for (int i = 0; i < enemyAnimations.length; i++) enemyAnimations[i] = "idle";
+        followTarget();
+    }
+    
+    /**
+     * Point the enemy HUD at the player's current target (the first enemy
+     * still standing) - it changes when a swarm enemy goes down - and refresh
+     * both ATK/DEF lines.
      */
-    private void executeTurn(String action, boolean isAttack, JTextArea log) {
+    private void followTarget() {
+        Enemy target = session.getCurrentEnemy();
+        int left = 0;
+        for (Enemy e : session.getEnemies()) {
+            if (e.isAlive()) left++;
+        }
+        enemyNameLabel.setText(target.getEnemyName() + (left > 1 ? "  (+" + (left - 1) + " more)" : ""));
+        if (target != hudEnemy) {
+            if (hudEnemy != null) hudEnemy.removeStatListener(enemyHUD);
+            hudEnemy = target;
+            hudEnemy.addStatListener(enemyHUD);
+            enemyHUD.setStats(target.getCurrentHP(), target.getMaxHP(), 0, 0);
+        }
+        updateCombatStats();
+    }
+    
+    /**
+     * Refresh both ATK/DEF lines (attack_up comes and goes during a turn).
+     * The HUDs only redraw them if a number changed.
+     */
+    private void updateCombatStats() {
+        Player player = session.getPlayer();
+        playerHUD.setCombatStats(player.getAttack(), player.getEffects().getAttackBonus(), player.getDefense());
+        enemyHUD.setCombatStats(hudEnemy.getAttack(), hudEnemy.getEffects().getAttackBonus(), hudEnemy.getDefense());
+    }
+    
+    @Override
+    public void readyForInput() {
+        if (replay != null) return;  // the replay picks the moves
+        for (Component c : actionPanel.getComponents()) c.setEnabled(true);
+        rewindButton.setEnabled(engine.canRewind());
+        updateHint();
+    }
+    
+    /**
+     * Take back the last turn. Only between turns - the engine reports it
+     * with rewound(), which puts the screen back in order.
+     */
+    private void rewindTurn() {
+        if (!turns.isIdle()) return;
+        engine.rewind();
+    }
+    
+    @Override
+    public void battleOver() {
+        endBattle();
+    }
+    
+    /**
+     * Show the solver's best move for the current state (one table lookup).
+     */
+    private void updateHint() {
+        if (hintTable == null) return;
         Player player = session.getPlayer();
         Enemy enemy = session.getCurrentEnemy();
-        
-        // Trigger player's animation based on their action
-        triggerPlayerAnimation(action);
-        
-        // Execute the move and get damage/block value
-        int dmg = isAttack ? player.executeAttack(action) : player.executeDefense(action);
-        log.append("You used " + action + "!\n");
-        
-        // If damage was dealt, apply it to enemy
-        if (dmg > 0) {
-            enemy.takeDamage(dmg);
-            log.append(enemy.getEnemyName() + " took " + dmg + " damage!\n");
-            session.addRoundsDamageDealt(dmg);  // track for stats
+        Move best = hintTable.bestMove(player, enemy);
+        if (best == null) {
+            hintLabel.setText("");
+            return;
         }
-        
-        // Check for victory
-        if (!enemy.isAlive()) {
-            log.append("\nVictory! " + enemy.getEnemyName() + " defeated!\n");
-            
-            // Calculate XP reward (increases by 50% per stage)
-            long exp = (long)(100 * Math.pow(1.5, session.getStage() - 1));
-            player.addExperience(exp);
-            session.addRoundsExperienceGained(exp);
-            
-            // Wait 1 second then go to BetweenGameMenu
-            Timer t = new Timer(1000, e -> parentFrame.switchPanel(new BetweenGameMenu(session)));
-            t.setRepeats(false);
-            t.start();
-            return;  
+        int percent = (int) Math.round(hintTable.winChance(player, enemy) * 100);
+        hintLabel.setText("Recommended: " + best.getName() + " (" + percent + "% to win with best play)");
+    }
+    
+    // ==================== COMBAT EVENTS ====================
+    // CombatEngine calls these; they only update the log and animations
+    
+    @Override
+    public void playerActed(Move move, int damage) {
+        Enemy enemy = engine.getTarget();
+        battleLog.add(BattleLog.EntryType.PLAYER, "You used " + move.getName() + "!");
+        if (criticalPending) {
+            battleLog.add(BattleLog.EntryType.PLAYER, "Critical hit!");
+            criticalPending = false;
         }
-        
-        //  ENEMY TURN (after 1 second delay) 
-        Timer t = new Timer(1000, e -> {
-            // Enemy chooses an action
-            String eAction = enemy.decideAction(player);
-            triggerEnemyAnimation(eAction, enemy);
-            
-            // Enemy deals damage
-            int eDmg = enemy.executeAttack(eAction);
-            log.append(enemy.getEnemyName() + " used " + eAction + "!\n");
-            log.append("You took " + eDmg + " damage!\n\n");
-            player.takeDamage(eDmg);
-            session.addRoundsDamageTaken(eDmg);  // track for stats
-            
-            // Check for defeat!
-            if (!player.isAlive()) {
-                log.append("\nDefeat! You have been knocked out!\n");
-                Timer t2 = new Timer(1000, ev -> parentFrame.switchPanel(new BetweenGameMenu(session)));
-                t2.setRepeats(false);
-                t2.start();
-                return;
+        if (damage > 0) {
+            battleLog.add(BattleLog.EntryType.PLAYER, enemy.getEnemyName() + " took " + damage + " damage!");
+        }
+        if (move.hasEffect()) {
+            boolean onSelf = StatusEffects.targetsSelf(move.getEffect());
+            StatusEffects target = onSelf ? session.getPlayer().getEffects() : enemy.getEffects();
+            if (target.has(move.getEffect())) {
+                battleLog.add(BattleLog.EntryType.PLAYER, effectMessage(onSelf ? null : enemy.getEnemyName(), move.getEffect()));
             }
-            
-            // Re-enable combat for next turn
-            combatActive = true;
-            for (Component c : actionPanel.getComponents()) c.setEnabled(true);
-        });
-        t.setRepeats(false);
-        t.start();
+        }
+    }
+    
+    @Override
+    public void enemyActed(Move move, int damage) {
+        Enemy enemy = engine.getActingEnemy();
+        triggerEnemyAnimation(move);
+        battleLog.add(BattleLog.EntryType.ENEMY, enemy.getEnemyName() + " used " + move.getName() + "!");
+        if (criticalPending) {
+            battleLog.add(BattleLog.EntryType.ENEMY, "Critical hit!");
+            criticalPending = false;
+        }
+        battleLog.add(BattleLog.EntryType.ENEMY, "You took " + damage + " damage!");
+        if (move.hasEffect()) {
+            boolean onSelf = StatusEffects.targetsSelf(move.getEffect());
+            battleLog.add(BattleLog.EntryType.ENEMY, effectMessage(onSelf ? enemy.getEnemyName() : null, move.getEffect()));
+        }
+        battleLog.addBlank();
+    }
+    
+    @Override
+    public void criticalHit(boolean player) {
+        criticalPending = true;  // logged with the hit in playerActed / enemyActed
+    }
+    
+    @Override
+    public void stunned(boolean player, Move move) {
+        if (player) {
+            battleLog.add(BattleLog.EntryType.PLAYER, "You are stunned and can't move!");
+        } else {
+            battleLog.add(BattleLog.EntryType.ENEMY, engine.getActingEnemy().getEnemyName() + " is stunned and can't move!");
+            battleLog.addBlank();
+        }
+    }
+    
+    @Override
+    public void effectDamage(boolean player, int effect, int damage) {
+        String who = player ? "You" : engine.getActingEnemy().getEnemyName();
+        battleLog.add(player ? BattleLog.EntryType.ENEMY : BattleLog.EntryType.PLAYER,
+                who + " took " + damage + " " + StatusEffects.NAMES[effect] + " damage!");
     }
     
     /**
-     * Trigger the appropriate player animation based on their action.
-     * 
-     * Maps action names to animation names for each class.
-     * Animation plays for 600ms then reverts to idle.
+     * Battle log line for an effect landing, e.g. "Goblin is stunned!"
      * 
-     * @param action - the name of the move used
+     * @param name - who it landed on, or null for the player
      */
-    private void triggerPlayerAnimation(String action) {
-        String cls = session.getPlayer().getClassName();
-        
-        // Map actions to animations based on class
-        if (cls.equals("Barbarian")) {
-            currentPlayerAnimation = action.equals("Rush") ? "rush" : action.equals("Punch") ? "attack" : "idle";
-        } else if (cls.equals("Archer")) {
-            currentPlayerAnimation = action.equals("Bow") ? "shoot" : action.equals("Dodge") ? "dodge" : "idle";
-        } else if (cls.equals("Mage")) {
-            currentPlayerAnimation = action.equals("Fireball") ? "fireball" : action.equals("Lightning") ? "lightning" : "idle";
+    private static String effectMessage(String name, int effect) {
+        switch (effect) {
+            case StatusEffects.POISON:    return (name == null ? "You are" : name + " is") + " poisoned!";
+            case StatusEffects.BLOCK:     return (name == null ? "You are" : name + " is") + " ready to block!";
+            case StatusEffects.STUN:      return (name == null ? "You are" : name + " is") + " stunned!";
+            default:                      return (name == null ? "Your" : name + "'s") + " attack rose!";
         }
-        
+    }
+    
+    @Override
+    public void victory(long expGained) {
+        battleLog.addBlank();
+        Enemy[] enemies = session.getEnemies();
+        battleLog.add(BattleLog.EntryType.RESULT, "Victory! "
+                + (enemies.length == 1 ? enemies[0].getEnemyName() : "All " + enemies.length + " enemies") + " defeated!");
+        // The RESOLUTION phase keeps this on screen, then battleOver() leaves
+    }
+    
+    @Override
+    public void defeat() {
+        battleLog.addBlank();
+        battleLog.add(BattleLog.EntryType.RESULT, "Defeat! You have been knocked out!");
+    }
+    
+    @Override
+    public void rewound(int turn) {
+        battleLog.addBlank();
+        battleLog.add(BattleLog.EntryType.INFO, "Rewound to turn " + (turn + 1) + "!");
+        criticalPending = false;
+        currentPlayerAnimation = "idle";
+        for (int i = 0; i < enemyAnimations.length; i++) enemyAnimations[i] = "idle";
+        followTarget();  // a swarm enemy may be back on its feet
+        if (rewindButton != null) rewindButton.setEnabled(engine.canRewind());
+        updateHint();
+    }
+    
+    /**
+     * Session events the move-by-move listener calls don't cover
+     * (drained in a batch on the animation timer).
+     */
+    private void onCombatEvent(CombatEventBus.Type type, boolean player, long amount, boolean endOfBatch) {
+        if (type == CombatEventBus.Type.LEVEL_UP) {
+            battleLog.add(BattleLog.EntryType.RESULT, "Level up! You are now level " + amount + "!");
+        }
+    }
+    
+    /**
+     * Trigger the player's animation for a move.
+     * 
+     * Each move already knows its animation name (from the class's move table).
+     * Plays until the ENEMY_THINK phase switches back to idle.
+     * 
+     * @param move - the move used
+     */
+    private void triggerPlayerAnimation(Move move) {
+        currentPlayerAnimation = move.getAnimationKey();
         playerAnimManager.resetAnimation();  // start from frame 0
-        
-        // After 600ms, go back to idle animation
-        Timer t = new Timer(600, e -> currentPlayerAnimation = "idle");
-        t.setRepeats(false);
-        t.start();
     }
     
     /**
-     * Trigger the enemy's attack animation.
+     * Trigger the acting enemy's attack animation.
      * 
-     * Uses attack1 for the first ability, attack2 for others.
-     * Animation plays for 600ms then reverts to idle.
+     * The move's animation key is attack1 for the first ability, attack2 for others.
+     * Plays until the end of the ENEMY_ANIM phase.
      * 
-     * @param action - the name of the enemy's move
-     * @param enemy - the enemy object
+     * @param move - the enemy's move
      */
-    private void triggerEnemyAnimation(String action, Enemy enemy) {
-        // Check which ability slot this action is in
-        int idx = enemy.getAbilities().indexOf(action);
-        // Use attack1 for first ability (or if not found), attack2 for second+
-        currentEnemyAnimation = idx <= 0 ? "attack1" : "attack2";
-        
-        enemyAnimManager.resetAnimation();  // start from frame 0
-        
-        // After 600ms, go back to idle
-        Timer t = new Timer(600, e -> currentEnemyAnimation = "idle");
-        t.setRepeats(false);
-        t.start();
+    private void triggerEnemyAnimation(Move move) {
+        Enemy[] enemies = session.getEnemies();
+        for (int i = 0; i < enemies.length; i++) {
+            if (enemies[i] != engine.getActingEnemy()) continue;
+            enemyAnimations[i] = move.getAnimationKey();
+            enemyAnimManagers[i].resetAnimation();  // start from frame 0
+        }
     }
     
     /**
-     * Update the HP and Mana bar displays.
+     * Leave the battle and go to the results screen.
      * 
-     * Called every 100ms by the animation timer.
-     * Updates both the progress bar values and the text labels.
+     * Stops the animation timer and unhooks the stat listeners first,
+     * because the Player object is reused for the next stage.
+     * After a replay, goes back to the screen it was started from instead.
      */
-    private void updateBars() {
-        Player p = session.getPlayer();
-        Enemy e = session.getCurrentEnemy();
-        
-        // Update player bars
-        playerHPBar.setValue(p.getCurrentHP());
-        playerHPLabel.setText("HP: " + p.getCurrentHP() + "/" + p.getMaxHP());
-        playerManaBar.setValue(p.getCurrentMana());
-        playerManaLabel.setText("Mana: " + p.getCurrentMana() + "/" + p.getMaxMana());
-        
-        // Update enemy bar
-        enemyHPBar.setValue(e.getCurrentHP());
-        enemyHPLabel.setText("HP: " + e.getCurrentHP() + "/" + e.getMaxHP());
+    private void endBattle() {
+        animationTimer.stop();
+        session.getPlayer().removeStatListener(playerHUD);
+        hudEnemy.removeStatListener(enemyHUD);
+        if (replay != null) {
+            parentFrame.switchPanel(returnTo);
+            return;
+        }
+        session.setLastReplay(recorder.close());
+        parentFrame.switchPanel(new BetweenGameMenu(session));
+    }
+    
+    // ==================== REPLAY PLAYBACK ====================
+    
+    /**
+     * Speed buttons (and a way out) under the move buttons.
+     * The speed just scales the turn phases; MAX makes them instant.
+     */
+    private void addPlaybackControls() {
+        int x = 15;
+        for (double speed : PLAYBACK_SPEEDS) {
+            JButton b = new JButton((speed == (int) speed ? String.valueOf((int) speed) : String.valueOf(speed)) + "x");
+            b.setFont(FontManager.arial(Font.BOLD, 11));
+            b.setFocusPainted(false);
+            b.setBounds(x, 115, 60, 25);
+            b.addActionListener(e -> turns.setTiming(turnTiming.scaled(speed)));
+            actionPanel.add(b);
+            x += 65;
+        }
+        JButton max = new JButton("MAX");
+        max.setFont(FontManager.arial(Font.BOLD, 11));
+        max.setFocusPainted(false);
+        max.setBounds(x, 115, 60, 25);
+        max.addActionListener(e -> turns.setTiming(TurnStateMachine.Timing.instant()));
+        actionPanel.add(max);
+        x += 65;
+        
+        JButton back = new JButton("BACK");
+        back.setFont(FontManager.arial(Font.BOLD, 11));
+        back.setFocusPainted(false);
+        back.setBounds(x + 20, 115, 80, 25);
+        back.addActionListener(e -> endBattle());
+        actionPanel.add(back);
+        
+        battleLog.add(BattleLog.EntryType.INFO, "Watching a replay");
+        replay.rewind();
+    }
+    
+    /**
+     * Called every tick while watching: when the last turn is done, start the
+     * next one with the recorded player move.
+     */
+    private void feedReplay() {
+        if (replayStopped || !turns.isIdle() || engine.isOver()) return;
+        Move move = nextReplayMove(ReplayRecorder.EVENT_PLAYER);
+        if (move != null) turns.playerInput(move, System.currentTimeMillis());
+    }
+    
+    /**
+     * Read ahead to the next recorded move of one side (a move lost to a stun
+     * counts too, the engine works out the stun again by itself).
+     * Victory/defeat/effect events are skipped - the engine reports those by itself.
+     * A recorded rewind is done again on the way (they only happen between turns).
+     * 
+     * @param eventType - ReplayRecorder.EVENT_PLAYER or EVENT_ENEMY
+     * @return the move, or null if the replay ran out or doesn't fit this version
+     */
+    private Move nextReplayMove(int eventType) {
+        while (!replayStopped && replay.next()) {
+            if (replay.type == ReplayRecorder.EVENT_REWIND) {
+                engine.rewind();
+                continue;
+            }
+            boolean stunned = replay.type == ReplayRecorder.EVENT_STUNNED
+                    && replay.onPlayer == (eventType == ReplayRecorder.EVENT_PLAYER);
+            if (replay.type != eventType && !stunned) continue;
+            Move move = Move.byId(replay.moveId);
+            if (move == null) {
+                battleLog.add(BattleLog.EntryType.INFO, "This replay is from a different version of the game");
+                replayStopped = true;
+            }
+            return move;
+        }
+        replayStopped = true;
+        return null;
     }
     
     /**
@@ -485,17 +707,36 @@ public class GameManager extends JPanel {
             g.drawString("Player", 170, 200);
         }
         
-        //  DRAW ENEMY SPRITE 
-        BufferedImage eSprite = enemyAnimManager.getFrame(currentEnemyAnimation);
-        if (eSprite != null) {
-            // Draw the current animation frame
-            g.drawImage(eSprite, 650, 120, 150, 150, this);
-        } else {
-            // Fallback: draw a red placeholder rectangle
-            g.setColor(new Color(200, 100, 100));
-            g.fillRect(650, 120, 150, 150);
-            g.setColor(Color.WHITE);
-            g.drawString("Enemy", 700, 200);
+        //  DRAW ENEMY SPRITES 
+        // One enemy gets the usual 150x150 spot; a swarm is laid out in a
+        // grid of up to 3 columns in the same area (defeated enemies vanish)
+        Enemy[] enemies = session.getEnemies();
+        int n = enemies.length;
+        int cols = Math.min(n, 3);
+        int rows = (n + cols - 1) / cols;
+        int size = n == 1 ? 150 : (rows == 1 ? 110 : 75);
+        int left = n == 1 ? 650 : 550;
+        Enemy target = session.getCurrentEnemy();
+        for (int i = 0; i < n; i++) {
+            if (!enemies[i].isAlive()) continue;
+            int x = left + (i % cols) * (size + 10);
+            int y = 120 + (i / cols) * size;
+            BufferedImage eSprite = enemyAnimManagers[i].getFrame(enemyAnimations[i]);
+            if (eSprite != null) {
+                // Draw the current animation frame
+                g.drawImage(eSprite, x, y, size, size, this);
+            } else {
+                // Fallback: draw a red placeholder rectangle
+                g.setColor(new Color(200, 100, 100));
+                g.fillRect(x, y, size, size);
+                g.setColor(Color.WHITE);
+                g.drawString("Enemy", x + size / 2 - 20, y + size / 2);
+            }
+            if (n > 1 && enemies[i] == target) {
+                // Gold bar under the enemy the player's moves will hit
+                g.setColor(new Color(218, 165, 32));
+                g.fillRect(x + 10, y + size - 4, size - 20, 3);
+            }
         }
         
         // Let Swing paint child components (buttons, labels, etc.)
@@ -1,9 +1,14 @@
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * - Who's playing (username, save slot)
  * -  character (Player object)
- * - Current enemy 
+ * - Current enemies (usually one, a swarm in some endless stages)
  * - Game settings (difficulty, stage)
  * - Combat stats (damage dealt/taken, XP gained)
+ * - The combat event bus its battles publish to (CombatEventBus)
+ * - The seeded random generator used for all combat randomness
  * 
  */
 public class GameSession {
@@ -14,17 +19,26 @@ public class GameSession {
     
     //  GAME OBJECTS 
     private Player player;        // the character
-    private Enemy currentEnemy;   // enemy fighting
+    private Enemy[] enemies;      // everyone in this stage's encounter (usually just one)
+    private CombatRandom random;  // all combat randomness comes from here (same seed = same battle)
     
     //  SETTINGS 
     private int difficulty;       // 1 = Normal, 2 = Hard (enemies get +30% stats)
     private int stage;          
+    private boolean endless;      // keep going past the last stage with EndlessMode enemies
+    
+    //  COMBAT EVENTS 
+    public static final int EVENT_CAPACITY = 1024;   // events a subscriber can fall behind by
+    private CombatEventBus events;                     // everything that happens in this session's battles
+    private CombatEventBus.Subscription statsFeed;     // the round statistics' subscription
+    private final CombatEventBus.Handler statsCounter = this::countEvent;
     
     //  ROUND STATISTICS 
 
     private int roundsDamageDealt;       // total damage player dealt this fight
     private int roundsDamageTaken;       // total damage player took this fight
     private long roundsExperienceGained; // XP earned this fight
+    private CompletableFuture<File> lastReplay;  // replay of the last fight (done once it's on disk)
     
     /**
      * Constructor - creates a new game session.
@@ -35,12 +49,33 @@ public class GameSession {
      * @param difficulty - 1 for Normal, 2 for Hard
      */
     public GameSession(String username, int saveSlot, Player player, int difficulty) {
+        this(username, saveSlot, player, difficulty, CombatRandom.withRandomSeed());
+    }
+    
+    /**
+     * Constructor with a specific random generator.
+     * 
+     * Pass a generator with a known seed to reproduce a battle exactly,
+     * or a split() generator so parallel simulations don't share one.
+     * 
+     * @param username - the logged-in player's username
+     * @param saveSlot - which save file slot (0, 1, 2)
+     * @param player - the Player character object
+     * @param difficulty - 1 for Normal, 2 for Hard
+     * @param random - the random generator for this session's combat
+     */
+    public GameSession(String username, int saveSlot, Player player, int difficulty, CombatRandom random) {
         this.username = username;
+        this.random = random;
         this.saveSlot = saveSlot;
         this.player = player;
         this.difficulty = difficulty;
         this.stage = 1;  // always start at stage 1
         
+        // The round statistics are just another subscriber to the battles' events
+        this.events = new CombatEventBus(EVENT_CAPACITY);
+        this.statsFeed = events.subscribe();
+        
         // Initialize round stats to 0
         this.roundsDamageDealt = 0;
         this.roundsDamageTaken = 0;
@@ -53,32 +88,25 @@ public class GameSession {
     /**
      * Generate the enemy for the current stage.
      * 
-     * Stage 1 → Goblin (medium enemy, comes first)
-     * Stage 2 → Skeleton (actually the weakest, but comes second)
-     * Stage 3 → Plent (supposed to be the boss)
+     * Which enemy goes on which stage is set by the stage lines in
+     * data/definitions.txt (by default Goblin, then Skeleton, then Plent
+     * as the boss). Stages past the list get the first stage's enemy,
+     * or in endless mode scaled-up ones from EndlessMode (sometimes a swarm).
      */
     private void generateEnemy() {
-        // Use switch to create the right enemy based on stage
-        switch (stage) {
-            case 1:
-                currentEnemy = new Goblin();   // first fight
-                break;
-            case 2:
-                currentEnemy = new Skeleton(); // second fight  
-                break;
-            case 3:
-                currentEnemy = new Plent();    // third fight
-                break;
-            default:
-                // Fallback in case something goes wrong
-                currentEnemy = new Goblin();
+        if (endless && EndlessMode.isEndlessStage(stage)) {
+            enemies = EndlessMode.createEncounter(stage);
+        } else {
+            enemies = new Enemy[] { Enemy.forStage(stage) };
         }
         
-        // HARD MODE: Scale enemy stats by 30%
+        // HARD MODE (on top of endless scaling): Scale enemy stats by 30%
         if (difficulty == 2) {
-            currentEnemy.maxHP = (int) (currentEnemy.maxHP * 1.3);      // 30% more HP
-            currentEnemy.attack = (int) (currentEnemy.attack * 1.3);    // 30% more attack
-            currentEnemy.defense = (int) (currentEnemy.defense * 1.3);  // 30% more defense
+            for (Enemy enemy : enemies) {
+                enemy.maxHP = (int) (enemy.maxHP * 1.3);      // 30% more HP
+                enemy.attack = (int) (enemy.attack * 1.3);    // 30% more attack
+                enemy.defense = (int) (enemy.defense * 1.3);  // 30% more defense
+            }
         }
     }
     
@@ -86,18 +114,28 @@ public class GameSession {
      * Progress to the next stage after defeating an enemy.
      */
     public void nextStage() {
-        if (stage < 4) {
-            stage++;  // go to next stage
-            
-            // Reset round stats for the new fight
-            roundsDamageDealt = 0;
-            roundsDamageTaken = 0;
-            roundsExperienceGained = 0;
-            
-            // Create the new enemy for this stage
-            generateEnemy();
+        if (endless || stage < 4) {
+            skipToStage(stage + 1);  // go to next stage
         }
-        // If stage >= 4, game is complete
+        // If stage >= 4, game is complete (unless it's endless)
+    }
+    
+    /**
+     * Jump straight to a stage (replays use this to rebuild a battle).
+     * 
+     * @param stage - stage number, starting at 1
+     */
+    public void skipToStage(int stage) {
+        this.stage = stage;
+        
+        // Reset round stats for the new fight (after catching up on the old one's events)
+        updateStats();
+        roundsDamageDealt = 0;
+        roundsDamageTaken = 0;
+        roundsExperienceGained = 0;
+        
+        // Create the new enemy for this stage
+        generateEnemy();
     }
     
     //  GETTERS AND SETTERS 
@@ -107,26 +145,88 @@ public class GameSession {
     
     public Player getPlayer() { return player; }
     
-    public Enemy getCurrentEnemy() { return currentEnemy; }
+    /**
+     * The enemy the player is fighting: the first one still standing
+     * (the player's moves always hit it), or the last one if none are.
+     */
+    public Enemy getCurrentEnemy() {
+        for (Enemy enemy : enemies) {
+            if (enemy.isAlive()) return enemy;
+        }
+        return enemies[enemies.length - 1];
+    }
+    
+    /**
+     * @return every enemy in this stage's encounter, in order (shared array - don't modify it)
+     */
+    public Enemy[] getEnemies() { return enemies; }
+    
+    public CombatRandom getRandom() { return random; }
     
     public int getDifficulty() { return difficulty; }
     public int getStage() { return stage; }
     
+    /**
+     * Endless mode: stages never run out (see EndlessMode).
+     * Only affects stages generated from now on.
+     */
+    public boolean isEndless() { return endless; }
+    public void setEndless(boolean endless) { this.endless = endless; }
+    
+    public CompletableFuture<File> getLastReplay() { return lastReplay; }
+    public void setLastReplay(CompletableFuture<File> replay) { this.lastReplay = replay; }
+    
+    public CombatEventBus getEvents() { return events; }
+    
+    /**
+     * Catch the round statistics up with the event bus. CombatEngine calls
+     * this once a turn; the getters below call it too, so they're always current.
+     */
+    public void updateStats() {
+        statsFeed.drain(statsCounter);
+    }
+
+    /**
+     * Put the round statistics back to earlier values (a rewound turn -
+     * CombatSnapshot - shouldn't count). Events still waiting on the bus
+     * are from the turns being undone, so they're drained and dropped first.
+     */
+    public void restoreStats(int damageDealt, int damageTaken, long experienceGained) {
+        updateStats();
+        roundsDamageDealt = damageDealt;
+        roundsDamageTaken = damageTaken;
+        roundsExperienceGained = experienceGained;
+    }
+    
+    private void countEvent(CombatEventBus.Type type, boolean player, long amount, boolean endOfBatch) {
+        switch (type) {
+            case DAMAGE_DEALT:
+                if (player) roundsDamageDealt += (int) amount;
+                else roundsDamageTaken += (int) amount;
+                break;
+            case VICTORY:
+                roundsExperienceGained += amount;
+                break;
+            default:
+                break;
+        }
+    }
+    
     // Round damage dealt tracking
-    public int getRoundsDamageDealt() { return roundsDamageDealt; }
-    public void addRoundsDamageDealt(int damage) { 
-        this.roundsDamageDealt += damage; 
+    public int getRoundsDamageDealt() { 
+        updateStats();
+        return roundsDamageDealt; 
     }
     
     // Round damage taken tracking
-    public int getRoundsDamageTaken() { return roundsDamageTaken; }
-    public void addRoundsDamageTaken(int damage) { 
-        this.roundsDamageTaken += damage; 
+    public int getRoundsDamageTaken() { 
+        updateStats();
+        return roundsDamageTaken; 
     }
     
     // Round XP tracking
-    public long getRoundsExperienceGained() { return roundsExperienceGained; }
-    public void addRoundsExperienceGained(long exp) { 
-        this.roundsExperienceGained += exp; 
+    public long getRoundsExperienceGained() { 
+        updateStats();
+        return roundsExperienceGained; 
     }
 }
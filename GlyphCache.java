@@ -0,0 +1,128 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * GlyphCache.java - Pre-rendered character images for fast text drawing
+ *
+ * Drawing text with Graphics.drawString() has to lay out the glyphs every time.
+ * For numbers that change a lot (like HP values) it's cheaper to render every
+ * printable character ONCE into its own little image, then just copy (blit)
+ * those images onto the screen.
+ *
+ * Each cache is for one font + one color. Only plain ASCII (32-126) is cached,
+ * anything else is skipped.
+ */
+public class GlyphCache {
+
+    // First and last characters we render (space to tilde)
+    private static final int FIRST_CHAR = 32;
+    private static final int LAST_CHAR = 126;
+
+    private BufferedImage[] glyphs;   // one image per character, indexed by char code
+    private int[] advances;           // how far to move right after each character
+    private int height;               // height of every glyph image (font height)
+
+    /**
+     * Render every printable ASCII character in the given font and color.
+     *
+     * @param font - font to render with
+     * @param color - text color
+     */
+    public GlyphCache(Font font, Color color) {
+        glyphs = new BufferedImage[LAST_CHAR + 1];
+        advances = new int[LAST_CHAR + 1];
+
+        // Need a Graphics object just to get the font measurements
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D sg = scratch.createGraphics();
+        FontMetrics fm = sg.getFontMetrics(font);
+        sg.dispose();
+
+        height = fm.getHeight();
+        int ascent = fm.getAscent();
+
+        for (int c = FIRST_CHAR; c <= LAST_CHAR; c++) {
+            int w = Math.max(1, fm.charWidth((char) c));
+            advances[c] = w;
+
+            BufferedImage img = new BufferedImage(w, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = img.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(font);
+            g.setColor(color);
+            g.drawString(String.valueOf((char) c), 0, ascent);
+            g.dispose();
+            glyphs[c] = img;
+        }
+    }
+
+    /**
+     * Draw a string using the cached glyphs.
+     *
+     * @param g - graphics to draw on
+     * @param text - text to draw
+     * @param x - left edge
+     * @param y - TOP edge (not the baseline like drawString)
+     * @return the x position right after the last character
+     */
+    public int drawText(Graphics g, String text, int x, int y) {
+        for (int i = 0; i < text.length(); i++) {
+            x = drawChar(g, text.charAt(i), x, y);
+        }
+        return x;
+    }
+
+    /**
+     * Draw a whole number without building a String first.
+     *
+     * @param g - graphics to draw on
+     * @param value - number to draw
+     * @param x - left edge
+     * @param y - top edge
+     * @return the x position right after the last digit
+     */
+    public int drawNumber(Graphics g, int value, int x, int y) {
+        long v = value;  // long so Integer.MIN_VALUE can be negated
+        if (v < 0) {
+            x = drawChar(g, '-', x, y);
+            v = -v;
+        }
+
+        // Find the biggest power of 10 that fits, then print digits left to right
+        long divisor = 1;
+        while (divisor * 10 <= v) divisor *= 10;
+        while (divisor > 0) {
+            x = drawChar(g, (char) ('0' + (v / divisor) % 10), x, y);
+            divisor /= 10;
+        }
+        return x;
+    }
+
+    /**
+     * Width in pixels of a string drawn with this cache.
+     */
+    public int textWidth(String text) {
+        int w = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= FIRST_CHAR && c <= LAST_CHAR) w += advances[c];
+        }
+        return w;
+    }
+
+    /**
+     * Height of one line of text in pixels.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Draw a single cached character (unsupported characters are skipped).
+     */
+    private int drawChar(Graphics g, char c, int x, int y) {
+        if (c < FIRST_CHAR || c > LAST_CHAR) return x;
+        g.drawImage(glyphs[c], x, y, null);
+        return x + advances[c];
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * GreedyPolicy.java - Always goes for the biggest hit it can afford
+ *
+ * Only possible now that moves carry their mana cost and damage in the
+ * move table. Each turn:
+ * - heal if HP is low and a heal is affordable
+ * - otherwise use the affordable attack with the most damage
+ *   (Player.previewDamage, so the Barbarian's combo Punch counts)
+ * - if nothing is affordable, fall back to the first attack
+ *   (it fails, but the enemy still gets its turn - just like clicking it)
+ */
+public class GreedyPolicy implements PlayerPolicy {
+
+    public static final int HEAL_BELOW_PERCENT = 35;   // heal when HP drops under 35%
+
+    @Override
+    public Move chooseAction(Player player, Enemy enemy) {
+        int mana = player.getCurrentMana();
+
+        // Low on HP? Heal first if we can
+        if (player.getCurrentHP() * 100 < player.getMaxHP() * HEAL_BELOW_PERCENT) {
+            for (Move m : player.getDefenseMoves()) {
+                if (m.getHealAmount() > 0 && m.getManaCost() <= mana) return m;
+            }
+        }
+
+        // Biggest affordable attack
+        Move best = null;
+        int bestDamage = -1;
+        for (Move m : player.getAttackMoves()) {
+            if (m.getManaCost() > mana) continue;
+            int damage = player.previewDamage(m);
+            if (damage > bestDamage) {
+                best = m;
+                bestDamage = damage;
+            }
+        }
+        return best != null ? best : player.getAttackMoves().get(0);
+    }
+}
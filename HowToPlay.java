@@ -64,9 +64,7 @@ public class HowToPlay extends JPanel {
         add(backBtn);
         
         // ========== TITLE ==========
-        JLabel titleLabel = new JLabel("HOW TO PLAY");
-        titleLabel.setFont(new Font("CASTELLAR", Font.BOLD, 42));
-        titleLabel.setForeground(Color.BLACK);
+        JLabel titleLabel = new JLabel(FontManager.textIcon("HOW TO PLAY", FontManager.castellar(Font.BOLD, 42), Color.BLACK));
         titleLabel.setHorizontalAlignment(JLabel.CENTER);
         titleLabel.setBounds(200, 115, 600, 50);
         add(titleLabel);
@@ -92,7 +90,7 @@ public class HowToPlay extends JPanel {
             "• Defenses reduce incoming damage or heal\n" +
             "• Defeat the enemy to earn rewards and progress"
         );
-        instructionsArea.setFont(new Font("CASTELLAR", Font.BOLD, 16));
+        instructionsArea.setFont(FontManager.castellar(Font.BOLD, 16));
         instructionsArea.setForeground(new Color(218, 165, 32));  
         instructionsArea.setBackground(new Color(40, 40, 40));   
         instructionsArea.setLineWrap(true);    
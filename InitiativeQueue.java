@@ -0,0 +1,152 @@
+import java.util.Arrays;
+
+/**
+ * InitiativeQueue.java - Who acts next in a battle
+ *
+ * Battles used to strictly alternate: player, enemy, player, enemy. With
+ * several enemies (and a speed stat) the order comes from a timeline
+ * instead. Every combatant has a time when it next acts; after acting it
+ * comes back INITIATIVE / speed later, so a character twice as fast acts
+ * twice as often. Ties go to whoever was scheduled first, which keeps
+ * equal speeds alternating exactly like before.
+ *
+ * The timeline is a binary min-heap of combatant numbers (0 = the player,
+ * 1..n = the encounter's enemies), so taking the next actor and putting it
+ * back are O(log n) however big the swarm is. Defeated enemies are just
+ * never put back (CombatEngine drops them when they come up).
+ *
+ * Everything is stored in parallel primitive arrays - no object per entry.
+ */
+public final class InitiativeQueue {
+
+    // Time between actions is INITIATIVE / speed (divisible by every speed up to 16)
+    public static final long INITIATIVE = 720720;
+
+    private int[] actor;    // heap of combatant numbers
+    private long[] time;    // when each heap entry acts
+    private long[] order;   // scheduling order, to break ties (earlier first)
+    private int size;
+    private long scheduled; // how many entries have ever been added
+
+    /**
+     * @param capacity - expected number of combatants (grows if needed)
+     */
+    public InitiativeQueue(int capacity) {
+        int n = Math.max(2, capacity);
+        actor = new int[n];
+        time = new long[n];
+        order = new long[n];
+    }
+
+    /**
+     * @param speed - a combatant's speed (1 or more)
+     * @return how long it waits between actions
+     */
+    public static long delay(int speed) {
+        return INITIATIVE / Math.max(1, speed);
+    }
+
+    /**
+     * Schedule a combatant to act at a time.
+     *
+     * @param who - 0 for the player, 1..n for enemies
+     * @param when - time on the battle's timeline
+     */
+    public void add(int who, long when) {
+        if (size == actor.length) {
+            actor = Arrays.copyOf(actor, size * 2);
+            time = Arrays.copyOf(time, size * 2);
+            order = Arrays.copyOf(order, size * 2);
+        }
+        int i = size++;
+        long seq = scheduled++;
+        // Sift up: move parents that act later down into the hole
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(when, seq, time[parent], order[parent])) break;
+            set(i, actor[parent], time[parent], order[parent]);
+            i = parent;
+        }
+        set(i, who, when, seq);
+    }
+
+    /**
+     * @return the combatant that acts next (without removing it), or -1 if the queue is empty
+     */
+    public int peek() {
+        return size == 0 ? -1 : actor[0];
+    }
+
+    /**
+     * @return when the next combatant acts
+     */
+    public long peekTime() {
+        return time[0];
+    }
+
+    /**
+     * Remove the combatant that acts next.
+     *
+     * @return its number, or -1 if the queue is empty
+     */
+    public int poll() {
+        if (size == 0) return -1;
+        int first = actor[0];
+        size--;
+        if (size > 0) {
+            // Sift the last entry down from the root
+            int who = actor[size];
+            long when = time[size];
+            long seq = order[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && before(time[child + 1], order[child + 1], time[child], order[child])) child++;
+                if (!before(time[child], order[child], when, seq)) break;
+                set(i, actor[child], time[child], order[child]);
+                i = child;
+            }
+            set(i, who, when, seq);
+        }
+        return first;
+    }
+
+    /**
+     * @return an independent copy of the timeline (CombatSnapshot keeps one per turn)
+     */
+    public InitiativeQueue copy() {
+        InitiativeQueue q = new InitiativeQueue(size);
+        q.copyFrom(this);
+        return q;
+    }
+
+    /**
+     * Overwrite this timeline with another one (e.g. to rewind a battle).
+     */
+    public void copyFrom(InitiativeQueue o) {
+        if (actor.length < o.size) {
+            actor = new int[o.size];
+            time = new long[o.size];
+            order = new long[o.size];
+        }
+        System.arraycopy(o.actor, 0, actor, 0, o.size);
+        System.arraycopy(o.time, 0, time, 0, o.size);
+        System.arraycopy(o.order, 0, order, 0, o.size);
+        size = o.size;
+        scheduled = o.scheduled;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    private static boolean before(long t1, long o1, long t2, long o2) {
+        return t1 < t2 || (t1 == t2 && o1 < o2);
+    }
+
+    private void set(int i, int who, long when, long seq) {
+        actor[i] = who;
+        time[i] = when;
+        order[i] = seq;
+    }
+}
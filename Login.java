@@ -79,30 +79,24 @@ public class Login extends JPanel {
         add(backBtn);
         
         //  TITLE 
-        JLabel titleLabel = new JLabel("LOGIN");
-        titleLabel.setFont(new Font("CASTELLAR", Font.BOLD, 48));
-        titleLabel.setForeground(Color.BLACK);
+        JLabel titleLabel = new JLabel(FontManager.textIcon("LOGIN", FontManager.castellar(Font.BOLD, 48), Color.BLACK));
         titleLabel.setHorizontalAlignment(JLabel.CENTER);
         titleLabel.setBounds(200, 150, 600, 60);
         add(titleLabel);
         
         //  USERNAME LABEL 
-        JLabel usernameLabel = new JLabel("USERNAME");
-        usernameLabel.setFont(new Font("CASTELLAR", Font.BOLD, 18));
-        usernameLabel.setForeground(Color.BLACK);
+        JLabel usernameLabel = new JLabel(FontManager.textIcon("USERNAME", FontManager.castellar(Font.BOLD, 18), Color.BLACK));
         usernameLabel.setBounds(250, 250, 150, 30);
         add(usernameLabel);
         
         //  USERNAME INPUT 
         usernameField = new JTextField();
         usernameField.setBounds(430, 250, 250, 35);
-        usernameField.setFont(new Font("Arial", Font.PLAIN, 16));
+        usernameField.setFont(FontManager.arial(Font.PLAIN, 16));
         add(usernameField);
         
         //  PASSWORD LABEL 
-        JLabel passwordLabel = new JLabel("PASSWORD");
-        passwordLabel.setFont(new Font("CASTELLAR", Font.BOLD, 18));
-        passwordLabel.setForeground(Color.BLACK);
+        JLabel passwordLabel = new JLabel(FontManager.textIcon("PASSWORD", FontManager.castellar(Font.BOLD, 18), Color.BLACK));
         passwordLabel.setBounds(250, 310, 150, 30);
         add(passwordLabel);
         
@@ -110,20 +104,20 @@ public class Login extends JPanel {
        
         passwordField = new JPasswordField();
         passwordField.setBounds(430, 310, 250, 35);
-        passwordField.setFont(new Font("Arial", Font.PLAIN, 16));
+        passwordField.setFont(FontManager.arial(Font.PLAIN, 16));
         add(passwordField);
         
         //  ERROR MESSAGE LABEL 
      
         errorLabel = new JLabel();
-        errorLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        errorLabel.setFont(FontManager.arial(Font.PLAIN, 14));
         errorLabel.setForeground(new Color(255, 100, 100));  // red for errors
         errorLabel.setBounds(250, 360, 450, 30);
         add(errorLabel);
         
         //  SUBMIT BUTTON 
         JButton submitBtn = new JButton("SUBMIT");
-        submitBtn.setFont(new Font("CASTELLAR", Font.BOLD, 18));
+        submitBtn.setFont(FontManager.castellar(Font.BOLD, 18));
         submitBtn.setForeground(Color.BLACK);
         submitBtn.setBackground(new Color(218, 165, 32));
         submitBtn.setBounds(350, 420, 300, 60);
@@ -67,9 +67,7 @@ public class MainMenu extends JPanel {
     private void initializeUI() {
         // ========== TITLE LABEL ==========
         // Big "EARTHBOUND" text at the top
-        JLabel titleLabel = new JLabel("EARTHBOUND");
-        titleLabel.setFont(new Font("CASTELLAR", Font.BOLD, 56));  // fancy medieval font
-        titleLabel.setForeground(Color.BLACK);
+        JLabel titleLabel = new JLabel(FontManager.textIcon("EARTHBOUND", FontManager.castellar(Font.BOLD, 56), Color.BLACK));  // fancy medieval font
         titleLabel.setHorizontalAlignment(JLabel.CENTER);
         titleLabel.setBounds(200, 150, 600, 80);
         add(titleLabel);
@@ -113,7 +111,7 @@ public class MainMenu extends JPanel {
      */
     private JButton createGoldButton(String text) {
         JButton btn = new JButton(text);
-        btn.setFont(new Font("CASTELLAR", Font.BOLD, 18));
+        btn.setFont(FontManager.castellar(Font.BOLD, 18));
         btn.setForeground(Color.BLACK);
         btn.setBackground(new Color(218, 165, 32));  // gold color
         btn.setFocusPainted(false);                   // no focus border
@@ -0,0 +1,274 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * MctsEnemyAI.java - Smarter enemy moves for Hard difficulty (Monte Carlo tree search)
+ *
+ * Enemy.decideAction just rolls a weighted die. This instead plays the
+ * battle forward thousands of times from a CombatState copy and picks the
+ * ability that led to the best results:
+ *
+ *   1. Selection - walk down the tree of enemy choices, picking the ability
+ *      with the best UCB1 score (average result + a bonus for rarely tried ones)
+ *   2. Expansion - add one new node where the walk leaves the tree
+ *   3. Rollout   - play on from there with weighted-random enemy moves until
+ *      someone dies (or ROLLOUT_TURNS pass, then score the HP left)
+ *   4. Backup    - add the result (1 = player dead, 0 = enemy dead) to every
+ *      node on the path. Each turn it took costs TURN_DISCOUNT, so a quicker
+ *      kill beats a slower one (otherwise every ability that wins looks the same)
+ *
+ * The player's replies are guessed: GreedyPolicy's move most of the time,
+ * a random move the rest. Because those guesses (and the enemy's future
+ * rolls) differ every time, the tree is "open loop": a node is a sequence of
+ * enemy choices, not an exact battle state.
+ *
+ * Every worker thread in the pool builds its own tree until the time budget
+ * runs out, then the visit counts at the root are added up and the most
+ * visited ability wins. Nothing here touches the real Player/Enemy after
+ * the snapshot, so the search never holds up the Swing thread - GameManager
+ * starts it while the player's attack animation is playing.
+ *
+ * The futures it plays are one-on-one with alternating turns (CombatState).
+ * In a swarm, or against a faster or slower enemy, that's only an
+ * approximation: each enemy searches as if it fought the player alone.
+ */
+public class MctsEnemyAI {
+
+    public static final int DEFAULT_BUDGET_MS = 50;
+
+    private static final double EXPLORATION = 1.4;       // UCB1 constant (about sqrt(2))
+    private static final int MAX_TREE_DEPTH = 12;        // enemy turns stored in the tree
+    private static final int ROLLOUT_TURNS = 40;         // turns played per rollout before scoring
+    private static final int PLAYER_RANDOM_PERCENT = 25; // how often the guessed player move is random
+    private static final double TURN_DISCOUNT = 0.005;   // result lost per turn (kill sooner / die later)
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    // Shared by every MctsEnemyAI. Daemon threads so they never keep the game from closing.
+    // One core is left for the Swing thread.
+    private static final int WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(WORKERS, r -> {
+        Thread t = new Thread(r, "mcts-worker");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final int budgetMillis;
+
+    // Numbers from the last decision (read from any thread)
+    private volatile long lastRollouts;
+    private volatile double lastRolloutsPerSecond;
+
+    /**
+     * @param budgetMillis - how long each decision may search for
+     */
+    public MctsEnemyAI(int budgetMillis) {
+        if (budgetMillis <= 0) throw new IllegalArgumentException("budgetMillis must be positive");
+        this.budgetMillis = budgetMillis;
+    }
+
+    /**
+     * Start searching for the enemy's next move.
+     *
+     * The battle is copied right away (on the calling thread), so the player
+     * and enemy can be used as normal while the search runs.
+     *
+     * @param player - the player
+     * @param enemy - the enemy about to act
+     * @return completes with one of enemy.getAbilities() after about budgetMillis
+     */
+    public CompletableFuture<Move> decideAsync(Player player, Enemy enemy) {
+        List<Move> abilities = enemy.getAbilities();
+        if (abilities.size() == 1) return CompletableFuture.completedFuture(abilities.get(0));
+
+        CombatState root = CombatState.of(player, enemy);
+        long start = System.nanoTime();
+        long deadline = start + budgetMillis * 1_000_000L;
+
+        List<CompletableFuture<long[]>> parts = new ArrayList<>(WORKERS);
+        for (int w = 0; w < WORKERS; w++) {
+            long seed = CombatRandom.newSeed();
+            parts.add(CompletableFuture.supplyAsync(() -> search(root, deadline, seed), POOL));
+        }
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            // Add up the root visit counts; the last slot holds the rollout count
+            long[] visits = new long[abilities.size() + 1];
+            for (CompletableFuture<long[]> part : parts) {
+                long[] r = part.join();
+                for (int i = 0; i < visits.length; i++) visits[i] += r[i];
+            }
+            long rollouts = visits[abilities.size()];
+            double seconds = (System.nanoTime() - start) / 1e9;
+            lastRollouts = rollouts;
+            lastRolloutsPerSecond = rollouts / seconds;
+
+            int best = 0;
+            for (int a = 1; a < abilities.size(); a++) {
+                if (visits[a] > visits[best]) best = a;
+            }
+            return abilities.get(best);
+        });
+    }
+
+    /**
+     * Same as decideAsync but waits for the answer.
+     * For headless code only - never call this on the Swing thread.
+     */
+    public Move decide(Player player, Enemy enemy) {
+        return decideAsync(player, enemy).join();
+    }
+
+    /**
+     * @return rollouts played for the last decision (all workers together)
+     */
+    public long getLastRollouts() { return lastRollouts; }
+
+    /**
+     * @return rollouts per second for the last decision
+     */
+    public double getLastRolloutsPerSecond() { return lastRolloutsPerSecond; }
+
+    public int getBudgetMillis() { return budgetMillis; }
+
+    // ==================== SEARCH (runs on a worker) ====================
+
+    /**
+     * One tree node: stats for each enemy ability tried from here.
+     */
+    private static final class Node {
+        final int[] visits;
+        final double[] reward;
+        final Node[] children;
+        int total;
+
+        Node(int abilities) {
+            visits = new int[abilities];
+            reward = new double[abilities];
+            children = new Node[abilities];
+        }
+    }
+
+    /**
+     * Build one tree until the deadline.
+     *
+     * @return visits of each root ability, then the number of rollouts
+     */
+    private static long[] search(CombatState root, long deadline, long seed) {
+        int k = root.abilityCount;
+        Node tree = new Node(k);
+        CombatState s = root.copy();
+        long[] rng = { seed };
+        Node[] pathNode = new Node[MAX_TREE_DEPTH];
+        int[] pathAction = new int[MAX_TREE_DEPTH];
+        long rollouts = 0;
+
+        // Checking the clock every 16 rollouts keeps nanoTime out of the hot loop
+        while ((rollouts & 15) != 0 || System.nanoTime() < deadline) {
+            s.copyFrom(root);
+            Node node = tree;
+            int depth = 0;
+            double result;
+            while (true) {
+                int a = select(node);
+                pathNode[depth] = node;
+                pathAction[depth] = a;
+                depth++;
+
+                s.enemyMove(a, CombatState.rollCrit(rng));
+                if (s.playerDead()) { result = win(depth); break; }
+                s.playerMove(guessPlayerMove(s, rng), CombatState.rollCrit(rng));
+                if (s.enemyDead()) { result = loss(depth); break; }
+                if (s.playerDead()) { result = win(depth); break; }   // poison
+
+                Node child = node.children[a];
+                if (child == null) {
+                    node.children[a] = new Node(k);
+                    result = rollout(s, depth, rng);
+                    break;
+                }
+                if (depth == MAX_TREE_DEPTH) {
+                    result = rollout(s, depth, rng);
+                    break;
+                }
+                node = child;
+            }
+            for (int d = 0; d < depth; d++) {
+                Node n = pathNode[d];
+                n.visits[pathAction[d]]++;
+                n.reward[pathAction[d]] += result;
+                n.total++;
+            }
+            rollouts++;
+        }
+
+        long[] out = new long[k + 1];
+        for (int a = 0; a < k; a++) out[a] = tree.visits[a];
+        out[k] = rollouts;
+        return out;
+    }
+
+    /**
+     * UCB1: untried abilities first, then best average + exploration bonus.
+     */
+    private static int select(Node node) {
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        double logTotal = Math.log(node.total);
+        for (int a = 0; a < node.visits.length; a++) {
+            int v = node.visits[a];
+            if (v == 0) return a;
+            double score = node.reward[a] / v + EXPLORATION * Math.sqrt(logTotal / v);
+            if (score > bestScore) {
+                best = a;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Play on with weighted-random enemy moves (enemy to act).
+     *
+     * @param turns - enemy turns already played in the tree
+     * @return about 1 if the player dies, about 0 if the enemy dies, otherwise
+     *         a score between them from the HP both sides have left
+     */
+    private static double rollout(CombatState s, int turns, long[] rng) {
+        for (int t = 1; t <= ROLLOUT_TURNS; t++) {
+            s.enemyMove(s.rollEnemyAbility(rng), CombatState.rollCrit(rng));
+            if (s.playerDead()) return win(turns + t);
+            s.playerMove(guessPlayerMove(s, rng), CombatState.rollCrit(rng));
+            if (s.enemyDead()) return loss(turns + t);
+            if (s.playerDead()) return win(turns + t);
+        }
+        double playerLost = 1.0 - (double) s.playerHP / s.playerMaxHP;
+        double enemyLeft = (double) s.enemyHP / s.enemyMaxHP;
+        return 0.5 * playerLost + 0.5 * enemyLeft;
+    }
+
+    /** Result for killing the player on enemy turn number turns. */
+    private static double win(int turns) {
+        return Math.max(0.5, 1.0 - TURN_DISCOUNT * turns);
+    }
+
+    /** Result for dying on enemy turn number turns. */
+    private static double loss(int turns) {
+        return Math.min(0.5, TURN_DISCOUNT * turns);
+    }
+
+    private static int guessPlayerMove(CombatState s, long[] rng) {
+        if (nextInt(rng, 100) < PLAYER_RANDOM_PERCENT) return nextInt(rng, s.rules.moveCount);
+        return s.greedyMove();
+    }
+
+    /**
+     * CombatRandom.nextInt on a bare SplitMix64 state.
+     */
+    private static int nextInt(long[] rng, int bound) {
+        long s = rng[0] + GOLDEN_GAMMA;
+        rng[0] = s;
+        return (int) (((CombatRandom.mix64(s) >>> 32) * bound) >>> 32);
+    }
+}
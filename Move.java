@@ -0,0 +1,153 @@
+import java.util.ArrayList;
+
+/**
+ * Move.java - One combat move (player attack/defense or enemy ability)
+ *
+ * Moves used to be plain Strings, so every turn went through chains of
+ * moveName.equals("Rush") ... else if (moveName.equals("Punch")) ... in
+ * several classes. Now each move is created ONCE as a Move object holding
+ * everything about it (cost, damage bonus, heal, block, status effect,
+ * animation, label).
+ * GameData creates them from data/definitions.txt and keeps one fixed
+ * table of moves per class and per enemy type.
+ *
+ * Every Move gets two numbers:
+ * - id: unique across the whole game (Move.byId(id) gets it back),
+ *   handy for saving or recording moves compactly
+ * - slot: its position in its owner's move table, so subclasses can
+ *   switch on it (a switch on ints compiles to a jump table)
+ *
+ * Moves are immutable, so the same objects are shared by every character.
+ */
+public final class Move {
+
+    // Every move ever created, indexed by id
+    private static final ArrayList<Move> REGISTRY = new ArrayList<>();
+
+    private final int id;               // unique id across the game
+    private final int slot;             // index in the owner's move table
+    private final String name;          // e.g. "Rush" (shown in the battle log)
+    private final String label;         // button text, e.g. "Rush (ATK+5, -10 MP)"
+    private final String animationKey;  // which animation to play ("idle" if none)
+    private final boolean attack;       // true = attack move, false = defense/utility
+    private final int manaCost;         // mana needed (0 for enemy moves)
+    private final int damageBonus;      // added to the user's attack stat
+    private final int healAmount;       // HP restored
+    private final int block;            // block value (Dodge)
+    private final int effect;           // StatusEffects effect it causes, or -1 for none
+    private final int effectTurns;      // how long the effect lasts
+    private final int effectPower;      // poison damage, block amount or attack bonus
+
+    /**
+     * Use the static factory methods (attack, heal, block, enemy) instead,
+     * they make it obvious what each number means.
+     */
+    private Move(int slot, String name, String label, String animationKey, boolean attack,
+                 int manaCost, int damageBonus, int healAmount, int block,
+                 int effect, int effectTurns, int effectPower) {
+        this.slot = slot;
+        this.name = name;
+        this.label = label;
+        this.animationKey = animationKey;
+        this.attack = attack;
+        this.manaCost = manaCost;
+        this.damageBonus = damageBonus;
+        this.healAmount = healAmount;
+        this.block = block;
+        this.effect = effect;
+        this.effectTurns = effectTurns;
+        this.effectPower = effectPower;
+
+        synchronized (REGISTRY) {
+            this.id = REGISTRY.size();
+            REGISTRY.add(this);
+        }
+    }
+
+    // ==================== FACTORIES ====================
+
+    /**
+     * A player attack: costs mana, deals attack + damageBonus.
+     */
+    public static Move attack(int slot, String name, int manaCost, int damageBonus, String animationKey, String label) {
+        return attack(slot, name, manaCost, damageBonus, animationKey, label, -1, 0, 0);
+    }
+
+    /**
+     * A player attack that also causes a status effect (see StatusEffects).
+     *
+     * @param effect - StatusEffects.POISON, STUN, ... or -1 for none
+     */
+    public static Move attack(int slot, String name, int manaCost, int damageBonus, String animationKey, String label,
+                              int effect, int effectTurns, int effectPower) {
+        return new Move(slot, name, label, animationKey, true, manaCost, damageBonus, 0, 0,
+            effect, effectTurns, effectPower);
+    }
+
+    /**
+     * A player heal: costs mana, restores HP.
+     */
+    public static Move heal(int slot, String name, int manaCost, int healAmount, String animationKey, String label) {
+        return new Move(slot, name, label, animationKey, false, manaCost, 0, healAmount, 0, -1, 0, 0);
+    }
+
+    /**
+     * A player block move: costs mana, then the user's next hit taken this
+     * turn is block smaller (a one-turn StatusEffects.BLOCK).
+     */
+    public static Move block(int slot, String name, int manaCost, int block, String animationKey, String label) {
+        return new Move(slot, name, label, animationKey, false, manaCost, 0, 0, block,
+            StatusEffects.BLOCK, 1, block);
+    }
+
+    /**
+     * An enemy ability: free, deals attack + damageBonus.
+     */
+    public static Move enemy(int slot, String name, int damageBonus, String animationKey) {
+        return enemy(slot, name, damageBonus, animationKey, -1, 0, 0);
+    }
+
+    /**
+     * An enemy ability that also causes a status effect (see StatusEffects).
+     *
+     * @param effect - StatusEffects.POISON, STUN, ... or -1 for none
+     */
+    public static Move enemy(int slot, String name, int damageBonus, String animationKey,
+                             int effect, int effectTurns, int effectPower) {
+        return new Move(slot, name, name, animationKey, true, 0, damageBonus, 0, 0,
+            effect, effectTurns, effectPower);
+    }
+
+    /**
+     * Look up a move by its id.
+     *
+     * @return the move, or null if no move has that id (e.g. a replay from another version)
+     */
+    public static Move byId(int id) {
+        synchronized (REGISTRY) {
+            return id >= 0 && id < REGISTRY.size() ? REGISTRY.get(id) : null;
+        }
+    }
+
+    // ==================== GETTERS ====================
+
+    public int getId() { return id; }
+    public int getSlot() { return slot; }
+    public String getName() { return name; }
+    public String getLabel() { return label; }
+    public String getAnimationKey() { return animationKey; }
+    public boolean isAttack() { return attack; }
+    public int getManaCost() { return manaCost; }
+    public int getDamageBonus() { return damageBonus; }
+    public int getHealAmount() { return healAmount; }
+    public int getBlock() { return block; }
+    public int getEffect() { return effect; }
+    public int getEffectTurns() { return effectTurns; }
+    public int getEffectPower() { return effectPower; }
+    public boolean hasEffect() { return effect >= 0; }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -1,13 +1,35 @@
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
 
 /**
- * Player.java - Abstract base class for all playable characters
+ * Player.java - Base class for all playable characters
+ * 
+ * Starting stats, moves and animations come from GameData (data/definitions.txt).
+ * Subclasses only exist for classes with special rules (Barbarian combo,
+ * Archer dodge counter); a class with no special rules is just a Player.
  */
-public abstract class Player {
+public class Player {
+    
+    // Classes that have their own Java class (everything else is a plain Player)
+    private static final HashMap<String, Function<String, Player>> FACTORIES = new HashMap<>();
+    static {
+        FACTORIES.put("Barbarian", Barbarian::new);
+        FACTORIES.put("Archer", Archer::new);
+        FACTORIES.put("Mage", Mage::new);
+    }
+    
+    // ==================== LEVEL UP BONUSES (see Progression) ====================
+    public static final int LEVEL_UP_HP = 10;       // +10 max HP per level
+    public static final int LEVEL_UP_MANA = 5;      // +5 max mana per level
+    public static final int LEVEL_UP_ATTACK = 2;    // +2 attack per level
+    public static final int LEVEL_UP_DEFENSE = 1;   // +1 defense per level
     
     // ==================== CHARACTER IDENTITY ====================
     protected String characterName;      // the name the player chose (like "prit")
     protected String className;          // which class this is (Barbarian, Mage, Archer)
+    protected int classIndex;            // the class's number in GameData
     
     // ==================== PROGRESSION STATS ====================
     protected int level;                 // current level (starts at 1, increases with exp)
@@ -19,64 +41,141 @@ public abstract class Player {
     protected int currentMana;           // how much mana the player has right now
     protected int maxMana;               // maximum mana (used for abilities)
     protected int attack;                // base attack power (affects damage dealt)
-    protected int defense;               // base defense (doesn't do much rn but could reduce damage)
+    protected int defense;               // base defense (DamagePipeline takes a share of every hit off)
+    protected int speed;                 // initiative: how often the player acts (from the class, not saved)
+    protected StatusEffects effects = new StatusEffects();   // poison, block, stun, buffs (this battle only, not saved)
     
-    // ==================== ABILITIES & ANIMATION ====================
-    protected ArrayList<String> abilities;         // list of ability names this class has
+    // ==================== ANIMATION ====================
     protected AnimationManager animationManager;   // handles sprite animations for this character
     
+    // ==================== LISTENERS ====================
+    private ArrayList<StatChangeListener> statListeners = new ArrayList<>();  // told when HP/mana changes
+    
     /**
      * Constructor - creates a new player character.
      * 
-     * Sets up basic stats and calls initializeStats() which each subclass
-     * overrides to set their specific starting values.
+     * Sets up basic stats and calls initializeStats(), which reads the
+     * class's starting values from GameData.
+     * 
+     * Use Player.create() instead of calling this directly, so classes with
+     * their own subclass get it.
      * 
      * @param characterName - the name chosen by the player
-     * @param className - which class this is (set by subclass)
+     * @param className - which class this is (must be in data/definitions.txt)
+     * @throws IllegalArgumentException if the class isn't defined
      */
     public Player(String characterName, String className) {
         this.characterName = characterName;
         this.className = className;
+        this.classIndex = GameData.get().classIndexOf(className);
+        if (classIndex < 0) {
+            throw new IllegalArgumentException("Unknown class: " + className);
+        }
         this.level = 1;              // everyone starts at level 1
         this.experience = 0;         // no exp yet
-        this.abilities = new ArrayList<>();
-        initializeStats();           // let subclass set HP, mana, etc.
+        initializeStats();           // HP, mana, etc. from the class definition
+    }
+    
+    /**
+     * Create a character of any class defined in GameData.
+     * 
+     * @param className - Barbarian, Archer, Mage, or any other class in the data file
+     * @param characterName - the name chosen by the player
+     * @return the new character, or null if the class doesn't exist
+     */
+    public static Player create(String className, String characterName) {
+        if (GameData.get().classIndexOf(className) < 0) return null;
+        Function<String, Player> factory = FACTORIES.get(className);
+        return factory != null ? factory.apply(characterName) : new Player(characterName, className);
     }
     
-    // ==================== ABSTRACT METHODS ====================
-    // MUST be implemented by subclasses 
+    // ==================== CLASS DEFINITION ====================
+    
+    /**
+     * Set the starting stats (HP, mana, attack, defense, speed) from the class definition.
+     */
+    protected void initializeStats() {
+        GameData data = GameData.get();
+        this.maxHP = data.classHP[classIndex];
+        this.currentHP = maxHP;
+        this.maxMana = data.classMana[classIndex];
+        this.currentMana = maxMana;
+        this.attack = data.classAttack[classIndex];
+        this.defense = data.classDefense[classIndex];
+        this.speed = data.classSpeed[classIndex];
+    }
     
     /**
-     * Initialize class-specific stats (HP, mana, attack, defense).
-     * Each class has different starting values.
+     * Get every move this class has, in slot order (index i = move with slot i).
+     * The list is shared and can't be modified.
+     * @return all moves
      */
-    protected abstract void initializeStats();
+    public List<Move> getMoves() {
+        return GameData.get().getClassMoves(classIndex);
+    }
     
     /**
      * Get the list of attack moves this class can use.
-     * @return ArrayList of attack move names
+     * The list is built once per class, so calling this every turn is free.
+     * @return unmodifiable list of attack moves
      */
-    public abstract ArrayList<String> getAttackMoves();
+    public List<Move> getAttackMoves() {
+        return GameData.get().getClassAttackMoves(classIndex);
+    }
     
     /**
      * Get the list of defense/utility moves this class can use.
-     * @return ArrayList of defense move names
+     * @return unmodifiable list of defense moves
+     */
+    public List<Move> getDefenseMoves() {
+        return GameData.get().getClassDefenseMoves(classIndex);
+    }
+    
+    /**
+     * Use a move: pay its mana, heal if it heals, and return its damage.
+     * 
+     * Subclasses with special rules (like the Barbarian combo) override this
+     * and compare the move against their own Move constants - no string
+     * comparisons needed.
+     * 
+     * A move's status effect (block, poison, ...) isn't applied here, the
+     * CombatEngine does that because it may land on the enemy.
+     * 
+     * @param move - one of this class's moves
+     * @return damage for attacks, or 0 if the move failed (not enough mana)
+     *         or doesn't deal damage
      */
-    public abstract ArrayList<String> getDefenseMoves();
+    public int executeMove(Move move) {
+        if (!useMana(move.getManaCost())) return 0;  // not enough mana
+        if (move.getHealAmount() > 0) {
+            heal(move.getHealAmount());
+        }
+        return move.isAttack() ? attack + effects.getAttackBonus() + move.getDamageBonus() : 0;
+    }
     
     /**
-     * Execute an attack move and return damage dealt.
-     * @param moveName - which attack to use
-     * @return damage value, or 0 if attack failed (not enough mana, etc.)
+     * How much damage a move would do right now, without using it.
+     * Used by policies (like GreedyPolicy) to compare moves.
+     * 
+     * @param move - one of this class's moves
+     * @return expected damage, or 0 for non-attacks
      */
-    public abstract int executeAttack(String moveName);
+    public int previewDamage(Move move) {
+        return move.isAttack() ? attack + effects.getAttackBonus() + move.getDamageBonus() : 0;
+    }
     
     /**
-     * Execute a defense move (heal, dodge, etc.).
-     * @param moveName - which defense to use
-     * @return block value or 0
+     * Find one of this class's moves by name (e.g. for scripts written as text).
+     * 
+     * @param name - move name like "Rush"
+     * @return the move, or null if this class doesn't have it
      */
-    public abstract int executeDefense(String moveName);
+    public Move findMove(String name) {
+        for (Move m : getMoves()) {
+            if (m.getName().equals(name)) return m;
+        }
+        return null;
+    }
     
     // ==================== SAVE/LOAD SYSTEM ====================
     
@@ -102,19 +201,6 @@ public abstract class Player {
         // Default implementation does nothing
     }
 
-    /**
-     * Get a formatted label for action buttons.
-     * 
-     * Subclasses override this to show things like "(ATK+5, -10 MP)"
-     * 
-     * @param moveName - name of the move
-     * @param isAttack - true if it's an attack move
-     * @return formatted string for button display
-     */
-    public String getActionLabel(String moveName, boolean isAttack) {
-        return moveName;  // default: just return the move name
-    }
-
     public String toSaveString() {
         return className + "," + 
                characterName + "," + 
@@ -132,7 +218,7 @@ public abstract class Player {
     /**
      * Create a Player object from a save string.
      * @param saveString - the comma-separated save data
-     * @return a Player object (Barbarian, Mage, or Archer) or null if invalid
+     * @return a Player object (Barbarian, Mage, Archer, ...) or null if invalid
      */
     public static Player fromSaveString(String saveString) {
         // Split the string by commas into an array
@@ -156,21 +242,9 @@ public abstract class Player {
         // Class-specific data is optional (index 10+)
         String classSpecificData = parts.length > 10 ? parts[10] : "";
         
-        // Create the appropriate player subclass based on className
-        Player player;
-        switch (className) {
-            case "Barbarian":
-                player = new Barbarian(characterName);
-                break;
-            case "Archer":
-                player = new Archer(characterName);
-                break;
-            case "Mage":
-                player = new Mage(characterName);
-                break;
-            default:
-                return null;  // unknown class, can't load
-        }
+        // Create the right kind of player for the class
+        Player player = create(className, characterName);
+        if (player == null) return null;  // unknown class, can't load
         
         // Override the default stats with the saved values
         player.level = level;
@@ -197,7 +271,9 @@ public abstract class Player {
      * @param damage - amount of damage to take
      */
     public void takeDamage(int damage) {
+        int oldHP = this.currentHP;
         this.currentHP = Math.max(0, this.currentHP - damage);
+        if (this.currentHP != oldHP) fireStatsChanged();
     }
     
     /**
@@ -207,7 +283,9 @@ public abstract class Player {
      * @param amount - amount of HP to restore
      */
     public void heal(int amount) {
+        int oldHP = this.currentHP;
         this.currentHP = Math.min(this.maxHP, this.currentHP + amount);
+        if (this.currentHP != oldHP) fireStatsChanged();
     }
     
     /**
@@ -217,7 +295,9 @@ public abstract class Player {
      * @param amount - amount of mana to restore
      */
     public void restoreMana(int amount) {
+        int oldMana = this.currentMana;
         this.currentMana = Math.min(this.maxMana, this.currentMana + amount);
+        if (this.currentMana != oldMana) fireStatsChanged();
     }
     
     /**
@@ -229,6 +309,7 @@ public abstract class Player {
     public boolean useMana(int amount) {
         if (this.currentMana >= amount) {
             this.currentMana -= amount;
+            if (amount != 0) fireStatsChanged();
             return true;   // success!
         }
         return false;      // not enough mana
@@ -237,44 +318,68 @@ public abstract class Player {
     // ==================== PROGRESSION METHODS ====================
     
     /**
-     * Add experience points and check for level up.
+     * Add experience points and level up as many times as they're worth
+     * (see Progression). Stops at Long.MAX_VALUE instead of wrapping around
+     * (deep endless stages).
      * 
      * @param exp - experience points to add
      */
     public void addExperience(long exp) {
-        this.experience += exp;
-        checkLevelUp();
+        this.experience = exp > Long.MAX_VALUE - this.experience ? Long.MAX_VALUE : this.experience + exp;
+        int newLevel = Progression.levelFor(experience, level);
+        if (newLevel > level) {
+            levelUp(newLevel);
+        }
     }
     
     /**
-     * Check if player has enough EXP to level up.
+     * Level up the player - increase all stats by what every level up to
+     * newLevel gives.
      * 
-     * Uses exponential scaling: each level requires 1.5x more exp than the last.
-     * Level 1->2: 100 exp, Level 2->3: 150 exp, Level 3->4: 225 exp, etc.
+     * Also fully heals HP and mana as a bonus for leveling.
      * 
-     * This formula makes early levels quick and later levels take longer.
+     * @param newLevel - the level to go to (higher than the current one)
      */
-    private void checkLevelUp() {
-        // Calculate required exp using exponential formula
-        long requiredExp = (long) (100 * Math.pow(1.5, level - 1));
-        if (this.experience >= requiredExp) {
-            levelUp();
-        }
+    private void levelUp(int newLevel) {
+        this.maxHP += Progression.hpGain(level, newLevel);
+        this.currentHP = this.maxHP; // full heal
+        this.maxMana += Progression.manaGain(level, newLevel);
+        this.currentMana = this.maxMana;  // full mana restore
+        this.attack += Progression.attackGain(level, newLevel);
+        this.defense += Progression.defenseGain(level, newLevel);
+        this.level = newLevel;
+        fireStatsChanged();
     }
     
+    // ==================== STAT LISTENERS ====================
+    
     /**
-     * Level up the player - increase all stats.
+     * Register a listener that gets called whenever HP or mana changes.
+     * Used by the battle HUD so it doesn't have to poll every tick.
      * 
-     * Also fully heals HP and mana as a bonus for leveling.
+     * @param listener - the listener to add
      */
-    private void levelUp() {
-        this.level++;
-        this.maxHP += 10;            // +10 max HP per level
-        this.currentHP = this.maxHP; // full heal
-        this.maxMana += 5;           // +5 max mana per level
-        this.currentMana = this.maxMana;  // full mana restore
-        this.attack += 2;            // +2 attack per level
-        this.defense += 1;           // +1 defense per level
+    public void addStatListener(StatChangeListener listener) {
+        statListeners.add(listener);
+    }
+    
+    /**
+     * Unregister a stat listener (call this when a battle screen closes,
+     * since the same Player object carries on to the next stage).
+     * 
+     * @param listener - the listener to remove
+     */
+    public void removeStatListener(StatChangeListener listener) {
+        statListeners.remove(listener);
+    }
+    
+    /**
+     * Tell every listener about the current HP/mana values.
+     */
+    protected void fireStatsChanged() {
+        for (StatChangeListener l : statListeners) {
+            l.statsChanged(currentHP, maxHP, currentMana, maxMana);
+        }
     }
     
     // ==================== GETTERS AND SETTERS ====================
@@ -284,6 +389,7 @@ public abstract class Player {
     public void setCharacterName(String name) { this.characterName = name; }
     
     public String getClassName() { return className; }
+    public int getClassIndex() { return classIndex; }
     
     public int getLevel() { return level; }
     
@@ -295,6 +401,12 @@ public abstract class Player {
     
     public int getAttack() { return attack; }
     public int getDefense() { return defense; }
+    public int getSpeed() { return speed; }
+    
+    /**
+     * @return this character's status effects (the live object, the engine changes it)
+     */
+    public StatusEffects getEffects() { return effects; }
     
     public long getExperience() { return experience; }
     
@@ -306,9 +418,18 @@ public abstract class Player {
     
     /**
      * Get the animation manager for this player.
+     * 
+     * Made the first time this is called, so creating a character for the
+     * save screen or a simulation doesn't touch any images. The frames are
+     * the class's shared AnimationSet, decoded once for every character of
+     * the class (folders come from the class's anim lines in GameData).
+     * 
      * @return the AnimationManager instance
      */
     public AnimationManager getAnimationManager() {
+        if (animationManager == null) {
+            animationManager = new AnimationManager(className, AnimationSet.forClass(classIndex));
+        }
         return animationManager;
     }
 }
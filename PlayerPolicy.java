@@ -0,0 +1,17 @@
+/**
+ * PlayerPolicy.java - Something that picks the player's move each turn
+ *
+ * In the real game the player clicks a button, but for headless battles
+ * (CombatEngine.runBattle) the moves come from a policy instead.
+ */
+public interface PlayerPolicy {
+
+    /**
+     * Pick the player's next move.
+     *
+     * @param player - the player (current HP, mana, etc.)
+     * @param enemy - the enemy being fought
+     * @return the move to use (one of player.getMoves())
+     */
+    Move chooseAction(Player player, Enemy enemy);
+}
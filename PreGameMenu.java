@@ -79,9 +79,7 @@ public class PreGameMenu extends JPanel {
         Enemy enemy = session.getCurrentEnemy();
         
         // ========== TITLE ==========
-        JLabel titleLabel = new JLabel("PREPARE FOR BATTLE");
-        titleLabel.setFont(new Font("CASTELLAR", Font.BOLD, 32));
-        titleLabel.setForeground(new Color(218, 165, 32));  // gold
+        JLabel titleLabel = new JLabel(FontManager.textIcon("PREPARE FOR BATTLE", FontManager.castellar(Font.BOLD, 32), new Color(218, 165, 32)));  // gold
         titleLabel.setHorizontalAlignment(JLabel.CENTER);
         titleLabel.setBounds(200, 100, 600, 40);
         add(titleLabel);
@@ -90,79 +88,75 @@ public class PreGameMenu extends JPanel {
         JLabel diffLabel = new JLabel(
             "Difficulty: " + (session.getDifficulty() == 1 ? "NORMAL" : "HARD") + " | Stage: " + session.getStage()
         );
-        diffLabel.setFont(new Font("CASTELLAR", Font.BOLD, 18));
+        diffLabel.setFont(FontManager.castellar(Font.BOLD, 18));
         diffLabel.setForeground(Color.WHITE);
         diffLabel.setHorizontalAlignment(JLabel.CENTER);
         diffLabel.setBounds(200, 145, 600, 25);
         add(diffLabel);
         
         // ========== PLAYER INFO (LEFT SIDE) ==========
-        JLabel playerTitle = new JLabel("YOUR CHARACTER");
-        playerTitle.setFont(new Font("CASTELLAR", Font.BOLD, 16));
-        playerTitle.setForeground(new Color(100, 200, 100));  // green for player
+        JLabel playerTitle = new JLabel(FontManager.textIcon("YOUR CHARACTER", FontManager.castellar(Font.BOLD, 16), new Color(100, 200, 100)));  // green for player
         playerTitle.setBounds(150, 200, 200, 25);
         add(playerTitle);
         
         // Player name
         JLabel playerName = new JLabel(player.getCharacterName());
-        playerName.setFont(new Font("Arial", Font.BOLD, 14));
+        playerName.setFont(FontManager.arial(Font.BOLD, 14));
         playerName.setForeground(Color.WHITE);
         playerName.setBounds(150, 370, 200, 20);
         add(playerName);
         
         // Player class and level
         JLabel playerClass = new JLabel("Class: " + player.getClassName() + " | Level: " + player.getLevel());
-        playerClass.setFont(new Font("Arial", Font.PLAIN, 12));
+        playerClass.setFont(FontManager.arial(Font.PLAIN, 12));
         playerClass.setForeground(Color.LIGHT_GRAY);
         playerClass.setBounds(150, 390, 200, 20);
         add(playerClass);
         
         // Player stats
         JLabel playerStats = new JLabel("HP: " + player.getMaxHP() + " | Mana: " + player.getMaxMana() + " | ATK: " + player.getAttack());
-        playerStats.setFont(new Font("Arial", Font.PLAIN, 12));
+        playerStats.setFont(FontManager.arial(Font.PLAIN, 12));
         playerStats.setForeground(Color.LIGHT_GRAY);
         playerStats.setBounds(150, 410, 250, 20);
         add(playerStats);
         
         // ========== VS LABEL (CENTER) ==========
-        JLabel vsLabel = new JLabel("VS");
-        vsLabel.setFont(new Font("CASTELLAR", Font.BOLD, 36));
-        vsLabel.setForeground(new Color(255, 200, 50));  // gold/yellow
+        JLabel vsLabel = new JLabel(FontManager.textIcon("VS", FontManager.castellar(Font.BOLD, 36), new Color(255, 200, 50)));  // gold/yellow
         vsLabel.setHorizontalAlignment(JLabel.CENTER);
         vsLabel.setBounds(450, 300, 100, 40);
         add(vsLabel);
         
         // ========== ENEMY INFO (RIGHT SIDE) ==========
-        JLabel enemyTitle = new JLabel("ENEMY");
-        enemyTitle.setFont(new Font("CASTELLAR", Font.BOLD, 16));
-        enemyTitle.setForeground(new Color(255, 100, 100));  // red for enemy
+        JLabel enemyTitle = new JLabel(FontManager.textIcon("ENEMY", FontManager.castellar(Font.BOLD, 16), new Color(255, 100, 100)));  // red for enemy
         enemyTitle.setBounds(650, 200, 200, 25);
         add(enemyTitle);
         
         // Enemy name
-        JLabel enemyName = new JLabel(enemy.getEnemyName());
-        enemyName.setFont(new Font("Arial", Font.BOLD, 14));
+        // (a swarm shows its first enemy and how many more there are)
+        int others = session.getEnemies().length - 1;
+        JLabel enemyName = new JLabel(enemy.getEnemyName() + (others > 0 ? "  (+" + others + " more)" : ""));
+        enemyName.setFont(FontManager.arial(Font.BOLD, 14));
         enemyName.setForeground(new Color(255, 100, 100));
-        enemyName.setBounds(650, 370, 200, 20);
+        enemyName.setBounds(650, 370, 250, 20);
         add(enemyName);
         
         // Enemy type and stage
         JLabel enemyType = new JLabel("Type: " + enemy.getEnemyType() + " | Stage: " + enemy.getStage());
-        enemyType.setFont(new Font("Arial", Font.PLAIN, 12));
+        enemyType.setFont(FontManager.arial(Font.PLAIN, 12));
         enemyType.setForeground(Color.LIGHT_GRAY);
         enemyType.setBounds(650, 390, 200, 20);
         add(enemyType);
         
         // Enemy stats 
         JLabel enemyStats = new JLabel("HP: " + enemy.getMaxHP() + " | ATK: " + enemy.getAttack() + " | DEF: " + enemy.getDefense());
-        enemyStats.setFont(new Font("Arial", Font.PLAIN, 12));
+        enemyStats.setFont(FontManager.arial(Font.PLAIN, 12));
         enemyStats.setForeground(Color.LIGHT_GRAY);
         enemyStats.setBounds(650, 410, 250, 20);
         add(enemyStats);
         
         // ========== START BATTLE BUTTON ==========
         JButton startBtn = new JButton("START BATTLE");
-        startBtn.setFont(new Font("CASTELLAR", Font.BOLD, 20));
+        startBtn.setFont(FontManager.castellar(Font.BOLD, 20));
         startBtn.setForeground(Color.BLACK);
         startBtn.setBackground(new Color(100, 200, 100));  // green = go!
         startBtn.setBounds(350, 550, 300, 60);
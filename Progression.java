@@ -0,0 +1,116 @@
+/**
+ * Progression.java - EXP thresholds and level-up stats, worked out once
+ *
+ * Levelling used to be worked out on the spot: Player.checkLevelUp called
+ * Math.pow for the next threshold and went up at most one level per call,
+ * so a big EXP reward (late endless stages give millions) only ever gave
+ * one level and the rest waited for the next win.
+ *
+ * Now everything is in tables built when the class loads:
+ *
+ *   EXP[level]       total EXP needed to go from level to level + 1
+ *                    (100 * 1.5^(level-1), the same curve as before)
+ *   *_GAIN[level]    stats gained on reaching that level
+ *   *_TOTAL[level]   stats gained from level 1 up to that level
+ *
+ * levelFor() finds the level any amount of EXP is worth with a binary
+ * search, and the stat gain for going from one level to another is one
+ * subtraction, so a reward worth twenty levels costs the same as one.
+ *
+ * The curve passes Long.MAX_VALUE after level 97. Experience stops at
+ * Long.MAX_VALUE too (Player.addExperience), so MAX_LEVEL is the last level
+ * there is - nothing overflows however deep endless mode goes.
+ */
+public final class Progression {
+
+    // ==================== CURVE ====================
+    public static final int MAX_LEVEL;        // highest level (its threshold wouldn't fit in a long)
+
+    private static final long[] EXP;          // EXP[level] = total EXP to reach level + 1 (1..MAX_LEVEL-1)
+
+    // ==================== STATS PER LEVEL ====================
+    private static final int[] HP_GAIN, MANA_GAIN, ATTACK_GAIN, DEFENSE_GAIN;
+    private static final int[] HP_TOTAL, MANA_TOTAL, ATTACK_TOTAL, DEFENSE_TOTAL;
+
+    static {
+        int max = 1;
+        while (curve(max) < Long.MAX_VALUE) max++;
+        MAX_LEVEL = max;
+
+        EXP = new long[MAX_LEVEL];
+        for (int level = 1; level < MAX_LEVEL; level++) {
+            EXP[level] = curve(level);
+        }
+
+        HP_GAIN = new int[MAX_LEVEL + 1];
+        MANA_GAIN = new int[MAX_LEVEL + 1];
+        ATTACK_GAIN = new int[MAX_LEVEL + 1];
+        DEFENSE_GAIN = new int[MAX_LEVEL + 1];
+        HP_TOTAL = new int[MAX_LEVEL + 1];
+        MANA_TOTAL = new int[MAX_LEVEL + 1];
+        ATTACK_TOTAL = new int[MAX_LEVEL + 1];
+        DEFENSE_TOTAL = new int[MAX_LEVEL + 1];
+        for (int level = 2; level <= MAX_LEVEL; level++) {
+            // Every level gives the same for now - change a gain here to bend the curve
+            HP_GAIN[level] = Player.LEVEL_UP_HP;
+            MANA_GAIN[level] = Player.LEVEL_UP_MANA;
+            ATTACK_GAIN[level] = Player.LEVEL_UP_ATTACK;
+            DEFENSE_GAIN[level] = Player.LEVEL_UP_DEFENSE;
+            HP_TOTAL[level] = HP_TOTAL[level - 1] + HP_GAIN[level];
+            MANA_TOTAL[level] = MANA_TOTAL[level - 1] + MANA_GAIN[level];
+            ATTACK_TOTAL[level] = ATTACK_TOTAL[level - 1] + ATTACK_GAIN[level];
+            DEFENSE_TOTAL[level] = DEFENSE_TOTAL[level - 1] + DEFENSE_GAIN[level];
+        }
+    }
+
+    private Progression() {}
+
+    /**
+     * The EXP formula (only used to fill the table). Level 1->2: 100 exp,
+     * 2->3: 150, 3->4: 225, ... - early levels are quick, later ones take longer.
+     * Past what a long holds the cast gives Long.MAX_VALUE.
+     */
+    private static long curve(int level) {
+        return (long) (100 * Math.pow(1.5, level - 1));
+    }
+
+    /**
+     * Total EXP needed to level up from a level.
+     *
+     * @param level - the current level
+     * @return EXP needed to reach level + 1 (Long.MAX_VALUE at MAX_LEVEL and above)
+     */
+    public static long requiredExp(int level) {
+        return level < MAX_LEVEL ? EXP[Math.max(1, level)] : Long.MAX_VALUE;
+    }
+
+    /**
+     * The level a character at some level ends up at with this much total EXP.
+     * Never goes down, and never past MAX_LEVEL (a level loaded from an older
+     * save that's already past it stays where it is).
+     *
+     * @param exp - total experience
+     * @param level - the current level
+     * @return the new level (level itself if the EXP isn't enough for the next one)
+     */
+    public static int levelFor(long exp, int level) {
+        if (level >= MAX_LEVEL || exp < EXP[Math.max(1, level)]) return level;
+        // Highest lo with EXP[lo - 1] <= exp (the thresholds only go up)
+        int lo = level + 1;
+        int hi = MAX_LEVEL;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (EXP[mid - 1] <= exp) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    // ==================== STAT GAINS ====================
+    // from/to are levels between 1 and MAX_LEVEL
+
+    public static int hpGain(int from, int to) { return HP_TOTAL[to] - HP_TOTAL[from]; }
+    public static int manaGain(int from, int to) { return MANA_TOTAL[to] - MANA_TOTAL[from]; }
+    public static int attackGain(int from, int to) { return ATTACK_TOTAL[to] - ATTACK_TOTAL[from]; }
+    public static int defenseGain(int from, int to) { return DEFENSE_TOTAL[to] - DEFENSE_TOTAL[from]; }
+}
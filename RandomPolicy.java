@@ -0,0 +1,24 @@
+import java.util.List;
+
+/**
+ * RandomPolicy.java - Picks any of the player's moves at random
+ *
+ * Useful as a "button masher" baseline for balance simulations.
+ */
+public class RandomPolicy implements PlayerPolicy {
+
+    private CombatRandom rng;   // its own generator, so a seed reproduces the whole run
+
+    /**
+     * @param rng - random generator to pick moves with (give each policy its own split)
+     */
+    public RandomPolicy(CombatRandom rng) {
+        this.rng = rng;
+    }
+
+    @Override
+    public Move chooseAction(Player player, Enemy enemy) {
+        List<Move> moves = player.getMoves();
+        return moves.get(rng.nextInt(moves.size()));
+    }
+}
@@ -0,0 +1,251 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * ReplayCheck.java - Records battles and checks they come back out of ReplayReader
+ *
+ * For every class on both difficulties and every campaign stage (plus a few
+ * endless stages with swarms), plays a battle with random moves and the odd
+ * rewind, recording it to a file like the game does. Hard battles get their
+ * enemy moves from MctsEnemyAI, so those replays carry recorded enemy moves.
+ * A listener writes down every event as it happens. Then:
+ *
+ *   1. the file on disk has the same bytes the recorder kept in memory
+ *      (so the background writer lost nothing)
+ *   2. ReplayReader decodes the header and every event back to exactly
+ *      what the listener saw
+ *   3. ReplayReader.verify plays it through CombatEngine again and gets the
+ *      same bytes
+ *
+ * Usage:
+ *   java ReplayCheck [--battles N] [--seed N] [--dir FOLDER]     (default 10 battles per stage)
+ *
+ * The replay files go in a temporary folder that's deleted afterwards
+ * unless --dir is given. Easy battles are the same for the same seed; Hard
+ * ones can differ from run to run, since MctsEnemyAI searches for a set time
+ * (every one of them still has to round-trip).
+ * Exit code: 0 = every replay round-tripped, 1 = bad arguments, 2 = a replay didn't.
+ */
+public class ReplayCheck {
+
+    private static final String[] CLASSES = { "Barbarian", "Archer", "Mage" };
+    private static final int[] ENDLESS_STAGES = { 12, 53, 103 };   // a few swarms past the campaign
+    private static final int MAX_ACTIONS = 500;     // safety limit per battle (rewinds count too)
+    private static final int REWIND_CHANCE = 8;     // 1 in this many player turns is taken back
+    private static final int AI_BUDGET_MS = 5;      // MctsEnemyAI think time per enemy move
+
+    /**
+     * Writes down every event the way the replay should hold it.
+     */
+    private static final class EventLog implements CombatEngine.CombatListener {
+        private final CombatEngine engine;
+        final ArrayList<long[]> events = new ArrayList<>();
+
+        EventLog(CombatEngine engine) {
+            this.engine = engine;
+        }
+
+        @Override
+        public void playerActed(Move move, int damage) {
+            Player p = engine.getSession().getPlayer();
+            events.add(new long[] { ReplayRecorder.EVENT_PLAYER, move.getId(), damage,
+                p.getCurrentHP(), p.getCurrentMana(), engine.getTarget().getCurrentHP() });
+        }
+
+        @Override
+        public void enemyActed(Move move, int damage) {
+            events.add(new long[] { ReplayRecorder.EVENT_ENEMY, move.getId(), damage,
+                engine.getSession().getPlayer().getCurrentHP() });
+        }
+
+        @Override
+        public void stunned(boolean player, Move move) {
+            events.add(new long[] { ReplayRecorder.EVENT_STUNNED, player ? 1 : 0, move.getId() });
+        }
+
+        @Override
+        public void effectDamage(boolean player, int effect, int damage) {
+            int hp = player ? engine.getSession().getPlayer().getCurrentHP() : engine.getActingEnemy().getCurrentHP();
+            events.add(new long[] { ReplayRecorder.EVENT_EFFECT, player ? 1 : 0, effect, damage, hp });
+        }
+
+        @Override
+        public void victory(long expGained) {
+            events.add(new long[] { ReplayRecorder.EVENT_VICTORY, expGained });
+        }
+
+        @Override
+        public void defeat() {
+            events.add(new long[] { ReplayRecorder.EVENT_DEFEAT });
+        }
+
+        @Override
+        public void rewound(int turn) {
+            events.add(new long[] { ReplayRecorder.EVENT_REWIND, turn });
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int perStage = 10;
+        long seed = 1;
+        File dir = null;
+
+        // Same "--name value" argument parsing as BalanceSimulator
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + args[i]);
+                System.exit(1);
+            }
+            switch (args[i]) {
+                case "--battles": perStage = Integer.parseInt(args[++i]); break;
+                case "--seed":    seed = Long.parseLong(args[++i]); break;
+                case "--dir":     dir = new File(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        boolean keep = dir != null;
+        if (dir == null) dir = Files.createTempDirectory("replaycheck").toFile();
+        dir.mkdirs();
+
+        GameData data = GameData.get();
+        CombatRandom dice = new CombatRandom(seed);
+        MctsEnemyAI ai = new MctsEnemyAI(AI_BUDGET_MS);
+        int battles = 0;
+        int failed = 0;
+        long events = 0;
+        for (String className : CLASSES) {
+            for (int difficulty = 1; difficulty <= 2; difficulty++) {
+                int stages = data.stageCount + ENDLESS_STAGES.length;
+                for (int b = 0; b < stages * perStage; b++) {
+                    int s = b / perStage;
+                    boolean endless = s >= data.stageCount;
+                    int stage = endless ? ENDLESS_STAGES[s - data.stageCount] : s + 1;
+                    GameSession session = new GameSession("check", 1, Player.create(className, "Check"),
+                        difficulty, dice.split());
+                    session.setEndless(endless);
+                    if (stage != 1) session.skipToStage(stage);
+
+                    File file = new File(dir, className + "_" + difficulty + "_" + stage + "_" + (b % perStage) + ".replay");
+                    String problem = check(session, difficulty == 2 ? ai : null, file, dice.split());
+                    battles++;
+                    if (problem != null) {
+                        failed++;
+                        System.out.println(file.getName() + ": " + problem);
+                    } else {
+                        events += countEvents(file);
+                    }
+                    if (!keep) file.delete();
+                }
+            }
+        }
+        if (!keep) dir.delete();
+
+        System.out.println(battles + " battles recorded, " + (battles - failed) + " round-tripped ("
+            + events + " events), " + failed + " failed");
+        System.exit(failed == 0 ? 0 : 2);
+    }
+
+    /**
+     * Play, record and read back one battle.
+     *
+     * @param ai - picks the enemy's moves (Hard), or null to roll them
+     * @param rng - the random policy's and rewinds' dice
+     * @return null if the replay round-tripped, otherwise what went wrong
+     */
+    private static String check(GameSession session, MctsEnemyAI ai, File file, CombatRandom rng) throws IOException {
+        CombatEngine engine = new CombatEngine(session);
+        engine.keepHistory(RewindHistory.DEFAULT_TURNS);
+        long rngState = session.getRandom().getState();
+        String playerSave = session.getPlayer().toSaveString();
+        Enemy enemy = session.getEnemies()[0];
+        int[] enemyStats = { enemy.getType(), enemy.getMaxHP(), enemy.getCurrentHP(), enemy.getAttack(), enemy.getDefense() };
+        ReplayRecorder recorder = new ReplayRecorder(engine, ai != null, file);
+        engine.addListener(recorder);
+        EventLog log = new EventLog(engine);
+        engine.addListener(log);
+
+        Player player = session.getPlayer();
+        RandomPolicy policy = new RandomPolicy(rng);
+        for (int actions = 0; !engine.isOver() && actions < MAX_ACTIONS; actions++) {
+            if (engine.isPlayerNext()) {
+                if (engine.canRewind() && rng.nextInt(REWIND_CHANCE) == 0) {
+                    engine.rewind();
+                } else {
+                    engine.playerTurn(policy.chooseAction(player, session.getCurrentEnemy()));
+                }
+            } else if (ai != null) {
+                engine.enemyTurn(ai.decide(player, engine.getNextEnemy()));
+            } else {
+                engine.enemyTurn();
+            }
+        }
+        recorder.close().join();
+
+        // 1. Disk and memory agree
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (!Arrays.equals(bytes, recorder.toByteArray())) {
+            return "file (" + bytes.length + " bytes) isn't what was recorded (" + recorder.toByteArray().length + " bytes)";
+        }
+
+        // 2. The header and every event decode back to what happened
+        ReplayReader reader = new ReplayReader(bytes);
+        int[] readStats = { reader.enemyType, reader.enemyMaxHP, reader.enemyHP, reader.enemyAttack, reader.enemyDefense };
+        boolean endless = (reader.flags & ReplayRecorder.FLAG_ENDLESS) != 0;
+        if (reader.stage != session.getStage() || reader.difficulty != session.getDifficulty()
+                || reader.rngState != rngState || !reader.playerSave.equals(playerSave)
+                || !Arrays.equals(readStats, enemyStats) || endless != session.isEndless()
+                || reader.enemyMovesRecorded() != (ai != null)) {
+            return "header doesn't match the battle";
+        }
+        int i = 0;
+        while (reader.next()) {
+            if (i >= log.events.size()) return "extra event " + reader.type + " after " + i + " events";
+            long[] decoded = decode(reader);
+            if (!Arrays.equals(decoded, log.events.get(i))) {
+                return "event " + i + " decoded as " + Arrays.toString(decoded)
+                    + ", was " + Arrays.toString(log.events.get(i));
+            }
+            i++;
+        }
+        if (i != log.events.size()) return "only " + i + " of " + log.events.size() + " events came back";
+
+        // 3. Playing it again gives the same replay
+        String problem = reader.verify();
+        return problem == null ? null : "verify: " + problem;
+    }
+
+    /**
+     * The reader's current event in the same form EventLog writes.
+     */
+    private static long[] decode(ReplayReader r) {
+        switch (r.type) {
+            case ReplayRecorder.EVENT_PLAYER:
+                return new long[] { r.type, r.moveId, r.damage, r.playerHP, r.playerMana, r.enemyHPAfter };
+            case ReplayRecorder.EVENT_ENEMY:
+                return new long[] { r.type, r.moveId, r.damage, r.playerHP };
+            case ReplayRecorder.EVENT_STUNNED:
+                return new long[] { r.type, r.onPlayer ? 1 : 0, r.moveId };
+            case ReplayRecorder.EVENT_EFFECT:
+                return new long[] { r.type, r.onPlayer ? 1 : 0, r.effect, r.damage, r.hpAfter };
+            case ReplayRecorder.EVENT_VICTORY:
+                return new long[] { r.type, r.exp };
+            case ReplayRecorder.EVENT_REWIND:
+                return new long[] { r.type, r.turn };
+            default:
+                return new long[] { r.type };
+        }
+    }
+
+    private static long countEvents(File file) throws IOException {
+        if (!file.exists()) return 0;
+        ReplayReader reader = ReplayReader.open(file);
+        long n = 0;
+        while (reader.next()) n++;
+        return n;
+    }
+}
@@ -0,0 +1,336 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * ReplayReader.java - Reads replays written by ReplayRecorder
+ *
+ * The whole file is loaded into a byte array (a battle is a few hundred
+ * bytes) and decoded one event at a time with next(); the current event is
+ * in the public fields, like a cursor:
+ *
+ *   ReplayReader r = ReplayReader.open(file);
+ *   while (r.next()) {
+ *       if (r.type == ReplayRecorder.EVENT_PLAYER) ... r.moveId, r.damage ...
+ *   }
+ *
+ * No objects are created per event, so decoding runs at many millions of
+ * events per second.
+ *
+ * createSession() rebuilds the battle as it was when recording started, so
+ * it can be played again - on screen by GameManager, or headless by verify(),
+ * which re-runs it through CombatEngine and checks it comes out byte for byte
+ * the same (a regression test for the combat rules).
+ *
+ * Usage:
+ *   java ReplayReader verify file.replay ...     re-run each replay and compare
+ *   java ReplayReader dump file.replay           print every event
+ *   java ReplayReader bench file.replay          decoding speed (events/s)
+ */
+public final class ReplayReader {
+
+    private final byte[] data;
+    private int pos;
+    private final int eventsStart;
+
+    // ==================== HEADER ====================
+    public final int version;
+    public final int flags;
+    public final int difficulty;
+    public final int stage;
+    public final long rngState;
+    public final String playerSave;
+    public final int enemyType, enemyMaxHP, enemyHP, enemyAttack, enemyDefense;
+
+    // ==================== CURRENT EVENT ====================
+    public int type;          // ReplayRecorder.EVENT_...
+    public int moveId;        // PLAYER / ENEMY / STUNNED
+    public int damage;        // PLAYER / ENEMY / EFFECT
+    public int playerHP;      // PLAYER / ENEMY (after the move)
+    public boolean onPlayer;  // STUNNED / EFFECT: true if it happened to the player
+    public int effect;        // EFFECT: StatusEffects.POISON, ...
+    public int hpAfter;       // EFFECT: HP of the side that took the damage
+    public int playerMana;    // PLAYER
+    public int enemyHPAfter;  // PLAYER
+    public long exp;          // VICTORY
+    public int turn;          // REWIND: player turns taken after going back
+
+    /**
+     * @param data - a whole replay file
+     * @throws IOException if it isn't a replay (or is from another version)
+     */
+    public ReplayReader(byte[] data) throws IOException {
+        GameData.get();  // move ids only exist once the data file is loaded
+        this.data = data;
+        try {
+            int magic = ((data[0] & 0xFF) << 24) | ((data[1] & 0xFF) << 16) | ((data[2] & 0xFF) << 8) | (data[3] & 0xFF);
+            pos = 4;
+            if (magic != ReplayRecorder.MAGIC) throw new IOException("not a replay file");
+            version = readInt();
+            if (version != ReplayRecorder.VERSION) throw new IOException("replay version " + version + " not supported");
+            flags = readInt();
+            difficulty = readInt();
+            stage = readInt();
+            long state = 0;
+            for (int i = 0; i < 8; i++) state = (state << 8) | (data[pos++] & 0xFF);
+            rngState = state;
+            int length = readInt();
+            playerSave = new String(data, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            enemyType = readInt();
+            enemyMaxHP = readInt();
+            enemyHP = readInt();
+            enemyAttack = readInt();
+            enemyDefense = readInt();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("replay header is cut off");
+        }
+        eventsStart = pos;
+    }
+
+    /**
+     * Load a replay file.
+     */
+    public static ReplayReader open(File file) throws IOException {
+        return new ReplayReader(Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * Move to the next event.
+     *
+     * @return false at the END marker (or if the file stops early, e.g. the game was closed mid-battle)
+     */
+    public boolean next() {
+        if (pos >= data.length) return false;
+        try {
+            return readEvent();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            pos = data.length;  // last event was cut off
+            return false;
+        }
+    }
+
+    private boolean readEvent() {
+        type = readInt();
+        switch (type) {
+            case ReplayRecorder.EVENT_PLAYER:
+                moveId = readInt();
+                damage = readInt();
+                playerHP = readInt();
+                playerMana = readInt();
+                enemyHPAfter = readInt();
+                return true;
+            case ReplayRecorder.EVENT_ENEMY:
+                moveId = readInt();
+                damage = readInt();
+                playerHP = readInt();
+                return true;
+            case ReplayRecorder.EVENT_STUNNED:
+                onPlayer = readInt() == 1;
+                moveId = readInt();
+                return true;
+            case ReplayRecorder.EVENT_EFFECT:
+                onPlayer = readInt() == 1;
+                effect = readInt();
+                damage = readInt();
+                hpAfter = readInt();
+                return true;
+            case ReplayRecorder.EVENT_VICTORY:
+                exp = readLong();
+                return true;
+            case ReplayRecorder.EVENT_DEFEAT:
+                return true;
+            case ReplayRecorder.EVENT_REWIND:
+                turn = readInt();
+                return true;
+            default:
+                return false;  // END
+        }
+    }
+
+    /**
+     * Go back to the first event.
+     */
+    public void rewind() {
+        pos = eventsStart;
+    }
+
+    /**
+     * @return true if the enemy's moves were picked by an AI (replay them as recorded, no dice)
+     */
+    public boolean enemyMovesRecorded() {
+        return (flags & ReplayRecorder.FLAG_ENEMY_AI) != 0;
+    }
+
+    private int readInt() {
+        return (int) readLong();
+    }
+
+    private long readLong() {
+        long v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[pos++];
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return v;
+    }
+
+    // ==================== PLAYING IT AGAIN ====================
+
+    /**
+     * A fresh session set up exactly like the recorded battle's start
+     * (same player, enemy stats and random generator position).
+     *
+     * @throws IOException if the player's class or the enemy no longer exist
+     */
+    public GameSession createSession() throws IOException {
+        Player player = Player.fromSaveString(playerSave);
+        if (player == null) throw new IOException("replay player can't be loaded: " + playerSave);
+        GameSession session = new GameSession("replay", 0, player, difficulty, new CombatRandom(rngState));
+        session.setEndless((flags & ReplayRecorder.FLAG_ENDLESS) != 0);
+        if (stage != 1) session.skipToStage(stage);
+
+        Enemy enemy = session.getEnemies()[0];  // the one the header describes
+        if (enemy.getType() != enemyType) throw new IOException("stage " + stage + " has a different enemy now");
+        enemy.maxHP = enemyMaxHP;
+        enemy.currentHP = enemyHP;
+        enemy.attack = enemyAttack;
+        enemy.defense = enemyDefense;
+        return session;
+    }
+
+    /**
+     * Play the recorded player moves (and AI enemy moves) through CombatEngine
+     * again and record the result.
+     *
+     * @return null if it comes out identical, otherwise what differs
+     */
+    public String verify() throws IOException {
+        GameSession session = createSession();
+        CombatEngine engine = new CombatEngine(session);
+        engine.keepHistory(RewindHistory.DEFAULT_TURNS);  // same as the game, so recorded rewinds work
+        ReplayRecorder again = new ReplayRecorder(engine, enemyMovesRecorded(), null);
+        engine.addListener(again);
+
+        rewind();
+        while (next()) {
+            boolean stunned = type == ReplayRecorder.EVENT_STUNNED;
+            if (type == ReplayRecorder.EVENT_PLAYER || (stunned && onPlayer)) {
+                Move move = Move.byId(moveId);
+                if (move == null) return "unknown move id " + moveId;
+                engine.playerTurn(move);
+            } else if (type == ReplayRecorder.EVENT_ENEMY || stunned) {
+                if (enemyMovesRecorded()) {
+                    Move move = Move.byId(moveId);
+                    if (move == null) return "unknown move id " + moveId;
+                    engine.enemyTurn(move);
+                } else {
+                    engine.enemyTurn();
+                }
+            } else if (type == ReplayRecorder.EVENT_REWIND) {
+                if (!engine.rewind()) return "can't rewind to turn " + turn;
+            }
+        }
+        again.close();
+
+        byte[] replayed = again.toByteArray();
+        int n = Math.min(replayed.length, data.length);
+        for (int i = 0; i < n; i++) {
+            if (replayed[i] != data[i]) return "differs at byte " + i;
+        }
+        if (replayed.length != data.length) {
+            return "length differs (" + data.length + " recorded, " + replayed.length + " replayed)";
+        }
+        return null;
+    }
+
+    // ==================== COMMAND LINE ====================
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java ReplayReader verify|dump|bench file.replay ...");
+            return;
+        }
+        String command = args[0];
+        int failed = 0;
+        for (int i = 1; i < args.length; i++) {
+            ReplayReader r = open(new File(args[i]));
+            switch (command) {
+                case "verify": {
+                    String problem = r.verify();
+                    System.out.println(args[i] + ": " + (problem == null ? "OK" : "MISMATCH - " + problem));
+                    if (problem != null) failed++;
+                    break;
+                }
+                case "dump":
+                    r.dump();
+                    break;
+                case "bench":
+                    r.bench();
+                    break;
+                default:
+                    System.err.println("Unknown command: " + command);
+                    return;
+            }
+        }
+        if (failed > 0) System.exit(1);
+    }
+
+    private void dump() {
+        System.out.println("stage " + stage + ", difficulty " + difficulty + ", player " + playerSave
+                + ", enemy type " + enemyType + " (" + enemyHP + "/" + enemyMaxHP + " HP, ATK " + enemyAttack + ")");
+        rewind();
+        while (next()) {
+            switch (type) {
+                case ReplayRecorder.EVENT_PLAYER:
+                    System.out.println("  player " + Move.byId(moveId) + " -> " + damage + " dmg | HP " + playerHP
+                            + ", MP " + playerMana + ", enemy HP " + enemyHPAfter);
+                    break;
+                case ReplayRecorder.EVENT_ENEMY:
+                    System.out.println("  enemy  " + Move.byId(moveId) + " -> " + damage + " dmg | HP " + playerHP);
+                    break;
+                case ReplayRecorder.EVENT_STUNNED:
+                    System.out.println("  " + (onPlayer ? "player" : "enemy ") + " stunned, lost " + Move.byId(moveId));
+                    break;
+                case ReplayRecorder.EVENT_EFFECT:
+                    System.out.println("  " + (onPlayer ? "player" : "enemy ") + " " + StatusEffects.NAMES[effect]
+                            + " -> " + damage + " dmg | HP " + hpAfter);
+                    break;
+                case ReplayRecorder.EVENT_VICTORY:
+                    System.out.println("  victory, +" + exp + " EXP");
+                    break;
+                case ReplayRecorder.EVENT_REWIND:
+                    System.out.println("  rewound to turn " + (turn + 1));
+                    break;
+                default:
+                    System.out.println("  defeat");
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Decode the replay over and over for about a second.
+     */
+    private void bench() {
+        long events = 0;
+        long checksum = 0;
+        long start = System.nanoTime();
+        long end = start + 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            for (int rep = 0; rep < 1000; rep++) {
+                rewind();
+                while (next()) {
+                    events++;
+                    checksum += damage;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d events in %.2f s (%.0f events/s, checksum %d)%n", events, seconds, events / seconds, checksum);
+    }
+}
@@ -0,0 +1,258 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ReplayRecorder.java - Records a battle, turn by turn, into a small binary file
+ *
+ * Listens to a CombatEngine like GameManager does and writes down everything
+ * needed to watch the battle again or check that it still plays out the same:
+ *
+ *   header:  MAGIC, version, flags, difficulty, stage,
+ *            the session's random generator state (so the enemy's dice rolls
+ *            can be redone), the player's save string, the (first) enemy's
+ *            type and stats - a swarm's other enemies come from the stage
+ *   events:  PLAYER  move id, damage, player HP, player mana, target enemy's HP
+ *            ENEMY   move id, damage, player HP
+ *            STUNNED side (1 = player, 0 = enemy), id of the move it lost
+ *            EFFECT  side, effect (StatusEffects), damage, that side's HP
+ *            REWIND  player turns taken after going back (CombatEngine.rewind)
+ *
+ * Which enemy acts when isn't written down: the initiative queue works it
+ * out again from the same speeds.
+ *            VICTORY EXP gained
+ *            DEFEAT
+ *            END     (written by close())
+ *
+ * Every number is a varint: 7 bits per byte, high bit set on all bytes but
+ * the last, so anything under 128 (most of a battle) takes one byte. A whole
+ * turn is usually about 10 bytes. ReplayReader reads the format back.
+ *
+ * The bytes are built up in memory on the caller's thread (cheap), and at the
+ * end of every turn the new part is handed to a background writer thread, so
+ * the Swing thread never waits for the disk. With no file the recorder just
+ * keeps the bytes (ReplayReader.verify uses that).
+ */
+public class ReplayRecorder implements CombatEngine.CombatListener {
+
+    // ==================== FORMAT ====================
+    public static final int MAGIC = 0x45425250;      // "EBRP"
+    public static final int VERSION = 5;             // 2: status effects (STUNNED, EFFECT events), 3: defense + crits, 4: REWIND, 5: effects tick per action
+
+    public static final int EVENT_END = 0;
+    public static final int EVENT_PLAYER = 1;
+    public static final int EVENT_ENEMY = 2;
+    public static final int EVENT_VICTORY = 3;
+    public static final int EVENT_DEFEAT = 4;
+    public static final int EVENT_STUNNED = 5;
+    public static final int EVENT_EFFECT = 6;
+    public static final int EVENT_REWIND = 7;
+
+    public static final int FLAG_ENEMY_AI = 1;       // enemy moves were picked by MctsEnemyAI, not dice
+    public static final int FLAG_ENDLESS = 2;        // endless mode session (stage may be past the campaign)
+
+    public static final String REPLAY_DIR = "replays";
+
+    // One daemon thread writes every replay, in the order chunks are handed over
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "replay-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final GameSession session;
+    private final CombatEngine engine;
+    private final File file;          // null = memory only
+    private byte[] buf = new byte[256];
+    private int len;                  // bytes recorded so far
+    private int written;              // bytes already handed to the writer
+    private OutputStream out;         // only touched on the writer thread
+    private boolean closed;
+
+    /**
+     * Start recording a battle that's about to begin (writes the header).
+     *
+     * @param engine - the battle, before the first turn (add the recorder as its listener)
+     * @param enemyAI - true if the enemy's moves come from an AI instead of session's dice
+     * @param file - where to write, or null to keep the replay in memory only
+     */
+    public ReplayRecorder(CombatEngine engine, boolean enemyAI, File file) {
+        this.engine = engine;
+        this.session = engine.getSession();
+        this.file = file;
+        Player player = session.getPlayer();
+        Enemy enemy = session.getEnemies()[0];
+
+        writeInt(MAGIC);
+        writeVarint(VERSION);
+        writeVarint((enemyAI ? FLAG_ENEMY_AI : 0) | (session.isEndless() ? FLAG_ENDLESS : 0));
+        writeVarint(session.getDifficulty());
+        writeVarint(session.getStage());
+        writeLong(session.getRandom().getState());
+        writeString(player.toSaveString());
+        writeVarint(enemy.getType());
+        writeVarint(enemy.getMaxHP());
+        writeVarint(enemy.getCurrentHP());
+        writeVarint(enemy.getAttack());
+        writeVarint(enemy.getDefense());
+    }
+
+    /**
+     * A new file in REPLAY_DIR for a player's battle, e.g. replays/bob_slot1_stage2_1700000000000.replay
+     */
+    public static File newReplayFile(GameSession session) {
+        return new File(REPLAY_DIR, session.getUsername() + "_slot" + session.getSaveSlot()
+                + "_stage" + session.getStage() + "_" + System.currentTimeMillis() + ".replay");
+    }
+
+    // ==================== EVENTS ====================
+
+    @Override
+    public void playerActed(Move move, int damage) {
+        Player player = session.getPlayer();
+        writeVarint(EVENT_PLAYER);
+        writeVarint(move.getId());
+        writeVarint(damage);
+        writeVarint(player.getCurrentHP());
+        writeVarint(player.getCurrentMana());
+        writeVarint(engine.getTarget().getCurrentHP());
+    }
+
+    @Override
+    public void enemyActed(Move move, int damage) {
+        writeVarint(EVENT_ENEMY);
+        writeVarint(move.getId());
+        writeVarint(damage);
+        writeVarint(session.getPlayer().getCurrentHP());
+        flush();  // end of a turn
+    }
+
+    @Override
+    public void stunned(boolean player, Move move) {
+        writeVarint(EVENT_STUNNED);
+        writeVarint(player ? 1 : 0);
+        writeVarint(move.getId());
+        if (!player) flush();  // the enemy's lost move ends the turn's actions
+    }
+
+    @Override
+    public void effectDamage(boolean player, int effect, int damage) {
+        writeVarint(EVENT_EFFECT);
+        writeVarint(player ? 1 : 0);
+        writeVarint(effect);
+        writeVarint(damage);
+        writeVarint(player ? session.getPlayer().getCurrentHP() : engine.getActingEnemy().getCurrentHP());
+    }
+
+    @Override
+    public void victory(long expGained) {
+        writeVarint(EVENT_VICTORY);
+        writeVarint(expGained);
+        flush();
+    }
+
+    @Override
+    public void defeat() {
+        writeVarint(EVENT_DEFEAT);
+        flush();
+    }
+
+    @Override
+    public void rewound(int turn) {
+        writeVarint(EVENT_REWIND);
+        writeVarint(turn);
+        flush();
+    }
+
+    /**
+     * Finish the replay (END marker) and close the file.
+     *
+     * @return completes with the file once everything is on disk (null for memory-only replays)
+     */
+    public CompletableFuture<File> close() {
+        if (!closed) {
+            closed = true;
+            writeVarint(EVENT_END);
+            flush();
+        }
+        if (file == null) return CompletableFuture.completedFuture(null);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                if (out != null) out.close();
+            } catch (IOException e) {
+                System.err.println("Could not finish replay " + file + ": " + e.getMessage());
+            }
+            out = null;
+            return file;
+        }, WRITER);
+    }
+
+    /**
+     * @return a copy of everything recorded so far
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, len);
+    }
+
+    // ==================== WRITING ====================
+
+    /**
+     * Hand the bytes recorded since the last flush to the writer thread.
+     */
+    private void flush() {
+        if (file == null || written == len) return;
+        byte[] chunk = Arrays.copyOfRange(buf, written, len);
+        written = len;
+        WRITER.execute(() -> {
+            try {
+                if (out == null) {
+                    if (file.getParentFile() != null) file.getParentFile().mkdirs();
+                    out = new FileOutputStream(file);
+                }
+                out.write(chunk);
+            } catch (IOException e) {
+                System.err.println("Could not write replay " + file + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private void ensure(int extra) {
+        if (len + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+    }
+
+    /**
+     * Unsigned LEB128 varint (negative numbers would take 10 bytes; nothing recorded is negative).
+     */
+    private void writeVarint(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf[len++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[len++] = (byte) v;
+    }
+
+    private void writeInt(int v) {
+        ensure(4);
+        for (int shift = 24; shift >= 0; shift -= 8) buf[len++] = (byte) (v >>> shift);
+    }
+
+    private void writeLong(long v) {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) buf[len++] = (byte) (v >>> shift);
+    }
+
+    private void writeString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, len, bytes.length);
+        len += bytes.length;
+    }
+}
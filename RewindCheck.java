@@ -0,0 +1,227 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * RewindCheck.java - Checks that rewinding puts a battle back exactly how it was
+ *
+ * Plays battles for every class on both difficulties, campaign and endless
+ * (swarm) stages, with random moves, and rewinds about one player turn in
+ * four. Before every player turn it writes down the whole state the player
+ * could ever notice:
+ *
+ *   turn count, the dice's position, the player's HP/mana/attack/defense,
+ *   status effects and class data (Barbarian's Rush combo, Archer's dodges,
+ *   ...), the full save string, every enemy's numbers and effects, the
+ *   session's round statistics and which enemy is targeted
+ *
+ * and after every rewind checks the battle is back to exactly that. The
+ * initiative timeline can't be looked at from outside, so half the time
+ * after a rewind the same move is played again: with the same dice and the
+ * same timeline the turn must play out move for move the same (same events,
+ * same state afterwards).
+ *
+ * Usage:
+ *   java RewindCheck [--battles N] [--seed N]     (default 2000 battles)
+ *
+ * Exit code: 0 = every rewind was exact, 1 = bad arguments, 2 = one wasn't.
+ */
+public class RewindCheck {
+
+    private static final String[] CLASSES = { "Barbarian", "Archer", "Mage" };
+    private static final int[] STAGES = { 1, 2, 3, 8, 13, 18, 28, 53 };   // past the campaign = endless
+    private static final String[] PARTS = { "turn", "dice", "player", "save", "enemies", "round stats", "target" };
+    private static final int MAX_TURNS = 400;     // safety limit per battle (rewinds count too)
+    private static final int REWIND_CHANCE = 4;   // 1 in this many player turns is taken back
+    private static final int MAX_REPORTS = 10;    // problems printed before we just count them
+
+    /**
+     * Writes down what happens during a turn, in order.
+     */
+    private static final class TurnLog implements CombatEngine.CombatListener {
+        final StringBuilder events = new StringBuilder();
+
+        @Override
+        public void playerActed(Move move, int damage) { events.append("P").append(move.getId()).append(':').append(damage).append(' '); }
+
+        @Override
+        public void enemyActed(Move move, int damage) { events.append("E").append(move.getId()).append(':').append(damage).append(' '); }
+
+        @Override
+        public void criticalHit(boolean player) { events.append(player ? "C+ " : "C- "); }
+
+        @Override
+        public void stunned(boolean player, Move move) { events.append(player ? "S+" : "S-").append(move.getId()).append(' '); }
+
+        @Override
+        public void effectDamage(boolean player, int effect, int damage) {
+            events.append(player ? "F+" : "F-").append(effect).append(':').append(damage).append(' ');
+        }
+
+        @Override
+        public void victory(long expGained) { events.append("V").append(expGained).append(' '); }
+
+        @Override
+        public void defeat() { events.append("D "); }
+    }
+
+    /**
+     * One player turn as it was first played.
+     */
+    private static final class Turn {
+        String[] before;   // state at the start of the turn
+        Move move;
+        String events;
+        String[] after;    // state once the enemies have answered
+    }
+
+    private static int problems = 0;
+
+    public static void main(String[] args) {
+        int battles = 2000;
+        long seed = 7;
+
+        // Same "--name value" argument parsing as BalanceSimulator
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + args[i]);
+                System.exit(1);
+            }
+            switch (args[i]) {
+                case "--battles": battles = Integer.parseInt(args[++i]); break;
+                case "--seed":    seed = Long.parseLong(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        GameData data = GameData.get();
+        CombatRandom dice = new CombatRandom(seed);
+        long rewinds = 0;
+        long replays = 0;
+        for (int b = 0; b < battles; b++) {
+            String className = CLASSES[b % CLASSES.length];
+            int difficulty = 1 + (b / CLASSES.length) % 2;
+            int stage = STAGES[(b / (CLASSES.length * 2)) % STAGES.length];
+            GameSession session = new GameSession("check", 1, Player.create(className, "Check"), difficulty, dice.split());
+            session.setEndless(stage > data.stageCount);
+            if (stage != 1) session.skipToStage(stage);
+            String name = "battle " + b + " (" + className + ", difficulty " + difficulty + ", stage " + stage + ")";
+
+            long[] counts = play(session, dice.split(), name);
+            rewinds += counts[0];
+            replays += counts[1];
+        }
+
+        System.out.println(battles + " battles, " + rewinds + " rewinds (" + replays
+            + " turns played again), " + problems + " problems");
+        System.exit(problems == 0 ? 0 : 2);
+    }
+
+    /**
+     * Play one battle, rewinding now and then.
+     *
+     * @param rng - the moves' and rewinds' dice
+     * @param name - the battle, for messages
+     * @return { rewinds, turns played again after a rewind }
+     */
+    private static long[] play(GameSession session, CombatRandom rng, String name) {
+        CombatEngine engine = new CombatEngine(session);
+        engine.keepHistory(RewindHistory.DEFAULT_TURNS);
+        TurnLog log = new TurnLog();
+        engine.addListener(log);
+
+        Player player = session.getPlayer();
+        RandomPolicy policy = new RandomPolicy(rng);
+        HashMap<Integer, Turn> turns = new HashMap<>();   // by turn count at the start
+        long rewinds = 0;
+        long replays = 0;
+        boolean justRewound = false;
+        for (int steps = 0; !engine.isOver() && steps < MAX_TURNS; steps++) {
+            if (engine.canRewind() && rng.nextInt(REWIND_CHANCE) == 0) {
+                engine.rewind();
+                rewinds++;
+                Turn first = turns.get(engine.getTurn());
+                compare(name + ", rewound to turn " + engine.getTurn(), first.before, state(engine));
+                justRewound = true;
+                continue;
+            }
+
+            Turn first = turns.get(engine.getTurn());
+            boolean again = justRewound && rng.nextInt(2) == 0;
+            justRewound = false;
+
+            Turn turn = new Turn();
+            turn.before = state(engine);
+            turn.move = again ? first.move : policy.chooseAction(player, session.getCurrentEnemy());
+            log.events.setLength(0);
+            engine.runTurn(turn.move);
+            turn.events = log.events.toString();
+            turn.after = state(engine);
+
+            if (again) {
+                replays++;
+                String where = name + ", turn " + first.before[0] + " played again";
+                if (!turn.events.equals(first.events)) {
+                    report(where + ": events [" + turn.events.trim() + "], first time [" + first.events.trim() + "]");
+                }
+                compare(where, first.after, turn.after);
+            }
+            turns.put(Integer.parseInt(turn.before[0]), turn);
+        }
+        return new long[] { rewinds, replays };
+    }
+
+    // ==================== STATE ====================
+
+    /**
+     * Everything about the battle a rewind has to put back, one string per
+     * entry of PARTS.
+     */
+    private static String[] state(CombatEngine engine) {
+        GameSession session = engine.getSession();
+        Player p = session.getPlayer();
+        Enemy[] enemies = session.getEnemies();
+
+        StringBuilder enemyText = new StringBuilder();
+        for (Enemy e : enemies) {
+            enemyText.append(e.getCurrentHP()).append('/').append(e.getMaxHP()).append(',')
+                .append(e.getAttack()).append(',').append(e.getDefense()).append(',')
+                .append(effects(e.getEffects())).append(' ');
+        }
+        return new String[] {
+            String.valueOf(engine.getTurn()),
+            String.valueOf(session.getRandom().getState()),
+            p.getCurrentHP() + "/" + p.getMaxHP() + "," + p.getCurrentMana() + "/" + p.getMaxMana() + ","
+                + p.getAttack() + "," + p.getDefense() + "," + effects(p.getEffects()) + ",[" + p.getClassData() + "]",
+            p.toSaveString(),
+            enemyText.toString(),
+            session.getRoundsDamageDealt() + "," + session.getRoundsDamageTaken() + "," + session.getRoundsExperienceGained(),
+            String.valueOf(Arrays.asList(enemies).indexOf(engine.getTarget()))
+        };
+    }
+
+    private static String effects(StatusEffects fx) {
+        StringBuilder sb = new StringBuilder().append(fx.getActive());
+        for (int e = 0; e < StatusEffects.COUNT; e++) {
+            sb.append(':').append(fx.getTurns(e)).append('x').append(fx.getPower(e));
+        }
+        return sb.toString();
+    }
+
+    private static void compare(String where, String[] expected, String[] actual) {
+        ArrayList<String> wrong = new ArrayList<>();
+        for (int i = 0; i < PARTS.length; i++) {
+            if (!expected[i].equals(actual[i])) {
+                wrong.add(PARTS[i] + " " + actual[i].trim() + ", should be " + expected[i].trim());
+            }
+        }
+        if (!wrong.isEmpty()) report(where + ": " + String.join("; ", wrong));
+    }
+
+    private static void report(String problem) {
+        problems++;
+        if (problems <= MAX_REPORTS) System.out.println(problem);
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * RewindHistory.java - The last few turns of a battle, for rewinding
+ *
+ * A ring of CombatSnapshots, newest last. When it's full the oldest turn is
+ * dropped to make room, so a long battle can't use more memory than
+ * `turns` snapshots (and those share most of their parts anyway).
+ */
+public final class RewindHistory {
+
+    public static final int DEFAULT_TURNS = 50;   // more than most battles last
+
+    private final CombatSnapshot[] ring;
+    private int start;   // index of the oldest snapshot
+    private int size;
+
+    /**
+     * @param turns - how many snapshots to keep (at least 1)
+     */
+    public RewindHistory(int turns) {
+        ring = new CombatSnapshot[Math.max(1, turns)];
+    }
+
+    /**
+     * Keep a snapshot as the newest (dropping the oldest if full).
+     */
+    public void push(CombatSnapshot snapshot) {
+        if (size == ring.length) {
+            ring[start] = snapshot;
+            start = (start + 1) % ring.length;
+        } else {
+            ring[(start + size++) % ring.length] = snapshot;
+        }
+    }
+
+    /**
+     * @return the newest snapshot, or null if there are none
+     */
+    public CombatSnapshot peek() {
+        return size == 0 ? null : ring[(start + size - 1) % ring.length];
+    }
+
+    /**
+     * Remove the newest snapshot.
+     *
+     * @return it, or null if there are none
+     */
+    public CombatSnapshot pop() {
+        if (size == 0) return null;
+        int i = (start + --size) % ring.length;
+        CombatSnapshot s = ring[i];
+        ring[i] = null;
+        return s;
+    }
+
+    public void clear() {
+        for (int i = 0; i < ring.length; i++) ring[i] = null;
+        start = 0;
+        size = 0;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int capacity() { return ring.length; }
+}
@@ -1,3 +1,6 @@
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
@@ -7,6 +10,7 @@ import java.util.*;
  * - Saving player data to text files
  * - Loading player data from text files
  * - Checking if saves exist
+ * - Reading save summaries (for the save-select screen) without loading the Player
  * - Deleting saves
  * 
  * className,characterName,level,currentHP,maxHP,currentMana,maxMana,attack,defense,experience,classData
@@ -16,6 +20,13 @@ public class SaveFileManager {
     // Path to the saves folder
     private static final String SAVES_PATH = "saves/";
     
+    // Thumbnails (username_slotN.thumb next to the save)
+    public static final int THUMBNAIL_SIZE = 32;
+    private static final int THUMBNAIL_MAGIC = 0x45425448;   // "EBTH"
+    
+    // Summary index: username -> (slot -> summary), see getSummary()
+    private static HashMap<String, HashMap<Integer, SaveSummary>> summaries = new HashMap<>();
+    
     /**
      * Static initializer block - runs when the class is first loaded.
      * 
@@ -35,6 +46,16 @@ public class SaveFileManager {
     
     /**
      * Save player data to a text file.
+     * 
+     * The line is written to a temp file in the saves folder first and then
+     * moved over the real save in one step, so a crash (or a nightly
+     * AutoBattle job being killed) halfway through never leaves a
+     * half-written save behind - it's either the old one or the new one.
+     * 
+     * If the class's sprites are already loaded (i.e. saving from the game,
+     * not AutoBattle) a small thumbnail is saved next to it for the
+     * save-select screen.
+     * 
      * @param username - the logged-in player's username
      * @param saveSlot - which slot (1 or 2)
      * @param player - the Player object to save
@@ -42,18 +63,58 @@ public class SaveFileManager {
      */
     public static boolean savePlayer(String username, int saveSlot, Player player) {
         // Build the filename: saves/username_slot1.txt
-        String filename = SAVES_PATH + username + "_slot" + saveSlot + ".txt";
+        Path target = saveFile(username, saveSlot).toPath();
         
-        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(filename)))) {
+        try {
             // Get the player's data as a single CSV line and write it
-            writer.println(player.toSaveString());
-            return true;  // success
-            
+            writeAtomically(target, (player.toSaveString() + System.lineSeparator()).getBytes());
         } catch (IOException e) {
-            // Something went wrong 
+            // Something went wrong - the old save (if any) is untouched
             e.printStackTrace();
             return false;
         }
+        
+        BufferedImage thumbnail = makeThumbnail(player);
+        if (thumbnail != null) {
+            try {
+                writeAtomically(thumbnailFile(username, saveSlot).toPath(), encodeThumbnail(thumbnail));
+            } catch (IOException e) {
+                // Only a picture - the save itself worked
+                System.err.println("Could not save thumbnail: " + e.getMessage());
+                thumbnail = null;
+            }
+        }
+        
+        // Keep the summary index up to date without reading the file back
+        synchronized (SaveFileManager.class) {
+            HashMap<Integer, SaveSummary> index = userIndex(username);
+            if (thumbnail == null) {
+                // No new picture: keep the one saved last time (if any)
+                SaveSummary old = index.get(saveSlot);
+                thumbnail = old != null ? old.getThumbnail() : readThumbnail(thumbnailFile(username, saveSlot));
+            }
+            index.put(saveSlot, SaveSummary.of(saveSlot, player, target.toFile().lastModified(), thumbnail));
+        }
+        return true;  // success
+    }
+    
+    /**
+     * Write a file so that it's either all there or not changed at all:
+     * write a temp file in the same folder, then move it over the target.
+     */
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, bytes);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                // Some file systems can't do it in one step - still better than writing in place
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);  // only still there if something failed
+        }
     }
     
     /**
@@ -68,9 +129,9 @@ public class SaveFileManager {
      */
     public static Player loadPlayer(String username, int saveSlot) {
         // Build the filename to look for
-        String filename = SAVES_PATH + username + "_slot" + saveSlot + ".txt";
+        File file = saveFile(username, saveSlot);
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             // Read the first  line
             String line = reader.readLine();
             
@@ -90,17 +151,164 @@ public class SaveFileManager {
     
 
     public static boolean saveSlotExists(String username, int saveSlot) {
-        File file = new File(SAVES_PATH + username + "_slot" + saveSlot + ".txt");
-        return file.exists();
+        return saveFile(username, saveSlot).exists();
+    }
+    
+    // ==================== SAVE SUMMARIES ====================
+    
+    /**
+     * Get the header of a save (name, class, level, max HP/mana, last played,
+     * thumbnail) without creating the Player.
+     * 
+     * Summaries are kept in a per-user index: the saves folder is scanned
+     * once per user, savePlayer/deleteSave keep the index up to date, and a
+     * summary is only read again if its file changed on disk (e.g. an
+     * AutoBattle job wrote it), which costs one file-date check.
+     * 
+     * @param username - username
+     * @param saveSlot - slot to look at
+     * @return the summary, or null if the slot is empty (or the save is broken)
+     */
+    public static synchronized SaveSummary getSummary(String username, int saveSlot) {
+        HashMap<Integer, SaveSummary> index = userIndex(username);
+        SaveSummary summary = index.get(saveSlot);
+        long modified = saveFile(username, saveSlot).lastModified();  // 0 if there's no file
+        if (summary != null && summary.getLastPlayed() == modified) {
+            return summary;
+        }
+        
+        // Not indexed yet, or changed on disk - read it again
+        summary = modified == 0 ? null : readSummary(username, saveSlot);
+        if (summary == null) {
+            index.remove(saveSlot);
+        } else {
+            index.put(saveSlot, summary);
+        }
+        return summary;
+    }
+    
+    /**
+     * The index of a user's saves (slot -> summary), built the first time.
+     */
+    private static HashMap<Integer, SaveSummary> userIndex(String username) {
+        HashMap<Integer, SaveSummary> index = summaries.get(username);
+        if (index == null) {
+            index = new HashMap<>();
+            for (int slot : scanSaveSlots(username)) {
+                SaveSummary summary = readSummary(username, slot);
+                if (summary != null) index.put(slot, summary);
+            }
+            summaries.put(username, index);
+        }
+        return index;
+    }
+    
+    /**
+     * Read the first line of a save and its thumbnail.
+     */
+    private static SaveSummary readSummary(String username, int saveSlot) {
+        File file = saveFile(username, saveSlot);
+        long modified = file.lastModified();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            return SaveSummary.parse(saveSlot, reader.readLine(), modified, readThumbnail(thumbnailFile(username, saveSlot)));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    // ==================== THUMBNAILS ====================
+    
+    /**
+     * A small picture of the character from the first idle frame, if the
+     * class's sprites are loaded already (never loads them just for this).
+     * 
+     * @return THUMBNAIL_SIZE x THUMBNAIL_SIZE image, or null
+     */
+    private static BufferedImage makeThumbnail(Player player) {
+        AnimationSet set = AnimationSet.loadedForClass(player.getClassIndex());
+        List<BufferedImage> idle = set == null ? null : set.getFrames("idle");
+        if (idle == null) return null;
+        
+        // Scale to fit, keeping the shape, centered on a transparent square
+        BufferedImage frame = idle.get(0);
+        double scale = (double) THUMBNAIL_SIZE / Math.max(frame.getWidth(), frame.getHeight());
+        int w = Math.max(1, (int) Math.round(frame.getWidth() * scale));
+        int h = Math.max(1, (int) Math.round(frame.getHeight() * scale));
+        BufferedImage thumb = new BufferedImage(THUMBNAIL_SIZE, THUMBNAIL_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = thumb.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(frame, (THUMBNAIL_SIZE - w) / 2, (THUMBNAIL_SIZE - h) / 2, w, h, null);
+        g.dispose();
+        return thumb;
+    }
+    
+    /**
+     * Thumbnail file format: MAGIC, width, height, then width * height ARGB
+     * ints, row by row. Raw pixels instead of a PNG so showing it needs no
+     * image decoding at all (4 KB at 32x32).
+     */
+    private static byte[] encodeThumbnail(BufferedImage img) throws IOException {
+        int w = img.getWidth();
+        int h = img.getHeight();
+        int[] pixels = img.getRGB(0, 0, w, h, null, 0, w);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8 + pixels.length * 4);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(THUMBNAIL_MAGIC);
+        out.writeShort(w);
+        out.writeShort(h);
+        for (int p : pixels) out.writeInt(p);
+        out.flush();
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * @return the thumbnail, or null if there isn't one (or it's broken)
+     */
+    private static BufferedImage readThumbnail(File file) {
+        if (!file.exists()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != THUMBNAIL_MAGIC) return null;
+            int w = in.readUnsignedShort();
+            int h = in.readUnsignedShort();
+            if (w == 0 || h == 0 || w > 256 || h > 256) return null;
+            int[] pixels = new int[w * h];
+            for (int i = 0; i < pixels.length; i++) pixels[i] = in.readInt();
+            BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            img.setRGB(0, 0, w, h, pixels, 0, w);
+            return img;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    private static File saveFile(String username, int saveSlot) {
+        return new File(SAVES_PATH + username + "_slot" + saveSlot + ".txt");
+    }
+    
+    private static File thumbnailFile(String username, int saveSlot) {
+        return new File(SAVES_PATH + username + "_slot" + saveSlot + ".thumb");
     }
     
     /**
-     * Get all save slot numbers for a user.
+     * Get all save slot numbers for a user (from the summary index, so the
+     * folder is only listed the first time).
      * 
      * @param username - username to check
      * @return List of slot numbers that have saves
      */
-    public static List<Integer> getUserSaveSlots(String username) {
+    public static synchronized List<Integer> getUserSaveSlots(String username) {
+        List<Integer> slots = new ArrayList<>(userIndex(username).keySet());
+        Collections.sort(slots);
+        return slots;
+    }
+    
+    /**
+     * List the saves folder for a user's save files.
+     * 
+     * @param username - username to check
+     * @return slot numbers that have save files
+     */
+    private static List<Integer> scanSaveSlots(String username) {
         List<Integer> slots = new ArrayList<>();
         
         try {
@@ -115,11 +323,13 @@ public class SaveFileManager {
                 String filename = path.getFileName().toString();
                 // Remove prefix and suffix to get just the number
                 String slotStr = filename.replace(username + "_slot", "").replace(".txt", "");
-                slots.add(Integer.parseInt(slotStr));
+                try {
+                    slots.add(Integer.parseInt(slotStr));
+                } catch (NumberFormatException e) {
+                    // not a save (e.g. someone's "bob_slot1 copy.txt")
+                }
             }
-            
-            // Sort so slots appear in order
-            Collections.sort(slots);
+            stream.close();
             
         } catch (IOException e) {
             e.printStackTrace();
@@ -135,11 +345,14 @@ public class SaveFileManager {
      * @return true if file was deleted, false otherwise
      */
     public static boolean deleteSave(String username, int saveSlot) {
+        synchronized (SaveFileManager.class) {
+            HashMap<Integer, SaveSummary> index = summaries.get(username);
+            if (index != null) index.remove(saveSlot);
+        }
         try {
+            Files.deleteIfExists(thumbnailFile(username, saveSlot).toPath());
             // deleteIfExists returns true if file existed and was deleted
-            return Files.deleteIfExists(
-                Paths.get(SAVES_PATH + username + "_slot" + saveSlot + ".txt")
-            );
+            return Files.deleteIfExists(saveFile(username, saveSlot).toPath());
         } catch (IOException e) {
             return false;
         }
@@ -69,9 +69,7 @@ public class SaveManager extends JPanel {
      */
     private void initializeUI() {
         // ========== TITLE ==========
-        JLabel titleLabel = new JLabel("SELECT SAVE");
-        titleLabel.setFont(new Font("CASTELLAR", Font.BOLD, 42));
-        titleLabel.setForeground(Color.BLACK);
+        JLabel titleLabel = new JLabel(FontManager.textIcon("SELECT SAVE", FontManager.castellar(Font.BOLD, 42), Color.BLACK));
         titleLabel.setHorizontalAlignment(JLabel.CENTER);
         titleLabel.setBounds(200, 100, 600, 50);
         add(titleLabel);
@@ -103,34 +101,48 @@ public class SaveManager extends JPanel {
         
         // ========== SLOT TITLE ==========
         JLabel slotTitle = new JLabel("SAVE SLOT #" + slotNumber);
-        slotTitle.setFont(new Font("CASTELLAR", Font.BOLD, 20));
+        slotTitle.setFont(FontManager.castellar(Font.BOLD, 20));
         slotTitle.setForeground(new Color(218, 165, 32));  // gold
         slotTitle.setBounds(10, 5, 200, 30);
         slotPanel.add(slotTitle);
         
-        // Check if this slot has save data
-        boolean slotExists = SaveFileManager.saveSlotExists(username, slotNumber);
+        // Check if this slot has save data (just the header - no Player, no sprites)
+        SaveSummary summary = SaveFileManager.getSummary(username, slotNumber);
+        boolean slotExists = summary != null || SaveFileManager.saveSlotExists(username, slotNumber);
         
         if (slotExists) {
             // ========== SLOT HAS DATA - Show player info ==========
-            Player player = SaveFileManager.loadPlayer(username, slotNumber);
-            
-            if (player != null) {
+            if (summary != null) {
                 // Format player info string
                 String playerInfo = String.format(
                     "%s | Class: %s | Level: %d | HP: %d | Mana: %d",
-                    player.getCharacterName(),
-                    player.getClassName(),
-                    player.getLevel(),
-                    player.getMaxHP(),
-                    player.getMaxMana()
+                    summary.getCharacterName(),
+                    summary.getClassName(),
+                    summary.getLevel(),
+                    summary.getMaxHP(),
+                    summary.getMaxMana()
                 );
                 
                 JLabel playerLabel = new JLabel(playerInfo);
-                playerLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+                playerLabel.setFont(FontManager.arial(Font.PLAIN, 14));
                 playerLabel.setForeground(Color.WHITE);
                 playerLabel.setBounds(10, 35, 580, 30);
                 slotPanel.add(playerLabel);
+                
+                // When it was last saved
+                JLabel playedLabel = new JLabel("Last played: "
+                    + new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm").format(new java.util.Date(summary.getLastPlayed())));
+                playedLabel.setFont(FontManager.arial(Font.PLAIN, 12));
+                playedLabel.setForeground(Color.LIGHT_GRAY);
+                playedLabel.setBounds(60, 75, 230, 30);
+                slotPanel.add(playedLabel);
+                
+                // Saved thumbnail (raw pixels, nothing to decode)
+                if (summary.getThumbnail() != null) {
+                    JLabel thumbLabel = new JLabel(new ImageIcon(summary.getThumbnail()));
+                    thumbLabel.setBounds(15, 74, SaveFileManager.THUMBNAIL_SIZE, SaveFileManager.THUMBNAIL_SIZE);
+                    slotPanel.add(thumbLabel);
+                }
             }
             
             // ========== LOAD SAVE BUTTON ==========
@@ -190,7 +202,7 @@ public class SaveManager extends JPanel {
      */
     private JButton createSlotButton(String text) {
         JButton btn = new JButton(text);
-        btn.setFont(new Font("CASTELLAR", Font.BOLD, 12));
+        btn.setFont(FontManager.castellar(Font.BOLD, 12));
         btn.setForeground(Color.BLACK);
         btn.setBackground(new Color(218, 165, 32));  // gold
         btn.setFocusPainted(false);
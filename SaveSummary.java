@@ -0,0 +1,85 @@
+import java.awt.image.BufferedImage;
+
+/**
+ * SaveSummary.java - The few things the save-select screen shows about a save
+ *
+ * Reading a save used to mean building the whole Player (subclass and all)
+ * just to print "name | class | level". A summary is only the header
+ * fields of the save line plus when the file was last written, so the
+ * screen can list saves without creating any characters.
+ *
+ * Summaries come from SaveFileManager.getSummary(), which keeps them cached.
+ * Immutable.
+ */
+public final class SaveSummary {
+
+    private final int slot;
+    private final String characterName;
+    private final String className;
+    private final int level;
+    private final int maxHP;
+    private final int maxMana;
+    private final long lastPlayed;          // save file's last-modified time (ms)
+    private final BufferedImage thumbnail;  // small sprite picture, or null if the save has none
+
+    /**
+     * @param slot - save slot number
+     * @param characterName - the character's name
+     * @param className - Barbarian, Archer, Mage, ...
+     * @param level - character level
+     * @param maxHP - max HP
+     * @param maxMana - max mana
+     * @param lastPlayed - when the save was written (ms since 1970)
+     * @param thumbnail - small picture of the character, or null
+     */
+    public SaveSummary(int slot, String characterName, String className, int level, int maxHP, int maxMana,
+                       long lastPlayed, BufferedImage thumbnail) {
+        this.slot = slot;
+        this.characterName = characterName;
+        this.className = className;
+        this.level = level;
+        this.maxHP = maxHP;
+        this.maxMana = maxMana;
+        this.lastPlayed = lastPlayed;
+        this.thumbnail = thumbnail;
+    }
+
+    /**
+     * Read the header fields of a save line (same format as Player.toSaveString)
+     * without creating the Player.
+     *
+     * className,characterName,level,currentHP,maxHP,currentMana,maxMana,...
+     *
+     * @return the summary, or null if the line isn't a valid save
+     */
+    public static SaveSummary parse(int slot, String line, long lastPlayed, BufferedImage thumbnail) {
+        if (line == null) return null;
+        String[] parts = line.split(",", 8);  // only need the first 7 fields
+        if (parts.length < 7) return null;
+        try {
+            return new SaveSummary(slot, parts[1], parts[0], Integer.parseInt(parts[2]),
+                Integer.parseInt(parts[4]), Integer.parseInt(parts[6]), lastPlayed, thumbnail);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Summary of a character that's about to be saved (no need to read it back).
+     */
+    public static SaveSummary of(int slot, Player player, long lastPlayed, BufferedImage thumbnail) {
+        return new SaveSummary(slot, player.getCharacterName(), player.getClassName(), player.getLevel(),
+            player.getMaxHP(), player.getMaxMana(), lastPlayed, thumbnail);
+    }
+
+    //  GETTERS
+
+    public int getSlot() { return slot; }
+    public String getCharacterName() { return characterName; }
+    public String getClassName() { return className; }
+    public int getLevel() { return level; }
+    public int getMaxHP() { return maxHP; }
+    public int getMaxMana() { return maxMana; }
+    public long getLastPlayed() { return lastPlayed; }
+    public BufferedImage getThumbnail() { return thumbnail; }
+}
@@ -0,0 +1,73 @@
+/**
+ * ScriptedPolicy.java - Plays a fixed list of moves over and over
+ *
+ * Example: new ScriptedPolicy("Rush", "Punch") always does the Barbarian
+ * combo. The script keeps going from where it was, even across stages.
+ */
+public class ScriptedPolicy implements PlayerPolicy {
+
+    private String[] script;   // the move names to cycle through
+    private Move[] moves;      // script looked up in the player's move table (on first use)
+    private int next;          // index of the next move to play
+
+    /**
+     * @param script - move names, played in order and then repeated
+     */
+    public ScriptedPolicy(String... script) {
+        if (script.length == 0) {
+            throw new IllegalArgumentException("Script needs at least one move");
+        }
+        this.script = script;
+    }
+
+    @Override
+    public Move chooseAction(Player player, Enemy enemy) {
+        if (moves == null) {
+            moves = resolve(player);
+        }
+        Move move = moves[next];
+        next = (next + 1) % moves.length;
+        return move;
+    }
+
+    /**
+     * Turn the script's move names into the player's Move objects, once,
+     * so every later turn is just an array lookup.
+     */
+    private Move[] resolve(Player player) {
+        Move[] resolved = new Move[script.length];
+        for (int i = 0; i < script.length; i++) {
+            resolved[i] = player.findMove(script[i]);
+            if (resolved[i] == null) {
+                throw new IllegalArgumentException(player.getClassName() + " has no move called " + script[i]);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * @return a copy of the script's move names
+     */
+    public String[] getScript() {
+        return script.clone();
+    }
+
+    /**
+     * A reasonable default script for each class (used when no script is given).
+     *
+     * @param className - Barbarian, Archer or Mage
+     * @return a fresh policy for that class
+     */
+    public static ScriptedPolicy defaultFor(String className) {
+        switch (className) {
+            case "Barbarian":
+                return new ScriptedPolicy("Rush", "Punch");  // always land the combo
+            case "Archer":
+                return new ScriptedPolicy("Bow");
+            case "Mage":
+                return new ScriptedPolicy("Fireball", "Lightning");
+            default:
+                throw new IllegalArgumentException("Unknown class: " + className);
+        }
+    }
+}
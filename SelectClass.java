@@ -75,9 +75,7 @@ public class SelectClass extends JPanel {
     private void initializeUI() {
         try {
             // ========== TITLE ==========
-            JLabel titleLabel = new JLabel("SELECT CLASS");
-            titleLabel.setFont(new Font("CASTELLAR", Font.BOLD, 42));
-            titleLabel.setForeground(new Color(218, 165, 32));  // gold
+            JLabel titleLabel = new JLabel(FontManager.textIcon("SELECT CLASS", FontManager.castellar(Font.BOLD, 42), new Color(218, 165, 32)));  // gold
             titleLabel.setHorizontalAlignment(JLabel.CENTER);
             titleLabel.setBounds(200, 50, 600, 50);
             add(titleLabel);
@@ -90,18 +88,18 @@ public class SelectClass extends JPanel {
             
             // ========== CREATE CLASS PANELS ==========
             createClassPanel("Mage", 200, 100,
-                "HP: 40 | Mana: 80 | Attack: 30\nPowerful magic spells\nLow defense", 
+                statLine("Mage") + "\nPowerful magic spells\nLow defense", 
                 mageSprite);
             createClassPanel("Barbarian", 700, 100,
-                "HP: 80 | Mana: 30 | Attack: 12\nRush attacks and blocking\nHigh durability", 
+                statLine("Barbarian") + "\nRush attacks and blocking\nHigh durability", 
                 barbarianSprite);
             createClassPanel("Archer", 450, 100,
-                "HP: 60 | Mana: 50 | Attack: 13\nPrecise ranged attacks\nBalanced fighter", 
+                statLine("Archer") + "\nPrecise ranged attacks\nBalanced fighter", 
                 archerSprite);
             
             // ========== SUBMIT BUTTON ==========
             JButton submitBtn = new JButton("SUBMIT");
-            submitBtn.setFont(new Font("CASTELLAR", Font.BOLD, 18));
+            submitBtn.setFont(FontManager.castellar(Font.BOLD, 18));
             submitBtn.setForeground(Color.BLACK);
             submitBtn.setBackground(new Color(218, 165, 32));
             submitBtn.setBounds(350, 600, 300, 50);
@@ -164,7 +162,7 @@ public class SelectClass extends JPanel {
             } else {
                 // Placeholder text if sprite fails to load
                 spriteLabel = new JLabel("[Sprite]");
-                spriteLabel.setFont(new Font("Arial", Font.BOLD, 12));
+                spriteLabel.setFont(FontManager.arial(Font.BOLD, 12));
                 spriteLabel.setForeground(new Color(150, 150, 150));
                 spriteLabel.setHorizontalAlignment(JLabel.CENTER);
             }
@@ -176,7 +174,7 @@ public class SelectClass extends JPanel {
             
             // ========== CLASS NAME ==========
             JLabel nameLabel = new JLabel(className.toUpperCase());
-            nameLabel.setFont(new Font("CASTELLAR", Font.BOLD, 16));
+            nameLabel.setFont(FontManager.castellar(Font.BOLD, 16));
             nameLabel.setForeground(new Color(218, 165, 32));  // gold
             nameLabel.setHorizontalAlignment(JLabel.CENTER);
             nameLabel.setBounds(10, 150, 120, 30);
@@ -185,7 +183,7 @@ public class SelectClass extends JPanel {
             // ========== DESCRIPTION TEXT AREA ==========
             // Shows stats and class description
             JTextArea descArea = new JTextArea(description);
-            descArea.setFont(new Font("Arial", Font.PLAIN, 11));
+            descArea.setFont(FontManager.arial(Font.PLAIN, 11));
             descArea.setForeground(Color.WHITE);
             descArea.setBackground(new Color(80, 80, 80));
             descArea.setLineWrap(true);
@@ -242,18 +240,23 @@ public class SelectClass extends JPanel {
     }
     
 
+    /**
+     * Build the "HP: 40 | Mana: 80 | Attack: 30" line from the class definition,
+     * so the menu always matches data/definitions.txt.
+     */
+    private String statLine(String className) {
+        GameData data = GameData.get();
+        int c = data.classIndexOf(className);
+        return "HP: " + data.classHP[c] + " | Mana: " + data.classMana[c] + " | Attack: " + data.classAttack[c];
+    }
+    
     private Player createPlayerByClass(String className, String characterName) {
-        switch (className.toLowerCase()) {
-            case "mage":
-                return new Mage(characterName);
-            case "barbarian":
-                return new Barbarian(characterName);
-            case "archer":
-                return new Archer(characterName);
-            default:
-                // Fallback to Mage if something goes wrong, because Mage is easier for testing
-                return new Mage(characterName);
+        Player player = Player.create(className, characterName);
+        if (player == null) {
+            // Fallback to Mage if something goes wrong, because Mage is easier for testing
+            player = Player.create("Mage", characterName);
         }
+        return player;
     }
     
     /**
@@ -0,0 +1,55 @@
+/**
+ * SolverPolicy.java - Plays the move CombatSolver says is best
+ *
+ * Looks up the battle's table in SolverTable once per enemy, then every turn
+ * is one lookup. Whenever there's no answer - no solver file, a matchup it
+ * wasn't solved for (e.g. a character levelled past the stage's range) or a
+ * state outside the table - it plays like GreedyPolicy instead, so it always
+ * returns a move.
+ */
+public class SolverPolicy implements PlayerPolicy {
+
+    private final SolverTable table;
+    private final PlayerPolicy fallback = new GreedyPolicy();
+
+    private Enemy matchupEnemy;          // enemy the cached matchup was found for
+    private int matchupLevel;            // player level it was found for
+    private SolverTable.Matchup matchup;
+
+    private long solverMoves;            // moves that came from the table
+    private long fallbackMoves;          // moves that came from GreedyPolicy
+
+    /**
+     * Use the shared table at SolverTable.DEFAULT_PATH (if there is one).
+     */
+    public SolverPolicy() {
+        this(SolverTable.getDefault());
+    }
+
+    /**
+     * @param table - the solver table, or null to always play greedy
+     */
+    public SolverPolicy(SolverTable table) {
+        this.table = table;
+    }
+
+    @Override
+    public Move chooseAction(Player player, Enemy enemy) {
+        if (table != null && (enemy != matchupEnemy || player.getLevel() != matchupLevel)) {
+            // New battle (or a level-up changed the stats): find its table once
+            matchupEnemy = enemy;
+            matchupLevel = player.getLevel();
+            matchup = table.find(player, enemy);
+        }
+        Move move = matchup == null ? null : matchup.bestMove(player, enemy);
+        if (move != null) {
+            solverMoves++;
+            return move;
+        }
+        fallbackMoves++;
+        return fallback.chooseAction(player, enemy);
+    }
+
+    public long getSolverMoves() { return solverMoves; }
+    public long getFallbackMoves() { return fallbackMoves; }
+}
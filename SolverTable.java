@@ -0,0 +1,151 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * SolverTable.java - Reads CombatSolver's output for "recommended move" hints
+ *
+ * The file is memory-mapped, not loaded: the OS pages in only the bits of
+ * the tables we actually look at, so opening it is instant no matter how
+ * big it is. find() picks the table for the current battle once (a short
+ * scan of the directory), then every lookup is one index calculation and
+ * one getShort.
+ *
+ * A table is only used if the player's and enemy's stats match the ones it
+ * was solved for, so an old file (from before a definitions.txt change) just
+ * gives no hints instead of wrong ones.
+ */
+public final class SolverTable {
+
+    public static final String DEFAULT_PATH = "data/solver.bin";
+
+    private static SolverTable defaultTable;
+    private static boolean defaultLoaded;
+
+    private final MappedByteBuffer buffer;
+    private final int matchupCount;
+
+    /**
+     * One solved matchup inside the file.
+     */
+    public final class Matchup {
+        private final int playerMaxHP, playerMaxMana, enemyHP, comboStates;
+        private final int[] fxRadix;       // status effect digits (see CombatSolver.fxIndex)
+        private final int fxStates;
+        private final long offset;
+
+        private Matchup(int playerMaxHP, int playerMaxMana, int enemyHP, int comboStates, int[] fxRadix, long offset) {
+            this.playerMaxHP = playerMaxHP;
+            this.playerMaxMana = playerMaxMana;
+            this.enemyHP = enemyHP;
+            this.comboStates = comboStates;
+            this.fxRadix = fxRadix;
+            int states = 1;
+            for (int r : fxRadix) states *= r;
+            this.fxStates = states;
+            this.offset = offset;
+        }
+
+        /**
+         * Packed entry for the battle's current state.
+         *
+         * @return move slot << 12 | win chance (0..4095), or -1 if the state is outside the table
+         */
+        public int lookup(Player player, Enemy enemy) {
+            int hp = player.getCurrentHP();
+            int mana = player.getCurrentMana();
+            int eHP = enemy.getCurrentHP();
+            int combo = player instanceof Barbarian && ((Barbarian) player).getLastActionWasRush() ? 1 : 0;
+            if (hp < 1 || hp > playerMaxHP || mana < 0 || mana > playerMaxMana
+                    || eHP < 1 || eHP > enemyHP || combo >= comboStates) {
+                return -1;
+            }
+            int fx = CombatSolver.fxIndex(fxRadix, player.getEffects(), enemy.getEffects());
+            if (fx < 0) return -1;
+            long index = ((((long) eHP * (playerMaxMana + 1) + mana) * (playerMaxHP + 1) + hp) * comboStates + combo)
+                    * fxStates + fx;
+            return buffer.getShort((int) (offset + 2 * index)) & 0xFFFF;
+        }
+
+        /**
+         * @return the recommended move right now, or null if the state is outside the table
+         */
+        public Move bestMove(Player player, Enemy enemy) {
+            int entry = lookup(player, enemy);
+            return entry < 0 ? null : player.getMoves().get(entry >>> CombatSolver.CHANCE_BITS);
+        }
+
+        /**
+         * @return the chance of winning with perfect play from here (0 to 1), or -1
+         */
+        public double winChance(Player player, Enemy enemy) {
+            int entry = lookup(player, enemy);
+            return entry < 0 ? -1 : (double) (entry & CombatSolver.CHANCE_MAX) / CombatSolver.CHANCE_MAX;
+        }
+    }
+
+    /**
+     * Map a solver file.
+     *
+     * @param path - file written by CombatSolver
+     * @throws IOException if it can't be read or isn't a solver file
+     */
+    public SolverTable(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(new File(path).toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException(path + " is too big to map");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < CombatSolver.HEADER_BYTES
+                || buffer.getInt(0) != CombatSolver.MAGIC || buffer.getInt(4) != CombatSolver.VERSION) {
+            throw new IOException(path + " is not a solver file (or is from another version)");
+        }
+        matchupCount = buffer.getInt(8);
+    }
+
+    /**
+     * The shared table at DEFAULT_PATH, mapped on first use.
+     *
+     * @return null if there's no solver file (hints are optional)
+     */
+    public static synchronized SolverTable getDefault() {
+        if (!defaultLoaded) {
+            defaultLoaded = true;
+            if (new File(DEFAULT_PATH).exists()) {
+                try {
+                    defaultTable = new SolverTable(DEFAULT_PATH);
+                } catch (IOException e) {
+                    System.err.println("Could not open " + DEFAULT_PATH + ": " + e.getMessage());
+                }
+            }
+        }
+        return defaultTable;
+    }
+
+    /**
+     * Find the table solved for this battle.
+     *
+     * @return the matchup, or null if the file has none with these exact stats
+     */
+    public Matchup find(Player player, Enemy enemy) {
+        for (int i = 0; i < matchupCount; i++) {
+            int at = CombatSolver.HEADER_BYTES + i * CombatSolver.ENTRY_BYTES;
+            if (buffer.getInt(at) != player.getClassIndex()) continue;
+            if (buffer.getInt(at + 4) != enemy.getType()) continue;
+            if (buffer.getInt(at + 16) != player.getMaxHP()) continue;
+            if (buffer.getInt(at + 20) != player.getMaxMana()) continue;
+            if (buffer.getInt(at + 24) != player.getAttack()) continue;
+            if (buffer.getInt(at + 32) != enemy.getAttack()) continue;
+            if (buffer.getInt(at + 40) != player.getDefense()) continue;
+            if (buffer.getInt(at + 44) != enemy.getDefense()) continue;
+            int[] fxRadix = new int[CombatSolver.FX_DIGITS];
+            for (int k = 0; k < fxRadix.length; k++) fxRadix[k] = buffer.getInt(at + 48 + 4 * k);
+            return new Matchup(buffer.getInt(at + 16), buffer.getInt(at + 20), buffer.getInt(at + 28),
+                    buffer.getInt(at + 36), fxRadix, buffer.getLong(at + 48 + 4 * CombatSolver.FX_DIGITS));
+        }
+        return null;
+    }
+
+    public int getMatchupCount() { return matchupCount; }
+}
@@ -0,0 +1,21 @@
+/**
+ * StatChangeListener.java - Gets told when a Player or Enemy's HP/Mana changes
+ *
+ * Instead of the battle screen checking the stats every animation tick,
+ * Player and Enemy call this whenever a value actually changes
+ * (damage, healing, mana use, level up). The HUD only updates then.
+ *
+ * Enemies don't have mana, so they always report 0/0 for it.
+ */
+public interface StatChangeListener {
+
+    /**
+     * Called right after HP or mana changed.
+     *
+     * @param currentHP - HP after the change
+     * @param maxHP - maximum HP
+     * @param currentMana - mana after the change (0 for enemies)
+     * @param maxMana - maximum mana (0 for enemies)
+     */
+    void statsChanged(int currentHP, int maxHP, int currentMana, int maxMana);
+}
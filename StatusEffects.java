@@ -0,0 +1,213 @@
+/**
+ * StatusEffects.java - Poison, block, stun and buffs on one character
+ *
+ * Moves like Goblin's Poison Dart used to be flat damage, and Archer's Dodge
+ * "block" was a number that nothing ever used. Now a move can put a status
+ * effect on its target (data/definitions.txt "effect" lines), and the
+ * character keeps it for a few turns:
+ *
+ *   POISON     takes  power  damage at the end of each of its actions
+ *   BLOCK      every hit taken is  power  smaller (never below 0)
+ *   STUN       loses its next action (one action per turn of stun)
+ *   ATTACK_UP  deals  power  extra damage with attacks
+ *
+ * Poison and stun land on the opponent, block and attack up on whoever used
+ * the move (targetsSelf). Using a move whose effect is already on refreshes
+ * it: the longer duration and the bigger power win, they don't stack.
+ *
+ * "Turns" are the holder's own actions. Every character's effects count
+ * down when its own action ends (endAction - poison hurts first), not once
+ * per round, so a character that acts twice as often (InitiativeQueue)
+ * also takes poison twice as often and wears its buffs off twice as fast.
+ * An effect a move puts on its own user doesn't count down at the end of
+ * that same move, so a one-turn block still stands when the opponent
+ * replies and N turns of attack up boost the user's next N attacks. Stun
+ * is the exception: it counts down when it costs an action (consumeStun).
+ *
+ * Storage is what simulations can afford to copy millions of times: one int
+ * with a bit per active effect, plus turns-left and power per effect in two
+ * small int arrays. An effect that isn't active always has power 0, so
+ * "damage - blockPower" or "attack + attackUpPower" need no if.
+ *
+ * The static methods do the same thing on anyone's arrays at any offset,
+ * which is how CombatBatch keeps thousands of characters' effects in a few
+ * flat arrays without an object per character.
+ */
+public final class StatusEffects {
+
+    // ==================== EFFECTS ====================
+    public static final int POISON = 0;
+    public static final int BLOCK = 1;
+    public static final int STUN = 2;
+    public static final int ATTACK_UP = 3;
+    public static final int COUNT = 4;
+
+    // Names used by the data file and the battle log (index = effect)
+    public static final String[] NAMES = { "poison", "block", "stun", "attack_up" };
+
+    // Effects that count down at the end of their holder's actions (stun counts down when it costs one)
+    private static final int TICKING = (1 << POISON) | (1 << BLOCK) | (1 << ATTACK_UP);
+
+    private int active;                          // bit e set = effect e is on
+    private final int[] turns = new int[COUNT];  // turns left, by effect
+    private final int[] power = new int[COUNT];  // strength, by effect (0 when off)
+
+    /**
+     * @return the effect number for a data file name, or -1 if there's no such effect
+     */
+    public static int fromName(String name) {
+        for (int e = 0; e < COUNT; e++) {
+            if (NAMES[e].equals(name)) return e;
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if a move with this effect puts it on its user, false if on the opponent
+     */
+    public static boolean targetsSelf(int effect) {
+        return effect == BLOCK || effect == ATTACK_UP;
+    }
+
+    // ==================== ONE CHARACTER ====================
+
+    /**
+     * Put an effect on (or refresh it).
+     *
+     * @param effect - POISON, BLOCK, STUN or ATTACK_UP
+     * @param turns - how many turns it lasts
+     * @param power - damage per turn, block amount or attack bonus (unused for stun)
+     */
+    public void apply(int effect, int turns, int power) {
+        active = apply(active, this.turns, this.power, 0, effect, turns, power);
+    }
+
+    /**
+     * If stunned, use up one stunned action.
+     *
+     * @return true if this character loses the action it was about to take
+     */
+    public boolean consumeStun() {
+        if ((active & (1 << STUN)) == 0) return false;
+        active = consumeStun(active, turns, power, 0);
+        return true;
+    }
+
+    /**
+     * End of this character's action: take poison damage and count its
+     * effects down by a turn.
+     *
+     * @param fresh - bits of the effects this action just put on the character
+     *                itself (they don't count down yet), usually 0
+     * @return poison damage to take now (0 if not poisoned)
+     */
+    public int endAction(int fresh) {
+        int damage = power[POISON];
+        active = tick(active, turns, power, 0, fresh);
+        return damage;
+    }
+
+    /**
+     * @return a hit's damage after block
+     */
+    public int absorb(int damage) {
+        return Math.max(0, damage - power[BLOCK]);
+    }
+
+    /**
+     * Remove every effect (a new battle starts clean).
+     */
+    public void clear() {
+        active = 0;
+        for (int e = 0; e < COUNT; e++) {
+            turns[e] = 0;
+            power[e] = 0;
+        }
+    }
+
+    /**
+     * Overwrite these effects with saved ones (CombatSnapshot).
+     *
+     * @param active - effect bits (getActive)
+     * @param turns - turns left by effect (COUNT entries, copied)
+     * @param power - power by effect (COUNT entries, copied)
+     */
+    public void restore(int active, int[] turns, int[] power) {
+        this.active = active;
+        System.arraycopy(turns, 0, this.turns, 0, COUNT);
+        System.arraycopy(power, 0, this.power, 0, COUNT);
+    }
+
+    /**
+     * Overwrite these effects with another character's.
+     */
+    public void copyFrom(StatusEffects o) {
+        active = o.active;
+        System.arraycopy(o.turns, 0, turns, 0, COUNT);
+        System.arraycopy(o.power, 0, power, 0, COUNT);
+    }
+
+    public boolean has(int effect) { return (active & (1 << effect)) != 0; }
+    public int getTurns(int effect) { return turns[effect]; }
+    public int getPower(int effect) { return power[effect]; }
+    public int getAttackBonus() { return power[ATTACK_UP]; }
+    public boolean isEmpty() { return active == 0; }
+
+    /**
+     * @return the active effects as bits (bit e = effect e)
+     */
+    public int getActive() { return active; }
+
+    // ==================== ON SHARED ARRAYS ====================
+
+    /**
+     * apply() for a character whose turns/power start at base in shared arrays.
+     *
+     * @param bits - the character's active bits
+     * @return the new active bits
+     */
+    public static int apply(int bits, int[] turns, int[] power, int base, int effect, int t, int p) {
+        int k = base + effect;
+        if ((bits & (1 << effect)) == 0) {
+            turns[k] = t;
+            power[k] = p;
+        } else {
+            turns[k] = Math.max(turns[k], t);
+            power[k] = Math.max(power[k], p);
+        }
+        return bits | (1 << effect);
+    }
+
+    /**
+     * consumeStun() on shared arrays (only call it when the stun bit is set).
+     *
+     * @return the new active bits
+     */
+    public static int consumeStun(int bits, int[] turns, int[] power, int base) {
+        int k = base + STUN;
+        if (--turns[k] > 0) return bits;
+        power[k] = 0;
+        return bits & ~(1 << STUN);
+    }
+
+    /**
+     * endAction() on shared arrays: count the ticking effects down by one
+     * turn, switching off the ones that run out (read the poison damage
+     * before calling this).
+     *
+     * @param fresh - bits of effects to leave alone (just put on by the holder's own move)
+     * @return the new active bits
+     */
+    public static int tick(int bits, int[] turns, int[] power, int base, int fresh) {
+        int left = bits & TICKING & ~fresh;
+        while (left != 0) {
+            int e = Integer.numberOfTrailingZeros(left);
+            left &= left - 1;
+            if (--turns[base + e] == 0) {
+                power[base + e] = 0;
+                bits &= ~(1 << e);
+            }
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,295 @@
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * TurnStateMachine.java - Runs one combat turn as a fixed series of phases
+ *
+ * GameManager used to chain Swing Timers: one for the enemy's reply, one
+ * per animation to switch back to idle, one before leaving the battle - a
+ * new Timer and listener each time, and no single place that knew how long
+ * a turn takes. Now a turn is:
+ *
+ *   IDLE -> PLAYER_ANIM -> DAMAGE -> ENEMY_THINK -> ENEMY_ANIM -> IDLE
+ *                            |    |           ^             |  |
+ *                            |    |           +-------------+  |  (another enemy's go)
+ *                            |    +-> IDLE (player's go again) |
+ *                            +----> RESOLUTION <---------------+  (someone died)
+ *                                       |
+ *                                      DONE
+ *
+ *   PLAYER_ANIM  player's move animation starts
+ *   DAMAGE       the player's move is applied (log, HP bars)
+ *   ENEMY_THINK  player back to idle; the next enemy's AI (if any) starts thinking
+ *   ENEMY_ANIM   the enemy's move is applied and animated
+ *
+ * Who goes after whom is CombatEngine's initiative queue: with equal speeds
+ * it's always one enemy reply per turn, but a swarm repeats the enemy
+ * phases once per enemy, and a faster player can go again straight away.
+ *   RESOLUTION   someone was defeated: the result stays on screen this long
+ *   DONE         the battle screen can be left
+ *
+ * Each phase lasts as long as its Timing says (0 = instant). The machine
+ * has no timers of its own: whoever owns it calls update(now) from one
+ * clock (GameManager's 100ms animation timer), and each phase's end is
+ * counted from the previous phase's scheduled end, not from when the tick
+ * happened to notice it. So a turn always takes the sum of its phases,
+ * rounded up to the next tick, and getLastTurnMillis() says what it really took.
+ *
+ * ENEMY_THINK also waits for the AI's answer if it isn't ready by then.
+ *
+ * Not thread-safe: call everything from the Swing thread.
+ */
+public class TurnStateMachine {
+
+    public enum Phase { IDLE, PLAYER_ANIM, DAMAGE, ENEMY_THINK, ENEMY_ANIM, RESOLUTION, DONE }
+
+    /**
+     * How long each phase lasts, in milliseconds. Immutable.
+     */
+    public static final class Timing {
+        private final int[] millis;
+
+        private Timing(int[] millis) {
+            this.millis = millis;
+        }
+
+        /**
+         * The normal pace: the enemy replies 1 second after the player's move
+         * (same as the old Timers) and a finished battle shows for 1 more second.
+         */
+        public static Timing standard() {
+            int[] m = new int[Phase.values().length];
+            m[Phase.PLAYER_ANIM.ordinal()] = 300;
+            m[Phase.DAMAGE.ordinal()] = 300;
+            m[Phase.ENEMY_THINK.ordinal()] = 400;
+            m[Phase.ENEMY_ANIM.ordinal()] = 600;
+            m[Phase.RESOLUTION.ordinal()] = 1000;
+            return new Timing(m);
+        }
+
+        /**
+         * Every phase 0 ms: a turn resolves as soon as the move is picked.
+         */
+        public static Timing instant() {
+            return new Timing(new int[Phase.values().length]);
+        }
+
+        /**
+         * @return a copy with one phase changed
+         */
+        public Timing with(Phase phase, int ms) {
+            if (ms < 0) throw new IllegalArgumentException("Phase time can't be negative: " + ms);
+            int[] m = millis.clone();
+            m[phase.ordinal()] = ms;
+            return new Timing(m);
+        }
+
+        /**
+         * @param speed - 2 = twice as fast, 0.5 = half speed
+         * @return a copy with every phase divided by speed
+         */
+        public Timing scaled(double speed) {
+            int[] m = new int[millis.length];
+            for (int i = 0; i < m.length; i++) m[i] = (int) Math.round(millis[i] / speed);
+            return new Timing(m);
+        }
+
+        public int get(Phase phase) {
+            return millis[phase.ordinal()];
+        }
+
+        /**
+         * @return length of a normal turn (no one defeated)
+         */
+        public int turnMillis() {
+            return get(Phase.PLAYER_ANIM) + get(Phase.DAMAGE) + get(Phase.ENEMY_THINK) + get(Phase.ENEMY_ANIM);
+        }
+    }
+
+    /**
+     * What the owner does when a phase starts.
+     */
+    public interface Actions {
+        /** PLAYER_ANIM: start the player's animation for the move. */
+        default void playerAnimation(Move move) {}
+
+        /** DAMAGE: apply the player's move (CombatEngine.playerTurn). */
+        void playerMove(Move move);
+
+        /** ENEMY_THINK: player animation back to idle. */
+        default void playerIdle() {}
+
+        /**
+         * ENEMY_THINK: start picking the enemy's move.
+         * @return the move when it's ready, or null to let the enemy roll for one
+         */
+        default CompletableFuture<Move> enemyThink() { return null; }
+
+        /** ENEMY_ANIM: apply the enemy's move (null = roll for one). */
+        void enemyMove(Move move);
+
+        /** End of ENEMY_ANIM: enemy animation back to idle. */
+        default void enemyIdle() {}
+
+        /** Back to IDLE: the player can pick the next move. */
+        default void readyForInput() {}
+
+        /** DONE: leave the battle. */
+        default void battleOver() {}
+    }
+
+    private final CombatEngine engine;
+    private final Actions actions;
+    private Timing timing;
+
+    private Phase phase = Phase.IDLE;
+    private long phaseStart;          // scheduled start of the current phase
+    private Move playerMove;
+    private CompletableFuture<Move> enemyMove;
+    private boolean waitedForEnemy;   // ENEMY_THINK ran over time waiting for the AI
+
+    // Measurements
+    private long turnStart;
+    private long lastTurnMillis = -1;
+    private final long[] lastPhaseMillis = new long[Phase.values().length];
+
+    /**
+     * @param engine - the battle (to see when it's over)
+     * @param actions - what to do in each phase
+     * @param timing - phase lengths
+     */
+    public TurnStateMachine(CombatEngine engine, Actions actions, Timing timing) {
+        this.engine = engine;
+        this.actions = actions;
+        this.timing = timing;
+    }
+
+    /**
+     * Start a turn with the player's move.
+     *
+     * @param now - current time in ms (System.currentTimeMillis())
+     * @return false if a turn is already running (button spam) or the battle is over
+     */
+    public boolean playerInput(Move move, long now) {
+        if (phase != Phase.IDLE || engine.isOver()) return false;
+        playerMove = move;
+        turnStart = now;
+        enter(Phase.PLAYER_ANIM, now);
+        update(now);  // phases of length 0 happen right away
+        return true;
+    }
+
+    /**
+     * Move through every phase whose time is up. Call this on every clock tick.
+     * (Actions shouldn't call playerInput themselves - start the next turn from the clock.)
+     *
+     * @param now - current time in ms
+     */
+    public void update(long now) {
+        while (phase != Phase.IDLE && phase != Phase.DONE) {
+            long end = phaseStart + timing.get(phase);
+            if (now < end) return;
+
+            if (phase == Phase.ENEMY_THINK && enemyMove != null && !enemyMove.isDone()) {
+                waitedForEnemy = true;  // AI still busy
+                return;
+            }
+            // If we had to wait for the AI, the next phase starts now instead of on schedule
+            long next = waitedForEnemy ? now : end;
+            waitedForEnemy = false;
+            lastPhaseMillis[phase.ordinal()] = next - phaseStart;
+
+            switch (phase) {
+                case PLAYER_ANIM:
+                    enter(Phase.DAMAGE, next);
+                    break;
+                case DAMAGE:
+                    if (engine.isOver()) {
+                        enter(Phase.RESOLUTION, next);
+                    } else if (engine.isPlayerNext()) {
+                        actions.playerIdle();
+                        finishTurn(now);
+                    } else {
+                        enter(Phase.ENEMY_THINK, next);
+                    }
+                    break;
+                case ENEMY_THINK:
+                    enter(Phase.ENEMY_ANIM, next);
+                    break;
+                case ENEMY_ANIM:
+                    actions.enemyIdle();
+                    if (engine.isOver()) {
+                        enter(Phase.RESOLUTION, next);
+                    } else if (engine.getNextEnemy() != null) {
+                        enter(Phase.ENEMY_THINK, next);
+                    } else {
+                        finishTurn(now);
+                    }
+                    break;
+                case RESOLUTION:
+                    lastTurnMillis = now - turnStart;
+                    phase = Phase.DONE;
+                    actions.battleOver();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void finishTurn(long now) {
+        lastTurnMillis = now - turnStart;
+        phase = Phase.IDLE;
+        actions.readyForInput();
+    }
+
+    private void enter(Phase next, long start) {
+        phase = next;
+        phaseStart = start;
+        switch (next) {
+            case PLAYER_ANIM:
+                actions.playerAnimation(playerMove);
+                break;
+            case DAMAGE:
+                actions.playerMove(playerMove);
+                break;
+            case ENEMY_THINK:
+                actions.playerIdle();
+                enemyMove = actions.enemyThink();
+                break;
+            case ENEMY_ANIM:
+                Move move = null;
+                if (enemyMove != null && !enemyMove.isCompletedExceptionally()) move = enemyMove.join();
+                enemyMove = null;
+                actions.enemyMove(move);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // ==================== GETTERS AND SETTERS ====================
+
+    public Phase getPhase() { return phase; }
+
+    /**
+     * @return true when waiting for the player's move
+     */
+    public boolean isIdle() { return phase == Phase.IDLE; }
+
+    public Timing getTiming() { return timing; }
+
+    /**
+     * Change the pace (takes effect from the next phase change on).
+     */
+    public void setTiming(Timing timing) { this.timing = timing; }
+
+    /**
+     * @return how long the last finished turn really took from input to IDLE/DONE (ms), or -1
+     */
+    public long getLastTurnMillis() { return lastTurnMillis; }
+
+    /**
+     * @return how long a phase lasted the last time it ran (ms)
+     */
+    public long getLastPhaseMillis(Phase p) { return lastPhaseMillis[p.ordinal()]; }
+}
@@ -0,0 +1,180 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import javax.swing.*;
+
+/**
+ * UiBenchmark.java - Times the Swing side of the game without a window
+ *
+ * Runs headless (no display needed), so the numbers can be taken on the
+ * same machines as BalanceSimulator and AutoBattle.
+ *
+ *   screens   builds each menu screen over and over and reports the first
+ *             build (fonts looked up, static text rendered) and the average
+ *             of the rest (everything cached). Only uses the screens' own
+ *             constructors, so the same file can be compiled against an
+ *             older checkout to compare before and after a change.
+ *
+ *   hud       one side's HP/mana display, updated and painted into an
+ *             image over and over: the old stack of JLabels and
+ *             JProgressBars (setText/setValue, then the layout pass that
+ *             setText asks for) against BattleHUD. Reports time and, on
+ *             JDKs that can count it, bytes allocated per update.
+ *
+ * Usage:
+ *   java UiBenchmark screens [--rounds N]     (default 1000 builds per screen)
+ *   java UiBenchmark hud [--rounds N]         (default 20000 updates per pass)
+ */
+public class UiBenchmark {
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");   // before anything touches AWT
+
+        if (args.length < 1) {
+            System.err.println("Usage: java UiBenchmark screens|hud [--rounds N]");
+            System.exit(1);
+        }
+        int rounds = -1;   // command's default
+        for (int i = 1; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + args[i]);
+                System.exit(1);
+            }
+            switch (args[i]) {
+                case "--rounds": rounds = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        switch (args[0]) {
+            case "screens": screens(rounds < 0 ? 1000 : Math.max(2, rounds)); break;
+            case "hud":     hud(rounds < 0 ? 20000 : Math.max(1, rounds)); break;
+            default:
+                System.err.println("Unknown command: " + args[0]);
+                System.exit(1);
+        }
+    }
+
+    // ==================== SCREENS ====================
+
+    private static void screens(int rounds) {
+        System.out.println("Building each screen " + rounds + " times (headless, " + System.getProperty("java.version") + ")");
+        System.out.printf("%-12s %12s %12s%n", "screen", "first ms", "avg ms");
+        double total = 0;
+        total += screen("MainMenu", MainMenu::new, rounds);
+        total += screen("Login", Login::new, rounds);
+        total += screen("Register", Register::new, rounds);
+        total += screen("HowToPlay", HowToPlay::new, rounds);
+        total += screen("SaveManager", () -> new SaveManager("benchmark"), rounds);
+        System.out.printf("%-12s %12s %12.3f%n", "all", "", total);
+    }
+
+    /**
+     * Build one screen rounds times.
+     *
+     * @return average ms per build after the first
+     */
+    private static double screen(String name, Supplier<JPanel> build, int rounds) {
+        long start = System.nanoTime();
+        build.get();
+        double first = (System.nanoTime() - start) / 1e6;
+
+        start = System.nanoTime();
+        for (int i = 1; i < rounds; i++) build.get();
+        double avg = (System.nanoTime() - start) / 1e6 / (rounds - 1);
+
+        System.out.printf("%-12s %12.3f %12.3f%n", name, first, avg);
+        return avg;
+    }
+
+    // ==================== HUD ====================
+
+    private static void hud(int updates) {
+        // The old player HUD, laid out like GameManager used to (relative to its corner)
+        JPanel old = new JPanel(null);
+        old.setSize(BattleHUD.WIDTH, 75);
+        JLabel hpLabel = oldLabel("HP: 80/80", 11, Color.WHITE, 0);
+        JProgressBar hpBar = oldBar(80, Color.GREEN, 15);
+        JLabel manaLabel = oldLabel("Mana: 30/30", 11, Color.WHITE, 30);
+        JProgressBar manaBar = oldBar(30, new Color(100, 150, 255), 45);
+        JLabel stats = oldLabel("ATK: 12 | DEF: 10", 10, Color.LIGHT_GRAY, 60);
+        old.add(hpLabel);
+        old.add(hpBar);
+        old.add(manaLabel);
+        old.add(manaBar);
+        old.add(stats);
+        old.validate();
+
+        BattleHUD hud = new BattleHUD(true, Color.GREEN);
+        hud.setSize(BattleHUD.WIDTH, hud.getPreferredHeight());
+        hud.setCombatStats(12, 0, 10);
+
+        BufferedImage image = new BufferedImage(BattleHUD.WIDTH, 75, BufferedImage.TYPE_INT_ARGB);
+        System.out.println(updates + " updates + paints per pass (headless, " + System.getProperty("java.version") + ")");
+        System.out.printf("%-6s %14s %14s %14s %14s%n", "pass", "old us", "old bytes", "HUD us", "HUD bytes");
+        for (int pass = 1; pass <= 3; pass++) {   // pass 1 includes warm-up
+            long bytes = allocated();
+            long start = System.nanoTime();
+            for (int i = 0; i < updates; i++) {
+                int hp = i % 80;
+                int mana = i % 30;
+                hpLabel.setText("HP: " + hp + "/80");
+                hpBar.setValue(hp);
+                manaLabel.setText("Mana: " + mana + "/30");
+                manaBar.setValue(mana);
+                old.validate();
+                Graphics g = image.getGraphics();
+                old.paint(g);
+                g.dispose();
+            }
+            double oldTime = (System.nanoTime() - start) / 1e3 / updates;
+            long oldBytes = allocated() - bytes;
+
+            bytes = allocated();
+            start = System.nanoTime();
+            for (int i = 0; i < updates; i++) {
+                hud.setStats(i % 80, 80, i % 30, 30);
+                Graphics g = image.getGraphics();
+                hud.paint(g);
+                g.dispose();
+            }
+            double hudTime = (System.nanoTime() - start) / 1e3 / updates;
+            long hudBytes = allocated() - bytes;
+
+            System.out.printf("%-6d %14.2f %14s %14.2f %14s%n", pass, oldTime, perUpdate(oldBytes, updates),
+                hudTime, perUpdate(hudBytes, updates));
+        }
+    }
+
+    private static JLabel oldLabel(String text, int size, Color color, int y) {
+        JLabel label = new JLabel(text);
+        label.setFont(FontManager.arial(Font.PLAIN, size));
+        label.setForeground(color);
+        label.setBounds(0, y, BattleHUD.WIDTH, 15);
+        return label;
+    }
+
+    private static JProgressBar oldBar(int max, Color color, int y) {
+        JProgressBar bar = new JProgressBar(0, max);
+        bar.setValue(max);
+        bar.setForeground(color);
+        bar.setBounds(0, y, BattleHUD.WIDTH, 12);
+        return bar;
+    }
+
+    /**
+     * @return bytes this thread has allocated so far, or -1 if the JDK can't tell
+     */
+    private static long allocated() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) return -1;
+        return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static String perUpdate(long bytes, int updates) {
+        return bytes < 0 ? "n/a" : String.valueOf(bytes / updates);
+    }
+}